@@ -0,0 +1,50 @@
+package benchmark;
+
+/**
+ * One measured operation and the state it runs on.
+ *
+ * The runner calls {@link #setUp()} once, then {@link #run(Blackhole)} as
+ * many times as fits in every iteration. Benchmarks whose operation uses up
+ * its state, like destroying a formation, return true from
+ * {@link #hasInvocationSetUp()}: {@link #prepare()} then runs before every
+ * operation, out of the measured time, and operations are timed one by one.
+ */
+public interface Benchmark {
+
+	/**
+	 * Builds the state of the benchmark, before any measurement.
+	 *
+	 * @throws Exception
+	 *             If the state can't be built.
+	 */
+	default void setUp() throws Exception {
+	}
+
+	/**
+	 * Checks if the state must be rebuilt before every operation.
+	 *
+	 * @return True to call {@link #prepare()} before every operation.
+	 */
+	default boolean hasInvocationSetUp() {
+		return false;
+	}
+
+	/**
+	 * Rebuilds the state used up by an operation, out of the measured time.
+	 *
+	 * @throws Exception
+	 *             If the state can't be built.
+	 */
+	default void prepare() throws Exception {
+	}
+
+	/**
+	 * Runs one operation.
+	 *
+	 * @param blackhole
+	 *            Sink of the results, so the operation is not optimized away.
+	 * @throws Throwable
+	 *             If the operation fails, which stops the benchmark.
+	 */
+	void run(Blackhole blackhole) throws Throwable;
+}
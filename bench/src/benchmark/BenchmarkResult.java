@@ -0,0 +1,138 @@
+package benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Scores of the measured iterations of a benchmark, in nanoseconds per
+ * operation, with the statistics written to the results file.
+ */
+public final class BenchmarkResult {
+
+	/**
+	 * Student's t quantiles for a 99.9% confidence interval, by degrees of
+	 * freedom from 1 to 30.
+	 */
+	private static final double[] T_QUANTILES = { 636.619, 31.599, 12.924,
+			8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587, 4.437, 4.318,
+			4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819,
+			3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+
+	/** Full name of the benchmark. */
+	private final String name;
+	/** Score of every measured iteration. */
+	private final double[] scores;
+	/** Operations run in every measured iteration. */
+	private final long[] operations;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name
+	 *            Full name of the benchmark.
+	 * @param scores
+	 *            Score of every measured iteration, in nanoseconds per
+	 *            operation.
+	 * @param operations
+	 *            Operations run in every measured iteration.
+	 */
+	public BenchmarkResult(final String name, final double[] scores,
+			final long[] operations) {
+		this.name = name;
+		this.scores = scores.clone();
+		this.operations = operations.clone();
+	}
+
+	/**
+	 * Getter for the full name of the benchmark.
+	 *
+	 * @return Name.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Getter for the score of every measured iteration.
+	 *
+	 * @return Copy of the scores, in nanoseconds per operation.
+	 */
+	public double[] getScores() {
+		return this.scores.clone();
+	}
+
+	/**
+	 * Getter for the operations run in every measured iteration.
+	 *
+	 * @return Copy of the operation counts.
+	 */
+	public long[] getOperations() {
+		return this.operations.clone();
+	}
+
+	/**
+	 * Computes the mean score.
+	 *
+	 * @return Mean of the iteration scores.
+	 */
+	public double getScore() {
+		double total = 0;
+		for (double score : this.scores)
+			total += score;
+		return total / this.scores.length;
+	}
+
+	/**
+	 * Computes the half width of the 99.9% confidence interval of the mean.
+	 *
+	 * @return Error of the score, NaN with less than two iterations.
+	 */
+	public double getScoreError() {
+		int count = this.scores.length;
+		if (count < 2)
+			return Double.NaN;
+		double mean = getScore();
+		double squares = 0;
+		for (double score : this.scores)
+			squares += (score - mean) * (score - mean);
+		double deviation = Math.sqrt(squares / (count - 1));
+		return tQuantile(count - 1) * deviation / Math.sqrt(count);
+	}
+
+	/**
+	 * Reads a percentile of the iteration scores, interpolating between
+	 * neighbours.
+	 *
+	 * @param percentile
+	 *            Percentile, between 0 and 100.
+	 * @return Score at the percentile.
+	 */
+	public double getPercentile(final double percentile) {
+		double[] sorted = this.scores.clone();
+		Arrays.sort(sorted);
+		double position = percentile / 100.0 * (sorted.length - 1);
+		int lower = (int) Math.floor(position);
+		int upper = Math.min(lower + 1, sorted.length - 1);
+		double fraction = position - lower;
+		return sorted[lower] + (sorted[upper] - sorted[lower]) * fraction;
+	}
+
+	/**
+	 * Looks up the t quantile of a 99.9% confidence interval.
+	 *
+	 * @param degrees
+	 *            Degrees of freedom, at least one.
+	 * @return Quantile, from the table up to 30 degrees and stepping towards
+	 *         the normal quantile above.
+	 */
+	private static double tQuantile(final int degrees) {
+		if (degrees <= T_QUANTILES.length)
+			return T_QUANTILES[degrees - 1];
+		if (degrees <= 40)
+			return 3.551;
+		if (degrees <= 60)
+			return 3.460;
+		if (degrees <= 120)
+			return 3.373;
+		return 3.291;
+	}
+}
@@ -0,0 +1,342 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import engine.HeadlessGame;
+
+/**
+ * Runs the engine benchmarks and writes their results as JSON, in the
+ * layout of the JMH JSON results so the usual comparison tools read them.
+ *
+ * Every benchmark runs in a single thread in this process, in average time
+ * mode: warmup iterations first, then measured iterations, each running the
+ * operation in growing batches for a fixed time. The score is the mean time
+ * per operation in nanoseconds, with the half width of its 99.9% confidence
+ * interval as error.
+ * <p>
+ * Options:
+ * <ul>
+ * <li>--out=file: results file, bench-results.json by default;</li>
+ * <li>--filter=regex: only runs the benchmarks whose name matches;</li>
+ * <li>--warmup=n: warmup iterations, 5 by default;</li>
+ * <li>--iterations=n: measured iterations, 10 by default;</li>
+ * <li>--time=ms: duration of every iteration, 1000 by default;</li>
+ * <li>--baseline=file: earlier results to compare the scores with.</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+	/** Default results file. */
+	private static final String DEFAULT_OUTPUT = "bench-results.json";
+	/** Default number of warmup iterations. */
+	private static final int DEFAULT_WARMUP = 5;
+	/** Default number of measured iterations. */
+	private static final int DEFAULT_ITERATIONS = 10;
+	/** Default duration of an iteration, in milliseconds. */
+	private static final long DEFAULT_TIME = 1000;
+	/** Nanoseconds in a millisecond. */
+	private static final long NANOS_PER_MILLI = 1000000L;
+	/** Share of an iteration a batch grows to, as a divisor. */
+	private static final long BATCH_DIVISOR = 100;
+	/** Percentiles written to the results file. */
+	private static final double[] PERCENTILES = { 0.0, 50.0, 90.0, 95.0,
+			99.0, 99.9, 99.99, 99.999, 99.9999, 100.0 };
+	/** Benchmark names in a results file. */
+	private static final Pattern BENCHMARK_NAME =
+			Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\"");
+	/** Scores in a results file. */
+	private static final Pattern SCORE =
+			Pattern.compile("\"score\"\\s*:\\s*([-+0-9.eE]+)");
+
+	/** Warmup iterations of every benchmark. */
+	private final int warmupIterations;
+	/** Measured iterations of every benchmark. */
+	private final int measurementIterations;
+	/** Duration of every iteration, in nanoseconds. */
+	private final long iterationNanos;
+	/** Sink of the benchmark results. */
+	private final Blackhole blackhole = new Blackhole();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param warmupIterations
+	 *            Warmup iterations of every benchmark.
+	 * @param measurementIterations
+	 *            Measured iterations of every benchmark.
+	 * @param iterationMillis
+	 *            Duration of every iteration, in milliseconds.
+	 */
+	public BenchmarkRunner(final int warmupIterations,
+			final int measurementIterations, final long iterationMillis) {
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = Math.max(1, measurementIterations);
+		this.iterationNanos = Math.max(1, iterationMillis) * NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Lists every benchmark, by full name.
+	 *
+	 * @return Benchmarks in running order.
+	 */
+	public static Map<String, Benchmark> benchmarks() {
+		Map<String, Benchmark> benchmarks = new LinkedHashMap<String, Benchmark>();
+		CollisionBenchmarks.addTo(benchmarks);
+		DrawBenchmarks.addTo(benchmarks);
+		LevelLoadBenchmarks.addTo(benchmarks);
+		BulletPoolBenchmarks.addTo(benchmarks);
+		BulletStoreBenchmarks.addTo(benchmarks);
+		FormationBenchmarks.addTo(benchmarks);
+		SpriteLoadBenchmarks.addTo(benchmarks);
+		return benchmarks;
+	}
+
+	/**
+	 * Sets up and measures a benchmark.
+	 *
+	 * @param name
+	 *            Full name of the benchmark.
+	 * @param benchmark
+	 *            Benchmark to run.
+	 * @return Measured scores.
+	 * @throws Throwable
+	 *             If the benchmark fails.
+	 */
+	public BenchmarkResult run(final String name, final Benchmark benchmark)
+			throws Throwable {
+		benchmark.setUp();
+		long[] operations = new long[1];
+		for (int i = 0; i < this.warmupIterations; i++)
+			iterate(benchmark, operations);
+		double[] scores = new double[this.measurementIterations];
+		long[] counts = new long[this.measurementIterations];
+		for (int i = 0; i < this.measurementIterations; i++) {
+			scores[i] = iterate(benchmark, operations);
+			counts[i] = operations[0];
+		}
+		return new BenchmarkResult(name, scores, counts);
+	}
+
+	/**
+	 * Runs one iteration of a benchmark.
+	 *
+	 * @param benchmark
+	 *            Benchmark to run.
+	 * @param operations
+	 *            Holder of the number of operations run.
+	 * @return Mean time per operation, in nanoseconds.
+	 * @throws Throwable
+	 *             If the benchmark fails.
+	 */
+	private double iterate(final Benchmark benchmark, final long[] operations)
+			throws Throwable {
+		long count = 0;
+		long measured = 0;
+		long deadline = System.nanoTime() + this.iterationNanos;
+		if (benchmark.hasInvocationSetUp()) {
+			// Operations timed one by one, the set up being left out.
+			do {
+				benchmark.prepare();
+				long start = System.nanoTime();
+				benchmark.run(this.blackhole);
+				measured += System.nanoTime() - start;
+				count++;
+			} while (System.nanoTime() < deadline);
+		} else {
+			long batch = 1;
+			while (true) {
+				long start = System.nanoTime();
+				for (long i = 0; i < batch; i++)
+					benchmark.run(this.blackhole);
+				long end = System.nanoTime();
+				measured += end - start;
+				count += batch;
+				if (end >= deadline)
+					break;
+				if (end - start < this.iterationNanos / BATCH_DIVISOR)
+					batch *= 2;
+			}
+		}
+		operations[0] = count;
+		return (double) measured / count;
+	}
+
+	/**
+	 * Writes results as JSON, in the layout of the JMH results.
+	 *
+	 * @param file
+	 *            File to write.
+	 * @param results
+	 *            Results to write.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	public void write(final Path file, final List<BenchmarkResult> results)
+			throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file,
+				StandardCharsets.UTF_8))) {
+			out.println("[");
+			for (int r = 0; r < results.size(); r++) {
+				BenchmarkResult result = results.get(r);
+				out.println("    {");
+				out.println("        \"harness\" : \"invaders-bench\",");
+				out.println("        \"benchmark\" : \"" + result.getName() + "\",");
+				out.println("        \"mode\" : \"avgt\",");
+				out.println("        \"threads\" : 1,");
+				out.println("        \"forks\" : 0,");
+				out.println("        \"jvm\" : \"" + escape(System.getProperty("java.home")) + "\",");
+				out.println("        \"jdkVersion\" : \"" + System.getProperty("java.version") + "\",");
+				out.println("        \"vmName\" : \"" + escape(System.getProperty("java.vm.name")) + "\",");
+				out.println("        \"vmVersion\" : \"" + System.getProperty("java.vm.version") + "\",");
+				out.println("        \"warmupIterations\" : " + this.warmupIterations + ",");
+				out.println("        \"warmupTime\" : \"" + this.iterationNanos / NANOS_PER_MILLI + " ms\",");
+				out.println("        \"measurementIterations\" : " + this.measurementIterations + ",");
+				out.println("        \"measurementTime\" : \"" + this.iterationNanos / NANOS_PER_MILLI + " ms\",");
+				out.println("        \"primaryMetric\" : {");
+				out.println("            \"score\" : " + number(result.getScore()) + ",");
+				out.println("            \"scoreError\" : " + number(result.getScoreError()) + ",");
+				out.println("            \"scoreConfidence\" : [");
+				out.println("                " + number(result.getScore() - result.getScoreError()) + ",");
+				out.println("                " + number(result.getScore() + result.getScoreError()));
+				out.println("            ],");
+				out.println("            \"scorePercentiles\" : {");
+				for (int p = 0; p < PERCENTILES.length; p++)
+					out.println("                \"" + PERCENTILES[p] + "\" : "
+							+ number(result.getPercentile(PERCENTILES[p]))
+							+ (p < PERCENTILES.length - 1 ? "," : ""));
+				out.println("            },");
+				out.println("            \"scoreUnit\" : \"ns/op\",");
+				out.println("            \"rawData\" : [");
+				out.println("                [");
+				double[] scores = result.getScores();
+				for (int s = 0; s < scores.length; s++)
+					out.println("                    " + number(scores[s])
+							+ (s < scores.length - 1 ? "," : ""));
+				out.println("                ]");
+				out.println("            ]");
+				out.println("        },");
+				out.println("        \"secondaryMetrics\" : {");
+				out.println("        }");
+				out.println("    }" + (r < results.size() - 1 ? "," : ""));
+			}
+			out.println("]");
+		}
+	}
+
+	/**
+	 * Reads the scores of an earlier results file.
+	 *
+	 * @param file
+	 *            Results file written by this runner or by JMH.
+	 * @return Primary scores by benchmark name.
+	 * @throws IOException
+	 *             If the file can't be read.
+	 */
+	public static Map<String, Double> readScores(final Path file)
+			throws IOException {
+		String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		Map<String, Double> scores = new HashMap<String, Double>();
+		Matcher name = BENCHMARK_NAME.matcher(json);
+		Matcher score = SCORE.matcher(json);
+		while (name.find()) {
+			// The primary score is the first one after the name.
+			if (score.find(name.end()))
+				scores.put(name.group(1), Double.parseDouble(score.group(1)));
+		}
+		return scores;
+	}
+
+	/**
+	 * Formats a number for JSON.
+	 *
+	 * @param value
+	 *            Number to format.
+	 * @return JSON number, or "NaN" as a string like JMH.
+	 */
+	private static String number(final double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value))
+			return "\"NaN\"";
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	/**
+	 * Escapes a string for JSON.
+	 *
+	 * @param value
+	 *            String to escape.
+	 * @return Escaped string.
+	 */
+	private static String escape(final String value) {
+		return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args
+	 *            Options, see the class description.
+	 * @throws Throwable
+	 *             If a benchmark fails or the results can't be written.
+	 */
+	public static void main(final String[] args) throws Throwable {
+		Map<String, String> options = new HashMap<String, String>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				System.err.println("Unknown argument " + arg + ".");
+				System.exit(1);
+			}
+			options.put(arg.substring(2, separator), arg.substring(separator + 1));
+		}
+		HeadlessGame.configure();
+
+		BenchmarkRunner runner = new BenchmarkRunner(
+				Integer.parseInt(options.getOrDefault("warmup",
+						Integer.toString(DEFAULT_WARMUP))),
+				Integer.parseInt(options.getOrDefault("iterations",
+						Integer.toString(DEFAULT_ITERATIONS))),
+				Long.parseLong(options.getOrDefault("time",
+						Long.toString(DEFAULT_TIME))));
+		Pattern filter = Pattern.compile(options.getOrDefault("filter", ""));
+		Map<String, Double> baseline = options.containsKey("baseline")
+				? readScores(Paths.get(options.get("baseline")))
+				: new HashMap<String, Double>();
+
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		for (Map.Entry<String, Benchmark> entry : benchmarks().entrySet()) {
+			if (!filter.matcher(entry.getKey()).find())
+				continue;
+			BenchmarkResult result = runner.run(entry.getKey(), entry.getValue());
+			results.add(result);
+			String line = String.format(Locale.ROOT,
+					"%-52s avgt %3d %14.3f +- %10.3f ns/op", result.getName(),
+					runner.measurementIterations, result.getScore(),
+					result.getScoreError());
+			Double previous = baseline.get(result.getName());
+			if (previous != null && previous > 0)
+				line += String.format(Locale.ROOT, "  %+.1f%% vs baseline",
+						(result.getScore() / previous - 1.0) * 100.0);
+			System.out.println(line);
+		}
+		Path output = Paths.get(options.getOrDefault("out", DEFAULT_OUTPUT));
+		runner.write(output, results);
+		System.out.println(results.size() + " benchmarks written to " + output
+				+ " (sink " + runner.blackhole.getSink() + ").");
+	}
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+/**
+ * Sink of the benchmark results. Consuming a value makes it observable, so
+ * the compiler can't remove the code computing it.
+ */
+public final class Blackhole {
+
+	/** Mixed consumed values, read once at the end. */
+	private int sink;
+	/** Last consumed object. */
+	private volatile Object lastObject;
+
+	/**
+	 * Consumes a number.
+	 *
+	 * @param value
+	 *            Value to consume.
+	 */
+	public void consume(final int value) {
+		this.sink = this.sink * 31 + value;
+	}
+
+	/**
+	 * Consumes a number.
+	 *
+	 * @param value
+	 *            Value to consume.
+	 */
+	public void consume(final long value) {
+		this.sink = this.sink * 31 + (int) (value ^ (value >>> 32));
+	}
+
+	/**
+	 * Consumes a flag.
+	 *
+	 * @param value
+	 *            Value to consume.
+	 */
+	public void consume(final boolean value) {
+		this.sink = this.sink * 31 + (value ? 1 : 0);
+	}
+
+	/**
+	 * Consumes an object.
+	 *
+	 * @param value
+	 *            Value to consume.
+	 */
+	public void consume(final Object value) {
+		this.lastObject = value;
+	}
+
+	/**
+	 * Getter for the mix of the consumed values, printed by the runner so it
+	 * stays observable.
+	 *
+	 * @return Mixed values.
+	 */
+	public int getSink() {
+		return this.sink + (this.lastObject == null ? 0 : 1);
+	}
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import entity.Bullet;
+import entity.BulletPool;
+
+/**
+ * Benchmarks of taking bullets from the pool and giving them back.
+ */
+public final class BulletPoolBenchmarks {
+
+	/** Bullets taken at once by the burst benchmark. */
+	private static final int BURST = 64;
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private BulletPoolBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.BulletPoolBenchmarks.getAndRecycle",
+				new RecycleBenchmark(1));
+		benchmarks.put("benchmark.BulletPoolBenchmarks.getAndRecycleBurst",
+				new RecycleBenchmark(BURST));
+	}
+
+	/**
+	 * Takes a number of bullets from the pool, then recycles them together.
+	 */
+	private static final class RecycleBenchmark implements Benchmark {
+
+		/** Bullets taken by every operation. */
+		private final int count;
+		/** Bullets taken, reused between operations. */
+		private final List<Bullet> taken;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param count
+		 *            Bullets taken by every operation.
+		 */
+		RecycleBenchmark(final int count) {
+			this.count = count;
+			this.taken = new ArrayList<Bullet>(count);
+		}
+
+		@Override
+		public void setUp() {
+			BulletPool.getPool().prewarm(this.count);
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			for (int i = 0; i < this.count; i++)
+				this.taken.add(BulletPool.getBullet(i * 4, 400, -4));
+			blackhole.consume(this.taken.get(this.count - 1));
+			BulletPool.recycle(this.taken);
+			this.taken.clear();
+		}
+	}
+}
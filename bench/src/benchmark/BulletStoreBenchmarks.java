@@ -0,0 +1,89 @@
+package benchmark;
+
+import java.util.Map;
+
+import entity.BulletStore;
+
+/**
+ * Benchmarks of the store holding the live bullets of a game screen.
+ */
+public final class BulletStoreBenchmarks {
+
+	/** Bullets added at once by the burst benchmark. */
+	private static final int BURST = 64;
+	/** Position in the y-axis where bullets are shot from. */
+	private static final int SHOT_Y = 400;
+	/** Speed of the bullets, shot upwards. */
+	private static final int SPEED = -4;
+	/** Lowest position in the y-axis kept by the cull. */
+	private static final int MIN_Y = 40;
+	/** Highest position in the y-axis kept by the cull. */
+	private static final int MAX_Y = 520;
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private BulletStoreBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.BulletStoreBenchmarks.addAndRemoveBurst",
+				new BurstBenchmark());
+		benchmarks.put("benchmark.BulletStoreBenchmarks.tick",
+				new TickBenchmark());
+	}
+
+	/**
+	 * Adds a burst of bullets, then removes them from the front, so every
+	 * removal moves the last bullet into the freed slot.
+	 */
+	private static final class BurstBenchmark implements Benchmark {
+
+		/** Store filled and emptied. */
+		private final BulletStore store = new BulletStore(BURST);
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			for (int i = 0; i < BURST; i++)
+				this.store.add(i * 4, SHOT_Y, SPEED, BulletStore.OWNER_P1);
+			blackhole.consume(this.store.getPositionX(BURST - 1));
+			while (this.store.size() > 0)
+				this.store.remove(0);
+		}
+	}
+
+	/**
+	 * Runs the bullet part of a game tick: one bullet shot, every bullet
+	 * moved, and the bullets off the field removed. The store settles at the
+	 * number of bullets in flight between the shot and the top of the field.
+	 */
+	private static final class TickBenchmark implements Benchmark {
+
+		/** Store of the bullets in flight. */
+		private final BulletStore store = new BulletStore();
+		/** Bullets shot so far, spreading them across the field. */
+		private int shots;
+
+		@Override
+		public void setUp() {
+			this.store.clear();
+			for (int y = SHOT_Y; y >= MIN_Y; y += SPEED)
+				this.store.add(this.shots++ % 400, y, SPEED,
+						BulletStore.OWNER_P1);
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			this.store.add(this.shots++ % 400, SHOT_Y, SPEED,
+					BulletStore.OWNER_P1);
+			this.store.updateAll();
+			blackhole.consume(this.store.cull(MIN_Y, MAX_Y));
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import engine.Core;
+import engine.DrawManager.SpriteType;
+import engine.GameState;
+import engine.level.LevelManager;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Entity;
+import screen.GameScreen;
+
+/**
+ * Benchmarks of the game screen collision test between two entities.
+ *
+ * The test is private to the game screen, so it is called through a method
+ * handle kept in a constant, which the compiler inlines like a direct call.
+ */
+public final class CollisionBenchmarks {
+
+	/** Pairs tested, a power of two. */
+	private static final int PAIRS = 1024;
+	/** Seed of the pair positions. */
+	private static final long SEED = 42;
+
+	/** Collision test of the game screen. */
+	private static final MethodHandle CHECK_COLLISION = findCheckCollision();
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private CollisionBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.CollisionBenchmarks.checkCollisionMixed",
+				new PairBenchmark(0.5));
+		benchmarks.put("benchmark.CollisionBenchmarks.checkCollisionMiss",
+				new PairBenchmark(0.0));
+	}
+
+	/**
+	 * Finds the private collision test of the game screen.
+	 *
+	 * @return Handle taking the screen and both entities.
+	 */
+	private static MethodHandle findCheckCollision() {
+		try {
+			return MethodHandles.privateLookupIn(GameScreen.class,
+					MethodHandles.lookup()).findVirtual(GameScreen.class,
+					"checkCollision", MethodType.methodType(boolean.class,
+							Entity.class, Entity.class));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("GameScreen.checkCollision not found.", e);
+		}
+	}
+
+	/**
+	 * Tests bullets against enemy ships, cycling through a fixed set of
+	 * pairs.
+	 */
+	private static final class PairBenchmark implements Benchmark {
+
+		/** Share of the pairs overlapping. */
+		private final double hitRatio;
+		/** Screen whose test is measured. */
+		private GameScreen screen;
+		/** Bullets, first entity of every pair. */
+		private Entity[] bullets;
+		/** Enemy ships, second entity of every pair. */
+		private Entity[] ships;
+		/** Next pair tested. */
+		private int next;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param hitRatio
+		 *            Share of the pairs overlapping.
+		 */
+		PairBenchmark(final double hitRatio) {
+			this.hitRatio = hitRatio;
+		}
+
+		@Override
+		public void setUp() {
+			this.screen = new GameScreen(new GameState(1, 0, Core.getMaxLives(),
+					Core.getMaxLives(), 0, 0, 0), new LevelManager().getLevel(1),
+					false, Core.getMaxLives(), 448, 520, 60);
+			SplittableRandom random = new SplittableRandom(SEED);
+			this.bullets = new Entity[PAIRS];
+			this.ships = new Entity[PAIRS];
+			for (int i = 0; i < PAIRS; i++) {
+				int x = random.nextInt(400);
+				int y = random.nextInt(400);
+				this.ships[i] = new EnemyShip(x, y, SpriteType.EnemyShipA1);
+				boolean hit = random.nextDouble() < this.hitRatio;
+				int offset = hit ? random.nextInt(-4, 20) : 40 + random.nextInt(100);
+				this.bullets[i] = new Bullet(x + offset, y + offset, -4);
+			}
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) throws Throwable {
+			int pair = this.next;
+			this.next = (pair + 1) & (PAIRS - 1);
+			blackhole.consume((boolean) CHECK_COLLISION.invokeExact(this.screen,
+					this.bullets[pair], this.ships[pair]));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.DrawManager.SpriteType;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Entity;
+import entity.Ship;
+import screen.Screen;
+
+/**
+ * Benchmarks of drawing entities into the software back buffer, as the draw
+ * manager does without a window.
+ */
+public final class DrawBenchmarks {
+
+	/** Entities drawn in turn, a power of two. */
+	private static final int ENTITIES = 64;
+	/** Seed of the entity positions. */
+	private static final long SEED = 42;
+	/** Width of the screen drawn on. */
+	private static final int WIDTH = 448;
+	/** Height of the screen drawn on. */
+	private static final int HEIGHT = 520;
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private DrawBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.DrawBenchmarks.drawEntity",
+				new DrawEntityBenchmark());
+	}
+
+	/**
+	 * Draws a mix of enemy ships, ships and bullets at scattered positions.
+	 */
+	private static final class DrawEntityBenchmark implements Benchmark {
+
+		/** Draw manager measured. */
+		private DrawManager drawManager;
+		/** Entities drawn in turn. */
+		private Entity[] entities;
+		/** Next entity drawn. */
+		private int next;
+
+		@Override
+		public void setUp() {
+			this.drawManager = Core.getDrawManager();
+			this.drawManager.initDrawing(new Screen(WIDTH, HEIGHT, 60));
+			SpriteType[] enemyTypes = { SpriteType.EnemyShipA1,
+					SpriteType.EnemyShipB1, SpriteType.EnemyShipC1,
+					SpriteType.EnemyShipA2 };
+			SplittableRandom random = new SplittableRandom(SEED);
+			this.entities = new Entity[ENTITIES];
+			for (int i = 0; i < ENTITIES; i++) {
+				int x = random.nextInt(WIDTH - 30);
+				int y = random.nextInt(HEIGHT - 30);
+				if (i % 8 == 0)
+					this.entities[i] = new Ship(x, y, java.awt.Color.GREEN);
+				else if (i % 4 == 0)
+					this.entities[i] = new Bullet(x, y, -4);
+				else
+					this.entities[i] = new EnemyShip(x, y,
+							enemyTypes[i % enemyTypes.length]);
+			}
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			Entity entity = this.entities[this.next];
+			this.next = (this.next + 1) & (ENTITIES - 1);
+			this.drawManager.drawEntity(entity, entity.getPositionX(),
+					entity.getPositionY());
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package benchmark;
+
+import java.util.Map;
+import java.util.logging.Level;
+
+import engine.Core;
+import engine.GameClock;
+import engine.RandomService;
+import engine.level.LevelManager;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import screen.Screen;
+
+/**
+ * Benchmarks of the enemy formation, built from the largest bundled level.
+ */
+public final class FormationBenchmarks {
+
+	/** Seed of the formation randomness. */
+	private static final long SEED = 42;
+	/** Game time between two updates, in nanoseconds. */
+	private static final long TICK_NANOS = 1000000000L / 60;
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private FormationBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.FormationBenchmarks.update",
+				new UpdateBenchmark());
+		benchmarks.put("benchmark.FormationBenchmarks.iterator",
+				new IteratorBenchmark());
+		benchmarks.put("benchmark.FormationBenchmarks.destroyAll",
+				new DestroyBenchmark());
+	}
+
+	/**
+	 * Prepares the thread for formation updates: stepped game time, seeded
+	 * randomness and quiet formation logs.
+	 */
+	private static void prepareThread() {
+		GameClock.setCurrent(GameClock.stepped());
+		RandomService.setCurrent(new RandomService(SEED));
+		Core.getLogger("formation").setLevel(Level.WARNING);
+	}
+
+	/**
+	 * Builds a formation of the bundled level with the most ships.
+	 *
+	 * @return New formation attached to a screen.
+	 */
+	private static EnemyShipFormation largestFormation() {
+		engine.level.Level largest = null;
+		for (engine.level.Level level : new LevelManager().getLevels())
+			if (largest == null || level.getFormationWidth()
+					* level.getFormationHeight() > largest.getFormationWidth()
+					* largest.getFormationHeight())
+				largest = level;
+		EnemyShipFormation formation = new EnemyShipFormation(largest);
+		formation.attach(new Screen(448, 520, 60));
+		return formation;
+	}
+
+	/**
+	 * Runs one formation update per game tick.
+	 */
+	private static final class UpdateBenchmark implements Benchmark {
+
+		/** Formation updated. */
+		private EnemyShipFormation formation;
+
+		@Override
+		public void setUp() {
+			prepareThread();
+			this.formation = largestFormation();
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			GameClock.current().advance(TICK_NANOS);
+			this.formation.update();
+		}
+	}
+
+	/**
+	 * Walks every ship of the formation with its iterator.
+	 */
+	private static final class IteratorBenchmark implements Benchmark {
+
+		/** Formation walked. */
+		private EnemyShipFormation formation;
+
+		@Override
+		public void setUp() {
+			prepareThread();
+			this.formation = largestFormation();
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			int positions = 0;
+			for (EnemyShip ship : this.formation)
+				positions += ship.getPositionX();
+			blackhole.consume(positions);
+		}
+	}
+
+	/**
+	 * Destroys every ship of a new formation, one by one.
+	 */
+	private static final class DestroyBenchmark implements Benchmark {
+
+		/** Formation destroyed. */
+		private EnemyShipFormation formation;
+		/** Ships of the formation, in destruction order. */
+		private EnemyShip[] ships;
+
+		@Override
+		public void setUp() {
+			prepareThread();
+		}
+
+		@Override
+		public boolean hasInvocationSetUp() {
+			return true;
+		}
+
+		@Override
+		public void prepare() {
+			this.formation = largestFormation();
+			this.ships = new EnemyShip[this.formation.size()];
+			for (int i = 0; i < this.ships.length; i++)
+				this.ships[i] = this.formation.get(i);
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) {
+			for (EnemyShip ship : this.ships)
+				this.formation.destroy(ship);
+			blackhole.consume(this.formation.isEmpty());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import engine.level.JsonLoader;
+
+/**
+ * Benchmarks of parsing level files: the bundled maps file, and a large one
+ * generated by repeating its levels.
+ */
+public final class LevelLoadBenchmarks {
+
+	/** Bundled maps file. */
+	private static final String MAPS_RESOURCE = "maps/maps.json";
+	/** Copies of the bundled levels in the generated file. */
+	private static final int LARGE_COPIES = 200;
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private LevelLoadBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.LevelLoadBenchmarks.parseSmall",
+				new ParseBenchmark(1));
+		benchmarks.put("benchmark.LevelLoadBenchmarks.parseLarge",
+				new ParseBenchmark(LARGE_COPIES));
+	}
+
+	/**
+	 * Reads the bundled maps file.
+	 *
+	 * @return Content of the file.
+	 * @throws IOException
+	 *             If the file can't be read.
+	 */
+	private static String readMaps() throws IOException {
+		try (InputStream in = LevelLoadBenchmarks.class.getClassLoader()
+				.getResourceAsStream(MAPS_RESOURCE)) {
+			if (in == null)
+				throw new IOException("Cannot find resource " + MAPS_RESOURCE);
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Builds a maps file holding the bundled levels several times.
+	 *
+	 * @param maps
+	 *            Content of the bundled maps file.
+	 * @param copies
+	 *            Number of copies of the levels.
+	 * @return Content of the generated file.
+	 */
+	private static String repeatLevels(final String maps, final int copies) {
+		int open = maps.indexOf('[');
+		int close = maps.lastIndexOf(']');
+		String levels = maps.substring(open + 1, close).trim();
+		StringBuilder json = new StringBuilder(levels.length() * copies + 32);
+		json.append("{\"levels\": [");
+		for (int i = 0; i < copies; i++) {
+			if (i > 0)
+				json.append(',');
+			json.append(levels);
+		}
+		json.append("]}");
+		return json.toString();
+	}
+
+	/**
+	 * Parses a maps file.
+	 */
+	private static final class ParseBenchmark implements Benchmark {
+
+		/** Copies of the bundled levels parsed. */
+		private final int copies;
+		/** Content parsed. */
+		private String json;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param copies
+		 *            Copies of the bundled levels parsed.
+		 */
+		ParseBenchmark(final int copies) {
+			this.copies = copies;
+		}
+
+		@Override
+		public void setUp() throws IOException {
+			String maps = readMaps();
+			this.json = this.copies == 1 ? maps : repeatLevels(maps, this.copies);
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) throws IOException {
+			blackhole.consume(JsonLoader.parse(this.json));
+		}
+	}
+}
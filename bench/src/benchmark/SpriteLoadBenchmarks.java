@@ -0,0 +1,55 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.DrawManager.SpriteType;
+import engine.FileManager;
+
+/**
+ * Benchmarks of reading every sprite from the graphics file.
+ */
+public final class SpriteLoadBenchmarks {
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private SpriteLoadBenchmarks() {
+	}
+
+	/**
+	 * Adds the benchmarks of this class.
+	 *
+	 * @param benchmarks
+	 *            Benchmarks by full name.
+	 */
+	static void addTo(final Map<String, Benchmark> benchmarks) {
+		benchmarks.put("benchmark.SpriteLoadBenchmarks.loadSprite",
+				new LoadSpriteBenchmark());
+	}
+
+	/**
+	 * Loads the sprite matrices the draw manager uses.
+	 */
+	private static final class LoadSpriteBenchmark implements Benchmark {
+
+		/** File manager measured. */
+		private FileManager fileManager;
+		/** Sprite matrices, filled again by every operation. */
+		private Map<SpriteType, boolean[][]> sprites;
+
+		@Override
+		public void setUp() {
+			this.fileManager = Core.getFileManager();
+			this.sprites = DrawManager.createSpriteMap();
+		}
+
+		@Override
+		public void run(final Blackhole blackhole) throws IOException {
+			this.fileManager.loadSprite(this.sprites);
+			blackhole.consume(this.sprites);
+		}
+	}
+}
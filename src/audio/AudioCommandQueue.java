@@ -0,0 +1,293 @@
+package audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import engine.GameClock;
+import engine.LatencyHistogram;
+
+/**
+ * Queue of sound commands run on a dedicated audio thread, so playing or
+ * stopping a sound never blocks the game thread on the sound device.
+ *
+ * Sending a command is a lock-free enqueue, and wakes the audio thread only
+ * when it is idle. The audio thread drains every queued command at once.
+ * Identical commands sent during the same game tick are run once: a sound
+ * played twice in a tick plays once, unless a stop or a loop came in
+ * between, and a stop or a loop is dropped only when it repeats the command
+ * kept just before it. Ticks are told apart by the game clock of the
+ * sending thread, which only moves once per tick.
+ */
+final class AudioCommandQueue {
+
+	/** What a command does. */
+	enum Operation {
+		/** Plays a sound once. */
+		PLAY,
+		/** Loops a track, crossfading from the one playing. Effects keep playing. */
+		LOOP,
+		/** Stops a sound. */
+		STOP,
+		/** Stops every sound. */
+		STOP_ALL
+	}
+
+	/** Commands waiting for the audio thread. */
+	private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+	/** Number of commands waiting, as the queue itself counts in linear time. */
+	private final AtomicInteger depth = new AtomicInteger();
+	/** Commands dropped as duplicates of a command of the same tick. */
+	private final AtomicLong coalesced = new AtomicLong();
+	/** Time from sending to the end of a command, guarded by itself. */
+	private final LatencyHistogram latency = new LatencyHistogram();
+	/** Commands kept during the latest tick, read by the audio thread only. */
+	private final List<Command> recent = new ArrayList<>();
+	/** First play of {@link #recent} after its last stop or loop. */
+	private int recentPlaysFrom;
+	/** Runs a command on the audio thread. */
+	private final Consumer<Command> executor;
+	/** Thread running the commands. */
+	private final Thread thread;
+	/** If the audio thread is about to park, and must be woken up. */
+	private volatile boolean idle;
+	/** If the audio thread keeps running. */
+	private volatile boolean running = true;
+
+	/**
+	 * Constructor, starts the audio thread.
+	 *
+	 * @param executor
+	 *            Runs a command on the audio thread.
+	 */
+	AudioCommandQueue(final Consumer<Command> executor) {
+		this.executor = executor;
+		this.thread = new Thread(this::drain, "Audio");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Sends a command to the audio thread.
+	 *
+	 * @param operation
+	 *            What the command does.
+	 * @param resourcePath
+	 *            Sound of the command, null to stop every sound.
+	 * @param gain
+	 *            Volume of a sound played, from 0 to 1.
+	 */
+	void send(final Operation operation, final String resourcePath,
+			final float gain) {
+		this.queue.offer(new Command(operation, resourcePath, gain,
+				GameClock.nanoTime(), System.nanoTime()));
+		this.depth.incrementAndGet();
+		if (this.idle)
+			LockSupport.unpark(this.thread);
+	}
+
+	/**
+	 * Runs the commands as they come, until closed.
+	 */
+	private void drain() {
+		List<Command> batch = new ArrayList<>();
+		List<Command> toRun = new ArrayList<>();
+		while (this.running) {
+			Command command;
+			while ((command = this.queue.poll()) != null) {
+				this.depth.decrementAndGet();
+				batch.add(command);
+			}
+			if (batch.isEmpty()) {
+				this.idle = true;
+				if (this.queue.isEmpty() && this.running)
+					LockSupport.park(this);
+				this.idle = false;
+				continue;
+			}
+			coalesce(batch, toRun);
+			for (Command next : toRun) {
+				try {
+					this.executor.accept(next);
+				} catch (RuntimeException e) {
+					System.err.println("[Sound] Command failed: " + next.operation
+							+ " " + next.resourcePath + " -> " + e);
+				}
+				long elapsed = System.nanoTime() - next.sentAt;
+				synchronized (this.latency) {
+					this.latency.record(elapsed);
+				}
+			}
+			batch.clear();
+			toRun.clear();
+		}
+	}
+
+	/**
+	 * Drops the commands repeating a command already kept during the same
+	 * tick, in this batch or an earlier one.
+	 *
+	 * @param batch
+	 *            Commands in the order they were sent.
+	 * @param toRun
+	 *            Receives the commands to run, in order.
+	 */
+	private void coalesce(final List<Command> batch, final List<Command> toRun) {
+		for (Command command : batch) {
+			if (!this.recent.isEmpty() && this.recent.get(0).tick != command.tick) {
+				this.recent.clear();
+				this.recentPlaysFrom = 0;
+			}
+			boolean duplicate = false;
+			if (command.operation == Operation.PLAY) {
+				// A play only repeats the plays since the last stop or loop.
+				for (int i = this.recentPlaysFrom; i < this.recent.size()
+						&& !duplicate; i++)
+					duplicate = command.repeats(this.recent.get(i));
+			} else {
+				duplicate = !this.recent.isEmpty()
+						&& command.repeats(this.recent.get(this.recent.size() - 1));
+			}
+			if (duplicate) {
+				this.coalesced.incrementAndGet();
+				continue;
+			}
+			this.recent.add(command);
+			if (command.operation != Operation.PLAY)
+				this.recentPlaysFrom = this.recent.size();
+			toRun.add(command);
+		}
+	}
+
+	/**
+	 * Getter for the number of commands waiting.
+	 *
+	 * @return Queue depth.
+	 */
+	int getDepth() {
+		return Math.max(0, this.depth.get());
+	}
+
+	/**
+	 * Getter for the number of commands dropped as duplicates.
+	 *
+	 * @return Coalesced commands.
+	 */
+	long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	/**
+	 * Reads a percentile of the time from sending a command to the end of
+	 * its run.
+	 *
+	 * @param percentile
+	 *            Percentile, between 0 and 100.
+	 * @return Latency in nanoseconds, zero before any command ran.
+	 */
+	long getLatency(final double percentile) {
+		synchronized (this.latency) {
+			return this.latency.getPercentile(percentile);
+		}
+	}
+
+	/**
+	 * Stops the audio thread, dropping the commands still waiting.
+	 */
+	void close() {
+		this.running = false;
+		LockSupport.unpark(this.thread);
+		try {
+			this.thread.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sound command waiting for the audio thread.
+	 */
+	static final class Command {
+		/** What the command does. */
+		private final Operation operation;
+		/** Sound of the command, null to stop every sound. */
+		private final String resourcePath;
+		/** Volume of a sound played. */
+		private final float gain;
+		/** Game time of the sending thread when sent. */
+		private final long tick;
+		/** System time when sent, in nanoseconds. */
+		private final long sentAt;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param operation
+		 *            What the command does.
+		 * @param resourcePath
+		 *            Sound of the command, null to stop every sound.
+		 * @param gain
+		 *            Volume of a sound played.
+		 * @param tick
+		 *            Game time of the sending thread.
+		 * @param sentAt
+		 *            System time when sent.
+		 */
+		private Command(final Operation operation, final String resourcePath,
+				final float gain, final long tick, final long sentAt) {
+			this.operation = operation;
+			this.resourcePath = resourcePath;
+			this.gain = gain;
+			this.tick = tick;
+			this.sentAt = sentAt;
+		}
+
+		/**
+		 * Checks if this command does the same as another one sent during
+		 * the same tick.
+		 *
+		 * @param other
+		 *            Command sent before.
+		 * @return True if running this command again is redundant.
+		 */
+		private boolean repeats(final Command other) {
+			return this.operation == other.operation && this.tick == other.tick
+					&& this.gain == other.gain
+					&& (this.resourcePath == null ? other.resourcePath == null
+							: this.resourcePath.equals(other.resourcePath));
+		}
+
+		/**
+		 * Getter for what the command does.
+		 *
+		 * @return Operation.
+		 */
+		Operation getOperation() {
+			return this.operation;
+		}
+
+		/**
+		 * Getter for the sound of the command.
+		 *
+		 * @return Resource path, null to stop every sound.
+		 */
+		String getResourcePath() {
+			return this.resourcePath;
+		}
+
+		/**
+		 * Getter for the volume of a sound played.
+		 *
+		 * @return Gain, from 0 to 1.
+		 */
+		float getGain() {
+			return this.gain;
+		}
+	}
+}
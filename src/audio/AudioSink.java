@@ -0,0 +1,82 @@
+package audio;
+
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * Destination of the samples mixed by the {@link SoftwareMixer} and the
+ * {@link MusicPlayer}.
+ */
+interface AudioSink {
+
+	/** System property choosing the sink: line, null or file:path. */
+	String SINK_PROPERTY = "invaders.audio.sink";
+
+	/**
+	 * Opens the sink chosen by {@link #SINK_PROPERTY}, falling back to a
+	 * null sink when there is no audio device.
+	 *
+	 * @param format
+	 *            Format of the samples.
+	 * @param lineBytes
+	 *            Size of the output line buffer, in bytes.
+	 * @param fileSuffix
+	 *            Added to the name of a file sink before its extension, so
+	 *            that several sinks write to different files.
+	 * @return Opened sink.
+	 */
+	static AudioSink open(final AudioFormat format, final int lineBytes,
+			final String fileSuffix) {
+		String name = System.getProperty(SINK_PROPERTY, "line");
+		if ("null".equals(name))
+			return new NullSink();
+		if (name.startsWith("file:")) {
+			String path = name.substring("file:".length());
+			int extension = path.lastIndexOf('.');
+			if (extension <= path.lastIndexOf('/'))
+				extension = path.length();
+			path = path.substring(0, extension) + fileSuffix
+					+ path.substring(extension);
+			try {
+				return new WavFileSink(path, format);
+			} catch (IOException e) {
+				System.err.println("[Sound] Can't write " + path + " -> " + e.getMessage());
+				return new NullSink();
+			}
+		}
+		try {
+			return new LineSink(format, lineBytes);
+		} catch (LineUnavailableException e) {
+			System.err.println("[Sound] No audio device, writing to a null sink -> "
+					+ e.getMessage());
+			return new NullSink();
+		}
+	}
+
+	/**
+	 * Writes mixed samples.
+	 *
+	 * @param buffer
+	 *            Signed 16-bit little-endian stereo samples.
+	 * @param length
+	 *            Number of bytes to write.
+	 * @throws IOException
+	 *             If the samples can't be written.
+	 */
+	void write(byte[] buffer, int length) throws IOException;
+
+	/**
+	 * Checks if writing waits for the samples to be played, which paces the
+	 * mixer. Sinks that don't are paced by the mixer itself.
+	 *
+	 * @return True if writes follow the playback rate.
+	 */
+	boolean isPaced();
+
+	/**
+	 * Releases the sink.
+	 */
+	void close();
+}
@@ -0,0 +1,117 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * Sound engine playing every sound on native clips, with one
+ * {@link VoicePool} per sound.
+ */
+final class ClipEngine implements SoundEngine {
+
+	/** Voice pools by resource. */
+	private final Map<String, VoicePool> pools = new ConcurrentHashMap<>();
+	/** Resources that failed to load, not decoded again on every play. */
+	private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+
+	@Override
+	public boolean preload(final String resourcePath) {
+		return pool(resourcePath) != null;
+	}
+
+	@Override
+	public boolean isLoaded(final String resourcePath) {
+		return this.pools.containsKey(resourcePath);
+	}
+
+	@Override
+	public boolean play(final String resourcePath, final float gain) {
+		VoicePool pool = pool(resourcePath);
+		if (pool == null)
+			return false;
+		pool.play(gain);
+		return true;
+	}
+
+	@Override
+	public void stop(final String resourcePath) {
+		VoicePool pool = this.pools.get(resourcePath);
+		if (pool != null)
+			pool.stop();
+	}
+
+	@Override
+	public void stopAll() {
+		for (VoicePool pool : this.pools.values())
+			pool.stop();
+	}
+
+	@Override
+	public int getVoicesInUse() {
+		int inUse = 0;
+		for (VoicePool pool : this.pools.values())
+			inUse += pool.getVoicesInUse();
+		return inUse;
+	}
+
+	@Override
+	public long getVoicesStolen() {
+		long stolen = 0;
+		for (VoicePool pool : this.pools.values())
+			stolen += pool.getVoicesStolen();
+		return stolen;
+	}
+
+	@Override
+	public void close() {
+		for (VoicePool pool : this.pools.values())
+			pool.close();
+		this.pools.clear();
+	}
+
+	/**
+	 * Gets the voice pool of a sound, loading it on first use.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @return Voice pool, null if the sound can't be played.
+	 */
+	private VoicePool pool(final String resourcePath) {
+		if (this.unavailable.contains(resourcePath))
+			return null;
+		return this.pools.computeIfAbsent(resourcePath,
+				path -> load(path, SoundManager.getVoiceLimit(path)));
+	}
+
+	/**
+	 * Decodes a sound and opens its voices.
+	 *
+	 * @param path
+	 *            Resource to load.
+	 * @param voices
+	 *            Number of voices to open.
+	 * @return New voice pool, null if the sound can't be played.
+	 */
+	private VoicePool load(final String path, final int voices) {
+		String p = path.startsWith("/") ? path : "/" + path;
+		try (InputStream raw = ClipEngine.class.getResourceAsStream(p)) {
+			if (raw == null)
+				throw new IllegalArgumentException("Resource not found: " + p);
+			try (BufferedInputStream in = new BufferedInputStream(raw);
+					AudioInputStream ais = AudioSystem.getAudioInputStream(in)) {
+				byte[] data = ais.readAllBytes();
+				return new VoicePool(path, ais.getFormat(), data, voices);
+			}
+		} catch (Exception e) {
+			System.err.println("[Sound] Load failed: " + p + " -> " + e);
+			this.unavailable.add(path);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Sink writing to the audio device through a single output line.
+ */
+final class LineSink implements AudioSink {
+
+	/** Output line. */
+	private final SourceDataLine line;
+
+	/**
+	 * Constructor, opens and starts the line.
+	 *
+	 * @param format
+	 *            Format of the mixed samples.
+	 * @param bufferBytes
+	 *            Size of the line buffer, in bytes.
+	 * @throws LineUnavailableException
+	 *             If the device has no line for the format.
+	 */
+	LineSink(final AudioFormat format, final int bufferBytes)
+			throws LineUnavailableException {
+		try {
+			this.line = AudioSystem.getSourceDataLine(format);
+		} catch (IllegalArgumentException e) {
+			throw new LineUnavailableException(e.getMessage());
+		}
+		this.line.open(format, bufferBytes);
+		this.line.start();
+	}
+
+	@Override
+	public void write(final byte[] buffer, final int length) {
+		this.line.write(buffer, 0, length);
+	}
+
+	@Override
+	public boolean isPaced() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+		this.line.stop();
+		this.line.close();
+	}
+}
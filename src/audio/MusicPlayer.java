@@ -0,0 +1,411 @@
+package audio;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Plays the music, streamed from its resources on a dedicated thread to its
+ * own output line, or pulled by the {@link SoftwareMixer} into its mix so
+ * that a single line plays everything.
+ *
+ * Tracks are read a chunk at a time by {@link MusicStream}s and loop without
+ * a gap. Starting a track fades it in while the one playing fades out over
+ * {@link #CROSSFADE_PROPERTY} milliseconds, and stopping fades out over the
+ * same time, so stopping and starting in one go crossfades too. At most two
+ * tracks are open at once, which keeps the memory used by music constant.
+ */
+final class MusicPlayer {
+
+	/** System property setting the length of a crossfade, in milliseconds. */
+	static final String CROSSFADE_PROPERTY = "invaders.audio.crossfadeMillis";
+	/** Length of a crossfade without {@link #CROSSFADE_PROPERTY}, in milliseconds. */
+	private static final int DEFAULT_CROSSFADE_MILLIS = 1000;
+	/** Length of a buffer written to the output, in milliseconds. */
+	private static final int BUFFER_MILLIS = 50;
+	/** Buffers queued in the output line, ahead of the one being mixed. */
+	private static final int LINE_BUFFERS = 4;
+	/** Rate the music is played at, in hertz. */
+	private static final float SAMPLE_RATE = SoftwareMixer.SAMPLE_RATE;
+	/** Format of the output. */
+	private static final AudioFormat FORMAT = SoftwareMixer.FORMAT;
+
+	/** Tracks asked for, null to stop, guarded by themselves. */
+	private final Queue<Request> requests = new ArrayDeque<>();
+	/** Resources that failed to open, not opened again. */
+	private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+	/** Frames in an output buffer. */
+	private final int bufferFrames;
+	/** Samples of one track for a buffer. */
+	private final short[] track;
+	/** Gain change per frame while fading. */
+	private final float fadeStep;
+	/** Thread streaming the music, null when the mixer pulls it. */
+	private final Thread thread;
+	/** Destination of the music, opened with the first track. */
+	private AudioSink sink;
+	/** Track playing or fading in. */
+	private MusicStream current;
+	/** Track fading out. */
+	private MusicStream previous;
+	/** If the streaming thread is about to park, and must be woken up. */
+	private volatile boolean idle;
+	/** If the streaming thread keeps running. */
+	private volatile boolean running = true;
+
+	/**
+	 * Constructor, starts the streaming thread.
+	 */
+	MusicPlayer() {
+		this((int) (SAMPLE_RATE * BUFFER_MILLIS / 1000), true);
+	}
+
+	/**
+	 * Constructor, for music added to a mix with {@link #mix(int[])} instead
+	 * of streamed by its own thread.
+	 *
+	 * @param bufferFrames
+	 *            Frames in a mixing buffer.
+	 */
+	MusicPlayer(final int bufferFrames) {
+		this(bufferFrames, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param bufferFrames
+	 *            Frames in a buffer.
+	 * @param threaded
+	 *            True to start the streaming thread.
+	 */
+	private MusicPlayer(final int bufferFrames, final boolean threaded) {
+		this.bufferFrames = bufferFrames;
+		this.track = new short[bufferFrames * PcmSound.CHANNELS];
+		int crossfadeMillis = Math.max(1, Integer.getInteger(CROSSFADE_PROPERTY,
+				DEFAULT_CROSSFADE_MILLIS));
+		this.fadeStep = 1000f / (SAMPLE_RATE * crossfadeMillis);
+		if (!threaded) {
+			this.thread = null;
+			return;
+		}
+		this.thread = new Thread(this::stream, "Music");
+		this.thread.setDaemon(true);
+		this.thread.setPriority(Thread.MAX_PRIORITY);
+		this.thread.start();
+	}
+
+	/**
+	 * Plays a track in a loop, crossfading from the one playing. Keeps the
+	 * track going if it is already playing.
+	 *
+	 * @param resourcePath
+	 *            Resource of the track.
+	 * @return False if the track can't be played.
+	 */
+	boolean play(final String resourcePath) {
+		if (this.unavailable.contains(resourcePath))
+			return false;
+		String p = resourcePath.startsWith("/") ? resourcePath : "/" + resourcePath;
+		if (MusicPlayer.class.getResource(p) == null) {
+			System.err.println("[Sound] Music load failed: Resource not found: " + p);
+			this.unavailable.add(resourcePath);
+			return false;
+		}
+		request(new Request(resourcePath));
+		return true;
+	}
+
+	/**
+	 * Fades out the track playing.
+	 */
+	void stop() {
+		request(new Request(null));
+	}
+
+	/**
+	 * Fades out a track if it is the one playing.
+	 *
+	 * @param resourcePath
+	 *            Resource of the track.
+	 */
+	void stop(final String resourcePath) {
+		request(new Request(null, resourcePath));
+	}
+
+	/**
+	 * Stops the streaming thread and releases the output. When the mixer
+	 * pulls the music, it must have stopped mixing first.
+	 */
+	void close() {
+		this.running = false;
+		if (this.thread == null) {
+			closeTracks();
+			return;
+		}
+		LockSupport.unpark(this.thread);
+		try {
+			this.thread.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Adds the next buffer of music to a mix. Only called by the thread
+	 * mixing it, when there is no streaming thread.
+	 *
+	 * @param accumulator
+	 *            Mix of the buffer, one sample per channel and frame.
+	 */
+	void mix(final int[] accumulator) {
+		if (!this.running)
+			return;
+		applyRequests();
+		mixTracks(accumulator);
+	}
+
+	/**
+	 * Sends a request to the streaming thread.
+	 *
+	 * @param request
+	 *            Request to send.
+	 */
+	private void request(final Request request) {
+		synchronized (this.requests) {
+			this.requests.add(request);
+		}
+		if (this.idle)
+			LockSupport.unpark(this.thread);
+	}
+
+	/**
+	 * Streams the music until closed.
+	 */
+	private void stream() {
+		int samples = this.bufferFrames * PcmSound.CHANNELS;
+		int[] accumulator = new int[samples];
+		byte[] buffer = new byte[samples * 2];
+		long bufferNanos = TimeUnit.MILLISECONDS.toNanos(BUFFER_MILLIS);
+		long deadline = System.nanoTime();
+		try {
+			while (this.running) {
+				applyRequests();
+				if (this.current == null && this.previous == null) {
+					this.idle = true;
+					if (isIdle())
+						LockSupport.park(this);
+					this.idle = false;
+					deadline = System.nanoTime();
+					continue;
+				}
+				if (this.sink == null)
+					this.sink = AudioSink.open(FORMAT, buffer.length * LINE_BUFFERS,
+							"-music");
+				Arrays.fill(accumulator, 0);
+				mixTracks(accumulator);
+				for (int i = 0; i < samples; i++) {
+					int sample = Math.max(Short.MIN_VALUE,
+							Math.min(Short.MAX_VALUE, accumulator[i]));
+					buffer[2 * i] = (byte) sample;
+					buffer[2 * i + 1] = (byte) (sample >> 8);
+				}
+				this.sink.write(buffer, buffer.length);
+				if (!this.sink.isPaced()) {
+					deadline += bufferNanos;
+					long wait = deadline - System.nanoTime();
+					if (wait > 0)
+						LockSupport.parkNanos(wait);
+					else if (wait < -bufferNanos * LINE_BUFFERS)
+						deadline = System.nanoTime();
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("[Sound] Music output failed -> " + e.getMessage());
+		} finally {
+			closeTracks();
+			if (this.sink != null)
+				this.sink.close();
+		}
+	}
+
+	/**
+	 * Checks if there is nothing to do, after announcing the thread is idle.
+	 *
+	 * @return True if no request is waiting and the player is still running.
+	 */
+	private boolean isIdle() {
+		synchronized (this.requests) {
+			return this.requests.isEmpty() && this.running;
+		}
+	}
+
+	/**
+	 * Applies the requests sent since the last buffer.
+	 */
+	private void applyRequests() {
+		while (true) {
+			Request request;
+			synchronized (this.requests) {
+				request = this.requests.poll();
+			}
+			if (request == null)
+				return;
+			if (request.resourcePath != null)
+				start(request.resourcePath);
+			else if (this.current != null && (request.onlyIf == null
+					|| request.onlyIf.equals(this.current.getResourcePath())))
+				this.current.setTargetGain(0f);
+		}
+	}
+
+	/**
+	 * Starts a track, fading out the one playing.
+	 *
+	 * @param resourcePath
+	 *            Resource of the track.
+	 */
+	private void start(final String resourcePath) {
+		if (this.current != null
+				&& this.current.getResourcePath().equals(resourcePath)) {
+			this.current.setTargetGain(1f);
+			return;
+		}
+		if (this.previous != null
+				&& this.previous.getResourcePath().equals(resourcePath)) {
+			// Back to the track fading out, swap the fades.
+			MusicStream fadingOut = this.current;
+			this.current = this.previous;
+			this.previous = fadingOut;
+		} else {
+			closeTrack(this.previous);
+			this.previous = this.current;
+			boolean silent = this.previous == null;
+			try {
+				this.current = new MusicStream(resourcePath, SAMPLE_RATE);
+				this.current.setGain(silent ? 1f : 0f);
+			} catch (Exception e) {
+				System.err.println("[Sound] Music load failed: " + resourcePath + " -> " + e);
+				this.unavailable.add(resourcePath);
+				this.current = null;
+			}
+		}
+		if (this.current != null)
+			this.current.setTargetGain(1f);
+		if (this.previous != null)
+			this.previous.setTargetGain(0f);
+	}
+
+	/**
+	 * Adds the next buffer of both tracks to the output.
+	 *
+	 * @param accumulator
+	 *            Mix of the buffer.
+	 */
+	private void mixTracks(final int[] accumulator) {
+		this.current = mixTrack(this.current, accumulator);
+		this.previous = mixTrack(this.previous, accumulator);
+	}
+
+	/**
+	 * Adds the next buffer of a track to the output, fading its volume.
+	 *
+	 * @param stream
+	 *            Track to add, may be null.
+	 * @param accumulator
+	 *            Mix of the buffer.
+	 * @return The track, null once it faded out or failed.
+	 */
+	private MusicStream mixTrack(final MusicStream stream,
+			final int[] accumulator) {
+		final short[] track = this.track;
+		if (stream == null)
+			return null;
+		int frames;
+		try {
+			frames = stream.read(track, this.bufferFrames);
+		} catch (IOException e) {
+			System.err.println("[Sound] Music read failed: "
+					+ stream.getResourcePath() + " -> " + e.getMessage());
+			frames = 0;
+		}
+		float gain = stream.getGain();
+		float target = stream.getTargetGain();
+		for (int frame = 0; frame < frames; frame++) {
+			if (gain < target)
+				gain = Math.min(target, gain + this.fadeStep);
+			else if (gain > target)
+				gain = Math.max(target, gain - this.fadeStep);
+			int index = frame * PcmSound.CHANNELS;
+			accumulator[index] += (int) (track[index] * gain);
+			accumulator[index + 1] += (int) (track[index + 1] * gain);
+		}
+		stream.setGain(gain);
+		if (frames < this.bufferFrames || (gain == 0f && target == 0f)) {
+			closeTrack(stream);
+			return null;
+		}
+		return stream;
+	}
+
+	/**
+	 * Closes both tracks.
+	 */
+	private void closeTracks() {
+		closeTrack(this.current);
+		closeTrack(this.previous);
+		this.current = null;
+		this.previous = null;
+	}
+
+	/**
+	 * Closes a track.
+	 *
+	 * @param stream
+	 *            Track to close, may be null.
+	 */
+	private static void closeTrack(final MusicStream stream) {
+		if (stream != null)
+			stream.close();
+	}
+
+	/**
+	 * Track or stop asked for.
+	 */
+	private static final class Request {
+		/** Track to play, null to stop. */
+		private final String resourcePath;
+		/** Track a stop applies to, null for any track. */
+		private final String onlyIf;
+
+		/**
+		 * Constructor, for a track to play or a stop of any track.
+		 *
+		 * @param resourcePath
+		 *            Track to play, null to stop.
+		 */
+		private Request(final String resourcePath) {
+			this(resourcePath, null);
+		}
+
+		/**
+		 * Constructor.
+		 *
+		 * @param resourcePath
+		 *            Track to play, null to stop.
+		 * @param onlyIf
+		 *            Track a stop applies to, null for any track.
+		 */
+		private Request(final String resourcePath, final String onlyIf) {
+			this.resourcePath = resourcePath;
+			this.onlyIf = onlyIf;
+		}
+	}
+}
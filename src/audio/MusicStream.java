@@ -0,0 +1,211 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Track read from its resource a chunk at a time and looped forever, as
+ * stereo samples at the playback rate.
+ *
+ * Only one chunk of the track is held at once, so a track takes the same
+ * memory whatever its length. When the resource ends it is opened again,
+ * and the first samples follow the last ones without a gap. Rates other
+ * than the playback rate are converted by linear interpolation, carried
+ * across chunks and loops.
+ */
+final class MusicStream implements AutoCloseable {
+
+	/** Frames read from the resource at once. */
+	private static final int CHUNK_FRAMES = 4096;
+
+	/** Resource streamed. */
+	private final String resourcePath;
+	/** Source frames per played frame. */
+	private final double step;
+	/** Chunk of raw samples. */
+	private final byte[] chunk;
+	/** Source samples, left and right interleaved, with the last frame of the previous chunk first. */
+	private final short[] source = new short[(CHUNK_FRAMES + 1) * PcmSound.CHANNELS];
+	/** Stream of the resource, converted to 16-bit samples. */
+	private AudioInputStream stream;
+	/** Frames held in {@link #source}. */
+	private int sourceFrames;
+	/** Position of the next played frame in {@link #source}. */
+	private double position;
+	/** Volume, from 0 to 1. */
+	private float gain;
+	/** Volume the track moves to. */
+	private float targetGain;
+
+	/**
+	 * Constructor, opens the resource.
+	 *
+	 * @param resourcePath
+	 *            Resource to stream.
+	 * @param sampleRate
+	 *            Rate of the played samples.
+	 * @throws IOException
+	 *             If the resource can't be read.
+	 * @throws UnsupportedAudioFileException
+	 *             If the resource is not a supported sound file.
+	 */
+	MusicStream(final String resourcePath, final float sampleRate)
+			throws IOException, UnsupportedAudioFileException {
+		this.resourcePath = resourcePath;
+		this.stream = openStream();
+		AudioFormat format = this.stream.getFormat();
+		this.step = format.getSampleRate() / sampleRate;
+		this.chunk = new byte[CHUNK_FRAMES * format.getFrameSize()];
+	}
+
+	/**
+	 * Opens the resource from its start.
+	 *
+	 * @return Stream of 16-bit samples.
+	 * @throws IOException
+	 *             If the resource can't be read.
+	 * @throws UnsupportedAudioFileException
+	 *             If the resource is not a supported sound file.
+	 */
+	private AudioInputStream openStream()
+			throws IOException, UnsupportedAudioFileException {
+		String p = this.resourcePath.startsWith("/") ? this.resourcePath
+				: "/" + this.resourcePath;
+		InputStream raw = MusicStream.class.getResourceAsStream(p);
+		if (raw == null)
+			throw new IOException("Resource not found: " + p);
+		try {
+			return PcmSound.toPcm16(AudioSystem.getAudioInputStream(
+					new BufferedInputStream(raw)));
+		} catch (IOException | UnsupportedAudioFileException | RuntimeException e) {
+			raw.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next played frames.
+	 *
+	 * @param stereo
+	 *            Receives the samples, left and right interleaved.
+	 * @param frames
+	 *            Number of frames to read.
+	 * @return Number of frames read, fewer only if the resource can't be
+	 *         read any more.
+	 * @throws IOException
+	 *             If the resource fails while read.
+	 */
+	int read(final short[] stereo, final int frames) throws IOException {
+		for (int frame = 0; frame < frames; frame++) {
+			while ((int) this.position + 1 >= this.sourceFrames)
+				if (!refill())
+					return frame;
+			int index = (int) this.position;
+			double fraction = this.position - index;
+			for (int channel = 0; channel < PcmSound.CHANNELS; channel++) {
+				int a = this.source[index * PcmSound.CHANNELS + channel];
+				int b = this.source[(index + 1) * PcmSound.CHANNELS + channel];
+				stereo[frame * PcmSound.CHANNELS + channel] =
+						(short) (a + (int) ((b - a) * fraction));
+			}
+			this.position += this.step;
+		}
+		return frames;
+	}
+
+	/**
+	 * Reads the next chunk after the last frame read, opening the resource
+	 * again when it ends.
+	 *
+	 * @return False if the resource gives no more frames, even from its start.
+	 * @throws IOException
+	 *             If the resource fails while read.
+	 */
+	private boolean refill() throws IOException {
+		if (this.sourceFrames > 0) {
+			int last = (this.sourceFrames - 1) * PcmSound.CHANNELS;
+			System.arraycopy(this.source, last, this.source, 0, PcmSound.CHANNELS);
+			this.position -= this.sourceFrames - 1;
+			this.sourceFrames = 1;
+		}
+		for (int attempt = 0; attempt < 2; attempt++) {
+			int length = this.stream.readNBytes(this.chunk, 0, this.chunk.length);
+			if (length > 0) {
+				this.sourceFrames += PcmSound.toStereo(this.chunk, length,
+						this.stream.getFormat(), this.source, this.sourceFrames);
+				return true;
+			}
+			// End of the track, loop from its start.
+			this.stream.close();
+			try {
+				this.stream = openStream();
+			} catch (UnsupportedAudioFileException e) {
+				throw new IOException(e);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Getter for the resource streamed.
+	 *
+	 * @return Resource path.
+	 */
+	String getResourcePath() {
+		return this.resourcePath;
+	}
+
+	/**
+	 * Getter for the volume.
+	 *
+	 * @return Gain, from 0 to 1.
+	 */
+	float getGain() {
+		return this.gain;
+	}
+
+	/**
+	 * Setter for the volume.
+	 *
+	 * @param gain
+	 *            Gain, from 0 to 1.
+	 */
+	void setGain(final float gain) {
+		this.gain = gain;
+	}
+
+	/**
+	 * Getter for the volume the track moves to.
+	 *
+	 * @return Gain, from 0 to 1.
+	 */
+	float getTargetGain() {
+		return this.targetGain;
+	}
+
+	/**
+	 * Setter for the volume the track moves to.
+	 *
+	 * @param targetGain
+	 *            Gain, from 0 to 1.
+	 */
+	void setTargetGain(final float targetGain) {
+		this.targetGain = targetGain;
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.stream.close();
+		} catch (IOException e) {
+			System.err.println("[Sound] Failed to close " + this.resourcePath
+					+ " -> " + e.getMessage());
+		}
+	}
+}
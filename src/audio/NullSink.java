@@ -0,0 +1,20 @@
+package audio;
+
+/**
+ * Sink discarding the mixed samples, for machines without an audio device.
+ */
+final class NullSink implements AudioSink {
+
+	@Override
+	public void write(final byte[] buffer, final int length) {
+	}
+
+	@Override
+	public boolean isPaced() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,198 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Sound decoded to 16-bit stereo samples at the mixing rate, ready to be
+ * mixed without any further conversion.
+ */
+final class PcmSound {
+
+	/** Channels of the decoded samples. */
+	static final int CHANNELS = 2;
+
+	/** Resource decoded. */
+	private final String resourcePath;
+	/** Samples, left and right interleaved. */
+	private final short[] samples;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param resourcePath
+	 *            Resource decoded.
+	 * @param samples
+	 *            Samples, left and right interleaved.
+	 */
+	private PcmSound(final String resourcePath, final short[] samples) {
+		this.resourcePath = resourcePath;
+		this.samples = samples;
+	}
+
+	/**
+	 * Decodes a sound resource.
+	 *
+	 * @param resourcePath
+	 *            Resource to decode.
+	 * @param sampleRate
+	 *            Sample rate of the decoded samples.
+	 * @return Decoded sound.
+	 * @throws IOException
+	 *             If the resource can't be read.
+	 * @throws UnsupportedAudioFileException
+	 *             If the resource is not a supported sound file.
+	 */
+	static PcmSound load(final String resourcePath, final float sampleRate)
+			throws IOException, UnsupportedAudioFileException {
+		String p = resourcePath.startsWith("/") ? resourcePath : "/" + resourcePath;
+		try (InputStream raw = PcmSound.class.getResourceAsStream(p)) {
+			if (raw == null)
+				throw new IOException("Resource not found: " + p);
+			try (AudioInputStream source = AudioSystem.getAudioInputStream(
+					new BufferedInputStream(raw));
+					AudioInputStream pcm = toPcm16(source)) {
+				AudioFormat format = pcm.getFormat();
+				short[] stereo = toStereo(pcm.readAllBytes(), format);
+				return new PcmSound(resourcePath, resample(stereo,
+						format.getSampleRate(), sampleRate));
+			}
+		}
+	}
+
+	/**
+	 * Converts a stream to signed 16-bit little-endian samples, keeping its
+	 * rate and channels.
+	 *
+	 * @param source
+	 *            Stream to convert.
+	 * @return Converted stream, the source itself if already in that format.
+	 */
+	static AudioInputStream toPcm16(final AudioInputStream source) {
+		AudioFormat format = source.getFormat();
+		if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+				&& format.getSampleSizeInBits() == 16 && !format.isBigEndian())
+			return source;
+		AudioFormat target = new AudioFormat(format.getSampleRate(), 16,
+				format.getChannels(), true, false);
+		return AudioSystem.getAudioInputStream(target, source);
+	}
+
+	/**
+	 * Turns signed 16-bit little-endian bytes into stereo samples. Mono is
+	 * copied to both sides, extra channels are dropped.
+	 *
+	 * @param bytes
+	 *            Whole frames of samples.
+	 * @param format
+	 *            Format of the bytes.
+	 * @return Samples, left and right interleaved.
+	 */
+	static short[] toStereo(final byte[] bytes, final AudioFormat format) {
+		short[] stereo = new short[bytes.length / (2 * format.getChannels())
+				* CHANNELS];
+		toStereo(bytes, bytes.length, format, stereo, 0);
+		return stereo;
+	}
+
+	/**
+	 * Turns signed 16-bit little-endian bytes into stereo samples, in place
+	 * of a part of an array.
+	 *
+	 * @param bytes
+	 *            Samples to turn.
+	 * @param length
+	 *            Number of bytes to turn, partial frames are ignored.
+	 * @param format
+	 *            Format of the bytes.
+	 * @param stereo
+	 *            Receives the samples, left and right interleaved.
+	 * @param frameOffset
+	 *            First frame of the array written.
+	 * @return Number of frames written.
+	 */
+	static int toStereo(final byte[] bytes, final int length,
+			final AudioFormat format, final short[] stereo,
+			final int frameOffset) {
+		int channels = format.getChannels();
+		int frames = length / (2 * channels);
+		for (int frame = 0; frame < frames; frame++) {
+			int offset = frame * 2 * channels;
+			short left = (short) ((bytes[offset] & 0xFF) | (bytes[offset + 1] << 8));
+			short right = left;
+			if (channels > 1)
+				right = (short) ((bytes[offset + 2] & 0xFF) | (bytes[offset + 3] << 8));
+			int index = (frameOffset + frame) * CHANNELS;
+			stereo[index] = left;
+			stereo[index + 1] = right;
+		}
+		return frames;
+	}
+
+	/**
+	 * Changes the sample rate of stereo samples by linear interpolation.
+	 *
+	 * @param stereo
+	 *            Samples, left and right interleaved.
+	 * @param fromRate
+	 *            Rate of the samples.
+	 * @param toRate
+	 *            Rate wanted.
+	 * @return Resampled samples, the same array if the rates match.
+	 */
+	static short[] resample(final short[] stereo, final float fromRate,
+			final float toRate) {
+		if (fromRate == toRate || stereo.length == 0)
+			return stereo;
+		int frames = stereo.length / CHANNELS;
+		int resampledFrames = (int) ((long) frames * toRate / fromRate);
+		short[] resampled = new short[resampledFrames * CHANNELS];
+		double step = fromRate / (double) toRate;
+		for (int frame = 0; frame < resampledFrames; frame++) {
+			double position = frame * step;
+			int index = (int) position;
+			int nextIndex = Math.min(index + 1, frames - 1);
+			double fraction = position - index;
+			for (int channel = 0; channel < CHANNELS; channel++) {
+				int a = stereo[index * CHANNELS + channel];
+				int b = stereo[nextIndex * CHANNELS + channel];
+				resampled[frame * CHANNELS + channel] =
+						(short) Math.round(a + (b - a) * fraction);
+			}
+		}
+		return resampled;
+	}
+
+	/**
+	 * Getter for the resource decoded.
+	 *
+	 * @return Resource path.
+	 */
+	String getResourcePath() {
+		return this.resourcePath;
+	}
+
+	/**
+	 * Getter for the samples.
+	 *
+	 * @return Samples, left and right interleaved. Not copied, never changed.
+	 */
+	short[] getSamples() {
+		return this.samples;
+	}
+
+	/**
+	 * Getter for the length of the sound.
+	 *
+	 * @return Number of frames.
+	 */
+	int getFrames() {
+		return this.samples.length / CHANNELS;
+	}
+}
@@ -0,0 +1,310 @@
+package audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Sound engine mixing every sound in Java and writing the mix to a single
+ * output line.
+ *
+ * Sounds are decoded once to samples at the mixing rate. A dedicated thread
+ * sums the playing voices, each with its own gain, one small buffer at a
+ * time, so a sound starts at most one buffer after it is played. The music
+ * is added to the same mix by a {@link MusicPlayer} without a thread of its
+ * own, so there is never a second line or file for it. Without an
+ * audio device the mix goes to a {@link NullSink} or, when asked for, to a
+ * {@link WavFileSink}.
+ */
+final class SoftwareMixer implements SoundEngine {
+
+	/** System property setting the length of a mixing buffer, in milliseconds. */
+	static final String BUFFER_PROPERTY = "invaders.audio.bufferMillis";
+	/** Rate the sounds are mixed at, in hertz. */
+	static final float SAMPLE_RATE = 44100f;
+	/** Format of the mix. */
+	static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16,
+			PcmSound.CHANNELS, true, false);
+	/** Length of a mixing buffer without {@link #BUFFER_PROPERTY}, in milliseconds. */
+	private static final int DEFAULT_BUFFER_MILLIS = 20;
+	/** Voices mixed at once, over every sound. */
+	private static final int MAX_VOICES = 32;
+	/** Buffers queued in the output line, ahead of the one being mixed. */
+	private static final int LINE_BUFFERS = 2;
+
+	/** Decoded sounds by resource. */
+	private final Map<String, PcmSound> sounds = new ConcurrentHashMap<>();
+	/** Resources that failed to load, not decoded again on every play. */
+	private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+	/** Voices, guarded by themselves. */
+	private final Voice[] voices = new Voice[MAX_VOICES];
+	/** Frames in a mixing buffer. */
+	private final int bufferFrames;
+	/** Destination of the mix. */
+	private final AudioSink sink;
+	/** Music added to the mix. */
+	private final MusicPlayer music;
+	/** Thread mixing the voices. */
+	private final Thread thread;
+	/** Voices started so far, ordering voices by age. */
+	private long started;
+	/** Voices stopped early to play another sound. */
+	private long stolen;
+	/** If the mixing thread keeps running. */
+	private volatile boolean running = true;
+
+	/**
+	 * Constructor, opens the sink and starts mixing.
+	 */
+	SoftwareMixer() {
+		int millis = Math.max(1, Integer.getInteger(BUFFER_PROPERTY,
+				DEFAULT_BUFFER_MILLIS));
+		this.bufferFrames = Math.max(1, (int) (SAMPLE_RATE * millis / 1000));
+		for (int i = 0; i < this.voices.length; i++)
+			this.voices[i] = new Voice();
+		this.music = new MusicPlayer(this.bufferFrames);
+		this.sink = AudioSink.open(FORMAT,
+				this.bufferFrames * FORMAT.getFrameSize() * LINE_BUFFERS, "");
+		this.thread = new Thread(this::mix, "Sound mixer");
+		this.thread.setDaemon(true);
+		this.thread.setPriority(Thread.MAX_PRIORITY);
+		this.thread.start();
+	}
+
+	@Override
+	public boolean preload(final String resourcePath) {
+		return sound(resourcePath) != null;
+	}
+
+	@Override
+	public boolean isLoaded(final String resourcePath) {
+		return this.sounds.containsKey(resourcePath);
+	}
+
+	@Override
+	public boolean play(final String resourcePath, final float gain) {
+		PcmSound sound = sound(resourcePath);
+		if (sound == null)
+			return false;
+		synchronized (this.voices) {
+			start(takeVoice(resourcePath, SoundManager.getVoiceLimit(resourcePath)),
+					sound, gain);
+		}
+		return true;
+	}
+
+	@Override
+	public void stop(final String resourcePath) {
+		synchronized (this.voices) {
+			for (Voice voice : this.voices)
+				if (voice.sound != null
+						&& voice.sound.getResourcePath().equals(resourcePath))
+					voice.sound = null;
+		}
+	}
+
+	@Override
+	public void stopAll() {
+		synchronized (this.voices) {
+			for (Voice voice : this.voices)
+				voice.sound = null;
+		}
+	}
+
+	@Override
+	public int getVoicesInUse() {
+		int inUse = 0;
+		synchronized (this.voices) {
+			for (Voice voice : this.voices)
+				if (voice.sound != null)
+					inUse++;
+		}
+		return inUse;
+	}
+
+	@Override
+	public long getVoicesStolen() {
+		synchronized (this.voices) {
+			return this.stolen;
+		}
+	}
+
+	@Override
+	public void close() {
+		this.running = false;
+		this.thread.interrupt();
+		try {
+			this.thread.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.music.close();
+		this.sink.close();
+	}
+
+	/**
+	 * Getter for the music mixed with the sounds.
+	 *
+	 * @return Music player pulled by the mixing thread.
+	 */
+	MusicPlayer getMusic() {
+		return this.music;
+	}
+
+	/**
+	 * Gets a decoded sound, decoding it on first use.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @return Decoded sound, null if it can't be played.
+	 */
+	private PcmSound sound(final String resourcePath) {
+		if (this.unavailable.contains(resourcePath))
+			return null;
+		return this.sounds.computeIfAbsent(resourcePath, path -> {
+			try {
+				return PcmSound.load(path, SAMPLE_RATE);
+			} catch (Exception e) {
+				System.err.println("[Sound] Load failed: " + path + " -> " + e);
+				this.unavailable.add(path);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Finds the voice to play a sound on. Must hold the voices.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @param limit
+	 *            Voices the sound may use at once.
+	 * @return Free voice, or the oldest voice of the sound when it already
+	 *         uses its limit, or the oldest voice of all when none is free.
+	 */
+	private Voice takeVoice(final String resourcePath, final int limit) {
+		Voice free = null;
+		Voice oldest = null;
+		Voice oldestOfSound = null;
+		int ofSound = 0;
+		for (Voice voice : this.voices) {
+			if (voice.sound == null) {
+				if (free == null)
+					free = voice;
+				continue;
+			}
+			if (oldest == null || voice.order < oldest.order)
+				oldest = voice;
+			if (voice.sound.getResourcePath().equals(resourcePath)) {
+				ofSound++;
+				if (oldestOfSound == null || voice.order < oldestOfSound.order)
+					oldestOfSound = voice;
+			}
+		}
+		if (ofSound >= limit) {
+			this.stolen++;
+			return oldestOfSound;
+		}
+		if (free != null)
+			return free;
+		this.stolen++;
+		return oldest;
+	}
+
+	/**
+	 * Starts a sound on a voice. Must hold the voices.
+	 *
+	 * @param voice
+	 *            Voice to start.
+	 * @param sound
+	 *            Sound to play.
+	 * @param gain
+	 *            Volume, from 0 to 1.
+	 */
+	private void start(final Voice voice, final PcmSound sound,
+			final float gain) {
+		voice.sound = sound;
+		voice.position = 0;
+		voice.gain = Math.max(0f, Math.min(1f, gain));
+		voice.order = this.started++;
+	}
+
+	/**
+	 * Mixes the voices until closed.
+	 */
+	private void mix() {
+		int samples = this.bufferFrames * PcmSound.CHANNELS;
+		int[] accumulator = new int[samples];
+		byte[] buffer = new byte[samples * 2];
+		long bufferNanos = (long) (this.bufferFrames * 1_000_000_000.0 / SAMPLE_RATE);
+		long deadline = System.nanoTime();
+		while (this.running) {
+			Arrays.fill(accumulator, 0);
+			synchronized (this.voices) {
+				for (Voice voice : this.voices)
+					if (voice.sound != null)
+						mixVoice(voice, accumulator);
+			}
+			this.music.mix(accumulator);
+			for (int i = 0; i < samples; i++) {
+				int sample = Math.max(Short.MIN_VALUE,
+						Math.min(Short.MAX_VALUE, accumulator[i]));
+				buffer[2 * i] = (byte) sample;
+				buffer[2 * i + 1] = (byte) (sample >> 8);
+			}
+			try {
+				this.sink.write(buffer, buffer.length);
+			} catch (IOException e) {
+				System.err.println("[Sound] Mixer output failed -> " + e.getMessage());
+				return;
+			}
+			if (!this.sink.isPaced()) {
+				deadline += bufferNanos;
+				long wait = deadline - System.nanoTime();
+				if (wait > 0)
+					LockSupport.parkNanos(wait);
+				else if (wait < -bufferNanos * LINE_BUFFERS)
+					deadline = System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Adds the next buffer of a voice to the mix. Must hold the voices.
+	 *
+	 * @param voice
+	 *            Voice playing.
+	 * @param accumulator
+	 *            Mix of the buffer.
+	 */
+	private static void mixVoice(final Voice voice, final int[] accumulator) {
+		short[] data = voice.sound.getSamples();
+		int gain = Math.round(voice.gain * 256);
+		int count = Math.min(accumulator.length, data.length - voice.position);
+		for (int i = 0; i < count; i++)
+			accumulator[i] += data[voice.position + i] * gain >> 8;
+		voice.position += count;
+		if (voice.position >= data.length)
+			voice.sound = null;
+	}
+
+	/**
+	 * Sound playing on a mixer voice.
+	 */
+	private static final class Voice {
+		/** Sound played, null when free. */
+		private PcmSound sound;
+		/** Next sample played. */
+		private int position;
+		/** Volume, from 0 to 1. */
+		private float gain;
+		/** Start order, to steal the oldest voice. */
+		private long order;
+	}
+}
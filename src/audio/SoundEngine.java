@@ -0,0 +1,69 @@
+package audio;
+
+/**
+ * Plays the sound effects requested through the {@link SoundManager}. Music
+ * is streamed by the {@link MusicPlayer} instead.
+ */
+interface SoundEngine {
+
+	/**
+	 * Loads a sound ahead of its first play.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @return False if the sound can't be played.
+	 */
+	boolean preload(String resourcePath);
+
+	/**
+	 * Checks if a sound is loaded.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @return True once the sound was loaded.
+	 */
+	boolean isLoaded(String resourcePath);
+
+	/**
+	 * Plays a sound once.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 * @param gain
+	 *            Volume of this play, from 0 to 1.
+	 * @return False if the sound can't be played.
+	 */
+	boolean play(String resourcePath, float gain);
+
+	/**
+	 * Stops every voice playing a sound.
+	 *
+	 * @param resourcePath
+	 *            Resource of the sound.
+	 */
+	void stop(String resourcePath);
+
+	/**
+	 * Stops every sound.
+	 */
+	void stopAll();
+
+	/**
+	 * Counts the voices playing.
+	 *
+	 * @return Busy voices.
+	 */
+	int getVoicesInUse();
+
+	/**
+	 * Counts the voices stopped early to play their sound again.
+	 *
+	 * @return Stolen voices.
+	 */
+	long getVoicesStolen();
+
+	/**
+	 * Stops every sound and releases the audio device.
+	 */
+	void close();
+}
@@ -1,61 +1,349 @@
 package audio;
 
-import javax.sound.sampled.*;
-import java.io.BufferedInputStream;
+import engine.telemetry.SoundEvent;
+import engine.telemetry.Telemetry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SoundManager {
-    private static final Map<String, Clip> CACHE = new ConcurrentHashMap<>();
+    /** System property listing voice caps, as resource=voices pairs separated by commas. */
+    public static final String VOICES_PROPERTY = "invaders.audio.voices";
+    /** System property choosing the sound engine: clip, the default, or mixer. */
+    public static final String ENGINE_PROPERTY = "invaders.audio.engine";
+    /** Resource listing every sound effect to preload, one resource per line. */
+    public static final String MANIFEST = "sfx/manifest.txt";
+    /** Nanoseconds in a millisecond. */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    /** Voices of an effect without a configured cap. */
+    private static final int DEFAULT_VOICES = 4;
+    /** Voices of the laser, fired by both players and by every spread shot bullet. */
+    private static final int LASER_VOICES = 8;
+
+    /** Voice caps by resource, read from {@link #VOICES_PROPERTY} and {@link #setVoiceLimit}. */
+    private static final Map<String, Integer> VOICE_LIMITS = new ConcurrentHashMap<>(parseVoiceLimits());
+    /** Engine playing the sounds, created by the audio thread on the first sound played. */
+    private static volatile SoundEngine engine;
+    /** Player streaming the looping tracks, created by the audio thread on the first track played. */
+    private static volatile MusicPlayer music;
+    /** Commands waiting for the audio thread, created on the first sound played. */
+    private static volatile AudioCommandQueue queue;
+    /** Effects preloaded so far, failed ones included. */
+    private static final AtomicInteger PRELOADED = new AtomicInteger();
+    /** Effects in the manifest, zero until the preload starts. */
+    private static volatile int preloadTotal;
     private static volatile boolean muted = false;  // global state of sound
     private static volatile String currentLooping = null;
 
     public static void play(String resourcePath) {
+        play(resourcePath, 1f);
+    }
+
+    /**
+     * Plays a sound once at a given volume.
+     *
+     * @param resourcePath
+     *            Resource of the sound.
+     * @param gain
+     *            Volume, from 0 to 1.
+     */
+    public static void play(String resourcePath, float gain) {
+        if (muted) return;  // no sound played
+        queue().send(AudioCommandQueue.Operation.PLAY, resourcePath, gain);
+    }
+
+    public static void playLoop(String resourcePath) {
         if (muted) return;  // no sound played
+        queue().send(AudioCommandQueue.Operation.LOOP, resourcePath, 1f);
+    }
+
+    /**
+     * Runs a sound command on the audio thread.
+     *
+     * @param command
+     *            Command to run.
+     */
+    private static void execute(AudioCommandQueue.Command command) {
+        String resourcePath = command.getResourcePath();
+        switch (command.getOperation()) {
+            case STOP:
+                if (engine != null) engine.stop(resourcePath);
+                if (music != null) music.stop(resourcePath);
+                return;
+            case STOP_ALL:
+                if (engine != null) engine.stopAll();
+                if (music != null) music.stop();
+                return;
+            default:
+                break;
+        }
+        boolean loop = command.getOperation() == AudioCommandQueue.Operation.LOOP;
+        SoundEvent event = Telemetry.beginSound();
+        // Music is streamed, never loaded ahead.
+        boolean loaded = !loop && !engine().isLoaded(resourcePath);
+        boolean played = false;
         try {
-            Clip c = CACHE.computeIfAbsent(resourcePath, SoundManager::loadClip);
-            if (c == null) return;
-            if (c.isRunning()) c.stop();
-            c.setFramePosition(0);
-            c.start();
+            if (loop) {
+                played = music().play(resourcePath);
+                if (played) currentLooping = resourcePath;  // useful for unmute
+            } else {
+                played = engine().play(resourcePath, command.getGain());
+            }
         } catch (Exception e) {
-            System.err.println("[Sound] Play failed: " + resourcePath + " -> " + e.getMessage());
+            System.err.println("[Sound] " + (loop ? "Loop" : "Play") + " failed: "
+                    + resourcePath + " -> " + e.getMessage());
+        } finally {
+            Telemetry.commitSound(event, resourcePath, loop, loaded, played);
+        }
+    }
+
+    /**
+     * Loads every effect of the {@link #MANIFEST} on background threads, so
+     * no effect is decoded on its first play. Returns at once; the progress
+     * is read with {@link #getPreloaded} and {@link #getPreloadTotal}, and
+     * the time taken by every effect is logged.
+     */
+    public static void preloadAll() {
+        List<String> effects = readManifest();
+        if (effects.isEmpty()) return;
+        PRELOADED.set(0);
+        preloadTotal = effects.size();
+        int threads = Math.max(1, Math.min(effects.size(),
+                Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Sound preload " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        for (String effect : effects) {
+            executor.execute(() -> {
+                SoundEvent event = Telemetry.beginSound();
+                long loadStart = System.nanoTime();
+                boolean loaded = false;
+                try {
+                    loaded = engine().preload(effect);
+                } catch (Exception e) {
+                    System.err.println("[Sound] Preload failed: " + effect + " -> " + e.getMessage());
+                } finally {
+                    Telemetry.commitSound(event, effect, false, loaded, false);
+                }
+                double millis = (System.nanoTime() - loadStart) / NANOS_PER_MILLI;
+                System.out.println(String.format(Locale.ROOT, "[Sound] Preloaded %s in %.1f ms%s",
+                        effect, millis, loaded ? "" : " (failed)"));
+                if (PRELOADED.incrementAndGet() == effects.size()) {
+                    System.out.println(String.format(Locale.ROOT,
+                            "[Sound] Preloaded %d effects in %.1f ms, %d at a time", effects.size(),
+                            (System.nanoTime() - start) / NANOS_PER_MILLI, threads));
+                }
+            });
         }
+        executor.shutdown();
     }
 
-    private static Clip loadClip(String path) {
-        String p = path.startsWith("/") ? path : "/" + path;
-        try (InputStream raw = SoundManager.class.getResourceAsStream(p)) {
-            if (raw == null) throw new IllegalArgumentException("Resource not found: " + p);
-            try (BufferedInputStream in = new BufferedInputStream(raw);
-                 AudioInputStream ais = AudioSystem.getAudioInputStream(in)) {
-                Clip clip = AudioSystem.getClip();
-                clip.open(ais);
-                return clip;
+    /**
+     * Reads the effects listed in the {@link #MANIFEST}, skipping blank lines
+     * and lines starting with #.
+     *
+     * @return Resources of the effects, empty if the manifest can't be read.
+     */
+    private static List<String> readManifest() {
+        List<String> effects = new ArrayList<>();
+        try (InputStream inputStream = SoundManager.class.getClassLoader().getResourceAsStream(MANIFEST)) {
+            if (inputStream == null) throw new IOException("Cannot find resource file: " + MANIFEST);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) effects.add(line);
+                }
             }
-        } catch (Exception e) {
-            System.err.println("[Sound] Load failed: " + p + " -> " + e);
-            return null;
+        } catch (IOException e) {
+            System.err.println("[Sound] No sound manifest, effects load on first play -> " + e.getMessage());
         }
+        return effects;
     }
 
+    /**
+     * Counts the effects preloaded so far, failed ones included.
+     *
+     * @return Preloaded effects.
+     */
+    public static int getPreloaded() {
+        return PRELOADED.get();
+    }
 
-    public static void playLoop(String resourcePath) {
-        if (muted) return;  // no sound played
-        try {
-            Clip c = CACHE.computeIfAbsent(resourcePath, SoundManager::loadClip);
-            if (c == null) return;
-            stopAll();
-            c.setFramePosition(0);
-            c.loop(Clip.LOOP_CONTINUOUSLY);
-            c.start();
-            currentLooping = resourcePath;  // useful for unmute
-        } catch (Exception e) {
-            System.err.println("[Sound] Loop failed: " + resourcePath + " -> " + e.getMessage());
+    /**
+     * Counts the effects to preload.
+     *
+     * @return Effects in the manifest, zero before the preload starts.
+     */
+    public static int getPreloadTotal() {
+        return preloadTotal;
+    }
+
+    /**
+     * Gets the music player, starting it on first use. The mixer engine
+     * plays the music in its own mix.
+     *
+     * @return Music player.
+     */
+    private static MusicPlayer music() {
+        MusicPlayer current = music;
+        if (current != null) return current;
+        synchronized (SoundManager.class) {
+            if (music == null) {
+                SoundEngine effects = engine();
+                music = effects instanceof SoftwareMixer
+                        ? ((SoftwareMixer) effects).getMusic() : new MusicPlayer();
+            }
+            return music;
+        }
+    }
+
+    /**
+     * Gets the command queue, starting the audio thread on first use.
+     *
+     * @return Command queue.
+     */
+    private static AudioCommandQueue queue() {
+        AudioCommandQueue current = queue;
+        if (current != null) return current;
+        synchronized (SoundManager.class) {
+            if (queue == null) queue = new AudioCommandQueue(SoundManager::execute);
+            return queue;
         }
     }
 
+    /**
+     * Gets the sound engine, creating the one chosen by
+     * {@link #ENGINE_PROPERTY} on first use.
+     *
+     * @return Sound engine.
+     */
+    private static SoundEngine engine() {
+        SoundEngine current = engine;
+        if (current != null) return current;
+        synchronized (SoundManager.class) {
+            if (engine == null) {
+                String name = System.getProperty(ENGINE_PROPERTY, "clip");
+                engine = "mixer".equals(name) ? new SoftwareMixer() : new ClipEngine();
+                System.out.println("[Sound] Engine: " + name);
+            }
+            return engine;
+        }
+    }
+
+    /**
+     * Stops the audio thread, every sound and the music, and releases the
+     * audio device.
+     * The next sound played starts them again.
+     */
+    public static void shutdown() {
+        synchronized (SoundManager.class) {
+            if (queue != null) queue.close();
+            queue = null;
+            // The mixer stops mixing its music before the music is closed.
+            if (engine != null) engine.close();
+            engine = null;
+            if (music != null) music.close();
+            music = null;
+        }
+    }
+
+    /**
+     * Mutes or unmutes every sound without logging or resuming the music,
+     * for runs without a sound device.
+     *
+     * @param mute
+     *            True to mute the game.
+     */
+    public static void setMuted(boolean mute) {
+        muted = mute;
+        if (mute) stopAll();
+    }
+
+    /**
+     * Sets how many times an effect can overlap itself. Only applies to
+     * effects not played yet.
+     *
+     * @param resourcePath
+     *            Resource of the effect.
+     * @param voices
+     *            Number of voices, at least one.
+     */
+    public static void setVoiceLimit(String resourcePath, int voices) {
+        VOICE_LIMITS.put(resourcePath, Math.max(1, voices));
+    }
+
+    /**
+     * Gets how many times an effect can overlap itself.
+     *
+     * @param resourcePath
+     *            Resource of the effect.
+     * @return Voice cap of the effect.
+     */
+    public static int getVoiceLimit(String resourcePath) {
+        return VOICE_LIMITS.getOrDefault(resourcePath, DEFAULT_VOICES);
+    }
+
+    /**
+     * Counts the voices playing, over every sound.
+     *
+     * @return Busy voices.
+     */
+    public static int getVoicesInUse() {
+        SoundEngine current = engine;
+        return current == null ? 0 : current.getVoicesInUse();
+    }
+
+    /**
+     * Counts the voices stopped early to play their sound again, over every
+     * sound.
+     *
+     * @return Stolen voices.
+     */
+    public static long getVoicesStolen() {
+        SoundEngine current = engine;
+        return current == null ? 0 : current.getVoicesStolen();
+    }
+
+    /**
+     * Reads the voice caps from {@link #VOICES_PROPERTY}, for example
+     * "sfx/laser.wav=8,sfx/impact.wav=2".
+     *
+     * @return Voice caps by resource.
+     */
+    private static Map<String, Integer> parseVoiceLimits() {
+        Map<String, Integer> limits = new HashMap<>();
+        limits.put("sfx/laser.wav", LASER_VOICES);
+        for (String entry : System.getProperty(VOICES_PROPERTY, "").split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) continue;
+            try {
+                limits.put(entry.substring(0, separator).trim(),
+                        Math.max(1, Integer.parseInt(entry.substring(separator + 1).trim())));
+            } catch (NumberFormatException e) {
+                System.err.println("[Sound] Invalid voice cap: " + entry);
+            }
+        }
+        return limits;
+    }
+
     public static void cutAllSound() {
         muted = true;
         stopAll();
@@ -72,20 +360,46 @@ public class SoundManager {
     }
 
     public static void stop(String resourcePath) {
-        try {
-            Clip c = CACHE.get(resourcePath);
-            if (c != null && c.isRunning()) {
-                c.stop();
-                c.setFramePosition(0);
-            }
-        } catch (Exception e) {
-            System.err.println("[Sound] Stop failed: " + resourcePath + " -> " + e.getMessage());
-        }
+        AudioCommandQueue current = queue;
+        if (current != null) current.send(AudioCommandQueue.Operation.STOP, resourcePath, 1f);
     }
 
     public static void stopAll() {
-        for (Clip c : CACHE.values()) {
-            if (c.isRunning()) c.stop();
-        }
+        AudioCommandQueue current = queue;
+        if (current != null) current.send(AudioCommandQueue.Operation.STOP_ALL, null, 1f);
+    }
+
+    /**
+     * Counts the sound commands waiting for the audio thread.
+     *
+     * @return Queue depth.
+     */
+    public static int getQueueDepth() {
+        AudioCommandQueue current = queue;
+        return current == null ? 0 : current.getDepth();
+    }
+
+    /**
+     * Counts the sound commands dropped as duplicates of a command sent
+     * during the same tick.
+     *
+     * @return Coalesced commands.
+     */
+    public static long getCommandsCoalesced() {
+        AudioCommandQueue current = queue;
+        return current == null ? 0 : current.getCoalesced();
+    }
+
+    /**
+     * Reads a percentile of the time from sending a sound command to the end
+     * of its run on the audio thread.
+     *
+     * @param percentile
+     *            Percentile, between 0 and 100.
+     * @return Latency in nanoseconds, zero before any command ran.
+     */
+    public static long getCommandLatency(double percentile) {
+        AudioCommandQueue current = queue;
+        return current == null ? 0 : current.getLatency(percentile);
     }
 }
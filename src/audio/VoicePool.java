@@ -0,0 +1,227 @@
+package audio;
+
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * Set of clips playing the same sound, so a sound can overlap itself.
+ *
+ * All clips share the decoded sound and are opened when the pool is created.
+ * Playing picks the next free voice in turn. A voice counts as busy until
+ * the length of the sound has passed since it started, so no native call is
+ * needed to find a free one. When every voice is busy, the voice started
+ * first is stopped and reused, and counted as stolen.
+ */
+final class VoicePool {
+
+	/** Nanoseconds in a microsecond. */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/** Resource played by the pool. */
+	private final String resourcePath;
+	/** Clips of the pool, all opened. */
+	private final Clip[] voices;
+	/** Time every voice started at, by voice. */
+	private final long[] startedAt;
+	/** Time every voice becomes free at, by voice. */
+	private final long[] endsAt;
+	/** Length of the sound, in nanoseconds. */
+	private final long lengthNanos;
+	/** Next voice tried. */
+	private int next;
+	/** Voices stopped early to play the sound again. */
+	private long stolen;
+
+	/**
+	 * Constructor, opens every voice.
+	 *
+	 * @param resourcePath
+	 *            Resource played by the pool.
+	 * @param format
+	 *            Format of the decoded sound.
+	 * @param data
+	 *            Decoded sound.
+	 * @param voiceCount
+	 *            Number of voices, at least one.
+	 * @throws LineUnavailableException
+	 *             If no clip could be opened.
+	 */
+	VoicePool(final String resourcePath, final AudioFormat format,
+			final byte[] data, final int voiceCount)
+			throws LineUnavailableException {
+		this.resourcePath = resourcePath;
+		Clip[] opened = new Clip[Math.max(1, voiceCount)];
+		int count = 0;
+		LineUnavailableException failure = null;
+		for (int i = 0; i < opened.length; i++) {
+			try {
+				Clip clip = AudioSystem.getClip();
+				clip.open(format, data, 0, data.length);
+				opened[count++] = clip;
+			} catch (LineUnavailableException e) {
+				// Fewer voices than asked for, as many as the device allows.
+				failure = e;
+				break;
+			}
+		}
+		if (count == 0)
+			throw failure;
+		this.voices = Arrays.copyOf(opened, count);
+		this.startedAt = new long[count];
+		this.endsAt = new long[count];
+		this.lengthNanos = this.voices[0].getMicrosecondLength() * NANOS_PER_MICRO;
+	}
+
+	/**
+	 * Plays the sound once on a free voice, or on the oldest one if all are
+	 * busy.
+	 *
+	 * @param gain
+	 *            Volume of this play, from 0 to 1. Ignored by clips without
+	 *            a gain control.
+	 */
+	synchronized void play(final float gain) {
+		long now = System.nanoTime();
+		Clip clip = this.voices[takeVoice(now)];
+		setGain(clip, gain);
+		clip.setFramePosition(0);
+		clip.start();
+	}
+
+	/**
+	 * Sets the volume of a clip.
+	 *
+	 * @param clip
+	 *            Clip to change.
+	 * @param gain
+	 *            Volume, from 0 to 1.
+	 */
+	private static void setGain(final Clip clip, final float gain) {
+		if (!clip.isControlSupported(FloatControl.Type.MASTER_GAIN))
+			return;
+		FloatControl control = (FloatControl) clip.getControl(
+				FloatControl.Type.MASTER_GAIN);
+		float decibels = gain <= 0 ? control.getMinimum()
+				: (float) (20.0 * Math.log10(Math.min(1f, gain)));
+		control.setValue(Math.max(control.getMinimum(),
+				Math.min(control.getMaximum(), decibels)));
+	}
+
+	/**
+	 * Stops every voice.
+	 */
+	synchronized void stop() {
+		for (int i = 0; i < this.voices.length; i++) {
+			if (this.endsAt[i] != 0) {
+				this.voices[i].stop();
+				this.voices[i].setFramePosition(0);
+				this.endsAt[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Finds the voice to play on and marks it busy.
+	 *
+	 * @param now
+	 *            Current time, in nanoseconds.
+	 * @return Index of the voice.
+	 */
+	private int takeVoice(final long now) {
+		int oldest = -1;
+		for (int tried = 0; tried < this.voices.length; tried++) {
+			int voice = this.next;
+			this.next = (this.next + 1) % this.voices.length;
+			if (!isBusy(voice, now)) {
+				markBusy(voice, now);
+				return voice;
+			}
+			if (oldest < 0 || this.startedAt[voice] - this.startedAt[oldest] < 0)
+				oldest = voice;
+		}
+		this.voices[oldest].stop();
+		this.stolen++;
+		markBusy(oldest, now);
+		return oldest;
+	}
+
+	/**
+	 * Checks if a voice is playing.
+	 *
+	 * @param voice
+	 *            Index of the voice.
+	 * @param now
+	 *            Current time, in nanoseconds.
+	 * @return True if the sound of the voice has not ended.
+	 */
+	private boolean isBusy(final int voice, final long now) {
+		return this.endsAt[voice] != 0 && now - this.endsAt[voice] < 0;
+	}
+
+	/**
+	 * Marks a voice busy for the length of the sound.
+	 *
+	 * @param voice
+	 *            Index of the voice.
+	 * @param now
+	 *            Current time, in nanoseconds.
+	 */
+	private void markBusy(final int voice, final long now) {
+		this.startedAt[voice] = now;
+		this.endsAt[voice] = now + this.lengthNanos;
+	}
+
+	/**
+	 * Counts the voices playing.
+	 *
+	 * @return Busy voices.
+	 */
+	synchronized int getVoicesInUse() {
+		long now = System.nanoTime();
+		int inUse = 0;
+		for (int i = 0; i < this.voices.length; i++)
+			if (isBusy(i, now))
+				inUse++;
+		return inUse;
+	}
+
+	/**
+	 * Getter for the number of voices stopped early to play the sound again.
+	 *
+	 * @return Stolen voices.
+	 */
+	synchronized long getVoicesStolen() {
+		return this.stolen;
+	}
+
+	/**
+	 * Getter for the number of voices.
+	 *
+	 * @return Opened voices.
+	 */
+	int getVoiceCount() {
+		return this.voices.length;
+	}
+
+	/**
+	 * Getter for the resource played.
+	 *
+	 * @return Resource path.
+	 */
+	String getResourcePath() {
+		return this.resourcePath;
+	}
+
+	/**
+	 * Stops and closes every voice.
+	 */
+	synchronized void close() {
+		for (Clip clip : this.voices)
+			clip.close();
+	}
+}
@@ -0,0 +1,113 @@
+package audio;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Sink writing the mixed samples to a WAV file, to listen to or check a
+ * session recorded without an audio device.
+ */
+final class WavFileSink implements AudioSink {
+
+	/** Size of the WAV header, in bytes. */
+	private static final int HEADER_SIZE = 44;
+
+	/** File written. */
+	private final RandomAccessFile file;
+	/** Format of the samples. */
+	private final AudioFormat format;
+	/** Bytes of samples written. */
+	private long dataBytes;
+
+	/**
+	 * Constructor, creates the file with a provisional header.
+	 *
+	 * @param path
+	 *            File to write.
+	 * @param format
+	 *            Format of the mixed samples.
+	 * @throws IOException
+	 *             If the file can't be created.
+	 */
+	WavFileSink(final String path, final AudioFormat format) throws IOException {
+		this.file = new RandomAccessFile(path, "rw");
+		this.file.setLength(0);
+		this.format = format;
+		writeHeader();
+	}
+
+	@Override
+	public synchronized void write(final byte[] buffer, final int length)
+			throws IOException {
+		this.file.write(buffer, 0, length);
+		this.dataBytes += length;
+	}
+
+	@Override
+	public boolean isPaced() {
+		return false;
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			this.file.seek(0);
+			writeHeader();
+			this.file.close();
+		} catch (IOException e) {
+			System.err.println("[Sound] Failed to finish the WAV file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the header for the samples written so far.
+	 *
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	private void writeHeader() throws IOException {
+		int channels = this.format.getChannels();
+		int sampleRate = (int) this.format.getSampleRate();
+		int frameSize = this.format.getFrameSize();
+		int dataSize = (int) Math.min(this.dataBytes, Integer.MAX_VALUE - HEADER_SIZE);
+		this.file.writeBytes("RIFF");
+		writeInt(HEADER_SIZE - 8 + dataSize);
+		this.file.writeBytes("WAVEfmt ");
+		writeInt(16);
+		writeShort(1);
+		writeShort(channels);
+		writeInt(sampleRate);
+		writeInt(sampleRate * frameSize);
+		writeShort(frameSize);
+		writeShort(this.format.getSampleSizeInBits());
+		this.file.writeBytes("data");
+		writeInt(dataSize);
+	}
+
+	/**
+	 * Writes a little-endian 32-bit number.
+	 *
+	 * @param value
+	 *            Number to write.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	private void writeInt(final int value) throws IOException {
+		this.file.write(new byte[] { (byte) value, (byte) (value >>> 8),
+				(byte) (value >>> 16), (byte) (value >>> 24) });
+	}
+
+	/**
+	 * Writes a little-endian 16-bit number.
+	 *
+	 * @param value
+	 *            Number to write.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	private void writeShort(final int value) throws IOException {
+		this.file.write(new byte[] { (byte) value, (byte) (value >>> 8) });
+	}
+}
@@ -14,8 +14,12 @@ import java.util.Scanner;
 public class AchievementManager {
     /** Stores the single instance of the AchievementManager. */
     private static AchievementManager instance;
+    /** If game events are tracked, turned off for simulations. */
+    private static volatile boolean enabled = true;
     /** List of all achievements in the game. */
     private List<Achievement> achievements;
+    /** Saves the achievements off the game thread. */
+    private final AchievementWriter writer = new AchievementWriter();
     /** Counter for the total number of shots fired by the player. */
     private int shotsFired = 0;
     /** Counter for the total number of shots that hit an enemy. */
@@ -57,6 +61,25 @@ public class AchievementManager {
         return instance;
     }
 
+    /**
+     * Turns achievement tracking on or off. Simulated games run in parallel
+     * and must not unlock or save achievements of the player.
+     *
+     * @param isEnabled True to track game events.
+     */
+    public static void setEnabled(boolean isEnabled) {
+        enabled = isEnabled;
+    }
+
+    /**
+     * Checks if achievement tracking is on.
+     *
+     * @return True if game events are tracked.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
     /**
      * Gets the list of all achievements.
      *
@@ -74,6 +97,7 @@ public class AchievementManager {
      * @param name The name of the achievement to unlock.
      */
     public void unlockAchievement(String name) {
+        if (!enabled) return;
         for (Achievement achievement : achievements) {
             if (achievement.getName().equals(name) && !achievement.isUnlocked()) {
                 achievement.unlock();
@@ -89,6 +113,7 @@ public class AchievementManager {
      * Checks for and unlocks achievements related to enemy kills and accuracy.
      */
     public void onEnemyDefeated() {
+        if (!enabled) return;
         if (!firstKillUnlocked) {
             unlockAchievement("First Blood");
             firstKillUnlocked = true;
@@ -112,6 +137,7 @@ public class AchievementManager {
      * @param elapsedSeconds The total number of seconds elapsed in the game.
      */
     public void onTimeElapsedSeconds(int elapsedSeconds) {
+        if (!enabled) return;
         if (!survivorUnlocked && elapsedSeconds >= 60) {
             unlockAchievement("Bear Grylls");
             survivorUnlocked = true;
@@ -123,6 +149,7 @@ public class AchievementManager {
      * Increments the counter for shots fired.
      */
     public void onShotFired() {
+        if (!enabled) return;
         shotsFired++;
     }
 
@@ -155,19 +182,30 @@ public class AchievementManager {
     /**
      * Saves the current achievement status to file.
      * <p>
-     * Requests the FileManager to write all current achievements to disk.
+     * Hands a snapshot to the background writer, which coalesces bursts of
+     * unlocks into a single write, so the game thread never waits on disk.
      * </p>
-     *
-     * @throws RuntimeException
-     *             If an I/O error occurs while saving achievements.
      */
     private void saveAchievements() {
-        try {
-            // Ask FileManager to save all current achievement data
-            Core.getFileManager().saveAchievements(achievements);
-        } catch (IOException e) {
-            System.err.println("Failed to save achievement file!");
-            e.printStackTrace();
+        writer.submit(achievements);
+    }
+
+    /**
+     * Writes any achievement change not saved yet, waiting for the disk.
+     * Called when the game shuts down.
+     */
+    public void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Writes any achievement change not saved yet, if the manager was ever
+     * created.
+     */
+    public static void flushInstance() {
+        AchievementManager manager = instance;
+        if (manager != null) {
+            manager.flush();
         }
     }
 
@@ -0,0 +1,109 @@
+package engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Saves achievements to disk on a background thread, so that unlocking one
+ * in the middle of a game update never waits on the disk.
+ *
+ * The game thread only hands over a snapshot of the achievements. The writer
+ * waits a short moment before saving, and only the latest snapshot is kept,
+ * so a burst of unlocks ends up in a single write. {@link #flush()} saves the
+ * pending snapshot right away and is called when the game shuts down.
+ */
+final class AchievementWriter implements Runnable {
+
+	/** Time a snapshot waits for newer ones before being written, in milliseconds. */
+	private static final long COALESCE_DELAY = 250;
+
+	/** Latest snapshot not written yet, null if there is none. */
+	private List<Achievement> pending;
+	/** Held while writing, so writes never overlap. */
+	private final Object writeLock = new Object();
+	/** Background thread, started on the first submission. */
+	private Thread thread;
+	/** Application logger. */
+	private final Logger logger;
+
+	/**
+	 * Constructor, the background thread starts when first needed.
+	 */
+	AchievementWriter() {
+		this.logger = Core.getLogger();
+	}
+
+	/**
+	 * Schedules a save of the achievements. Returns right away.
+	 *
+	 * @param achievements
+	 *            Achievements to save, copied before returning.
+	 */
+	void submit(final List<Achievement> achievements) {
+		List<Achievement> snapshot = new ArrayList<Achievement>(achievements.size());
+		for (Achievement achievement : achievements) {
+			Achievement copy = new Achievement(achievement.getName(),
+					achievement.getDescription());
+			if (achievement.isUnlocked())
+				copy.unlock();
+			snapshot.add(copy);
+		}
+		synchronized (this) {
+			this.pending = snapshot;
+			if (this.thread == null) {
+				this.thread = new Thread(this, "Achievement writer");
+				this.thread.setDaemon(true);
+				this.thread.start();
+			}
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Writes the pending snapshot, if any, and waits for a write in progress
+	 * to finish.
+	 */
+	void flush() {
+		synchronized (this.writeLock) {
+			writePending();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				synchronized (this) {
+					while (this.pending == null)
+						wait();
+				}
+				Thread.sleep(COALESCE_DELAY);
+				flush();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Takes the pending snapshot and writes it. Called holding the write
+	 * lock.
+	 */
+	private void writePending() {
+		List<Achievement> snapshot;
+		synchronized (this) {
+			snapshot = this.pending;
+			this.pending = null;
+		}
+		if (snapshot == null)
+			return;
+		try {
+			Core.getFileManager().saveAchievements(snapshot);
+		} catch (IOException e) {
+			this.logger.warning("Failed to save achievement file: "
+					+ e.getMessage());
+		}
+	}
+}
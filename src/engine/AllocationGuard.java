@@ -0,0 +1,223 @@
+package engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+
+/**
+ * Measures the heap bytes allocated by the current thread around a block of
+ * code, and reports blocks that go over a budget.
+ *
+ * The guard is configured with system properties so that it can be turned on
+ * for a soak or regression run without rebuilding:
+ * <ul>
+ * <li>{@value #BUDGET_PROPERTY}: allowed bytes per block, negative or unset
+ * disables the guard.</li>
+ * <li>{@value #WARMUP_PROPERTY}: blocks ignored at start, while pools fill
+ * and code gets compiled.</li>
+ * <li>{@value #STRICT_PROPERTY}: when true, a block over budget throws
+ * instead of logging, so an automated run fails.</li>
+ * <li>{@value #TOLERANCE_PROPERTY}: blocks over budget allowed before strict
+ * mode throws, for the rare allocations of the virtual machine itself, like
+ * code being recompiled.</li>
+ * </ul>
+ * It relies on the HotSpot thread allocation counters, and stays disabled on
+ * virtual machines that do not provide them.
+ */
+public final class AllocationGuard {
+
+	/** System property holding the budget, in bytes per block. */
+	public static final String BUDGET_PROPERTY = "invaders.tickAllocationBudget";
+	/** System property holding the number of ignored blocks. */
+	public static final String WARMUP_PROPERTY = "invaders.tickAllocationWarmup";
+	/** System property turning budget overruns into errors. */
+	public static final String STRICT_PROPERTY = "invaders.tickAllocationStrict";
+	/** System property holding the overruns allowed in strict mode. */
+	public static final String TOLERANCE_PROPERTY = "invaders.tickAllocationTolerance";
+
+	/** Default number of ignored blocks. */
+	private static final int DEFAULT_WARMUP = 120;
+
+	/** Thread counters, null if not available. */
+	private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+	/** Name of the guarded block, for the reports. */
+	private final String name;
+	/** Allowed bytes per block, negative when disabled. */
+	private final long budget;
+	/** Blocks still to ignore. */
+	private int warmup;
+	/** If a block over budget throws. */
+	private final boolean strict;
+	/** Blocks over budget allowed before strict mode throws. */
+	private final int tolerance;
+	/** Application logger. */
+	private final Logger logger;
+
+	/** Allocated bytes counter when the current block began. */
+	private long startBytes;
+	/** Number of measured blocks. */
+	private long blocks;
+	/** Number of blocks over budget. */
+	private long overruns;
+	/** Largest allocation seen in a measured block. */
+	private long worstBytes;
+	/** If the current block is excused from the budget. */
+	private boolean excused;
+
+	/**
+	 * Constructor, sets the guard up.
+	 *
+	 * @param name
+	 *            Name of the guarded block.
+	 * @param budget
+	 *            Allowed bytes per block, negative to disable the guard.
+	 * @param warmup
+	 *            Number of blocks to ignore at start.
+	 * @param strict
+	 *            If a block over budget throws an exception.
+	 * @param tolerance
+	 *            Blocks over budget allowed before strict mode throws.
+	 */
+	public AllocationGuard(final String name, final long budget,
+			final int warmup, final boolean strict, final int tolerance) {
+		this.name = name;
+		this.budget = THREAD_BEAN == null ? -1 : budget;
+		this.warmup = warmup;
+		this.strict = strict;
+		this.tolerance = tolerance;
+		this.logger = Core.getLogger();
+	}
+
+	/**
+	 * Creates a guard configured from the system properties.
+	 *
+	 * @param name
+	 *            Name of the guarded block.
+	 * @return New guard, disabled unless a budget is set.
+	 */
+	public static AllocationGuard fromSystemProperties(final String name) {
+		return new AllocationGuard(name,
+				Long.getLong(BUDGET_PROPERTY, -1L),
+				Integer.getInteger(WARMUP_PROPERTY, DEFAULT_WARMUP),
+				Boolean.getBoolean(STRICT_PROPERTY),
+				Integer.getInteger(TOLERANCE_PROPERTY, 0));
+	}
+
+	/**
+	 * Checks if the guard measures anything.
+	 *
+	 * @return True if a budget is set and the counters are available.
+	 */
+	public boolean isEnabled() {
+		return this.budget >= 0;
+	}
+
+	/**
+	 * Marks the start of a guarded block.
+	 */
+	public void begin() {
+		if (this.budget >= 0)
+			this.startBytes = allocatedBytes();
+	}
+
+	/**
+	 * Marks the end of a guarded block, and reports it if it went over
+	 * budget.
+	 *
+	 * @throws IllegalStateException
+	 *             In strict mode, when the block went over budget more
+	 *             times than tolerated.
+	 */
+	public void end() {
+		if (this.budget < 0)
+			return;
+		long allocated = allocatedBytes() - this.startBytes;
+		boolean excused = this.excused;
+		this.excused = false;
+		if (this.warmup > 0) {
+			this.warmup--;
+			return;
+		}
+		this.blocks++;
+		if (excused)
+			return;
+		if (allocated > this.worstBytes)
+			this.worstBytes = allocated;
+		if (allocated > this.budget) {
+			this.overruns++;
+			String message = this.name + " allocated " + allocated
+					+ " bytes, over the budget of " + this.budget + ".";
+			if (this.strict && this.overruns > this.tolerance)
+				throw new IllegalStateException(message);
+			this.logger.warning(message);
+		}
+	}
+
+	/**
+	 * Excuses the current block from the budget, for the rare blocks that
+	 * create objects on purpose, like the update where a boss appears.
+	 */
+	public void excuse() {
+		this.excused = true;
+	}
+
+	/**
+	 * Getter for the number of measured blocks.
+	 *
+	 * @return Measured blocks, warm-up excluded.
+	 */
+	public long getBlocks() {
+		return this.blocks;
+	}
+
+	/**
+	 * Getter for the number of blocks over budget.
+	 *
+	 * @return Budget overruns.
+	 */
+	public long getOverruns() {
+		return this.overruns;
+	}
+
+	/**
+	 * Getter for the largest allocation of a measured block.
+	 *
+	 * @return Worst block, in bytes.
+	 */
+	public long getWorstBytes() {
+		return this.worstBytes;
+	}
+
+	/**
+	 * Reads the allocated bytes counter of the current thread.
+	 *
+	 * @return Bytes allocated by the thread so far.
+	 */
+	private static long allocatedBytes() {
+		return THREAD_BEAN.getThreadAllocatedBytes(
+				Thread.currentThread().getId());
+	}
+
+	/**
+	 * Looks up the thread counters, enabling allocation measuring.
+	 *
+	 * @return Thread bean, or null if allocation counters are unavailable.
+	 */
+	private static com.sun.management.ThreadMXBean threadBean() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory
+					.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean hotspotBean =
+						(com.sun.management.ThreadMXBean) bean;
+				if (hotspotBean.isThreadAllocatedMemorySupported()) {
+					hotspotBean.setThreadAllocatedMemoryEnabled(true);
+					return hotspotBean;
+				}
+			}
+		} catch (UnsupportedOperationException | LinkageError e) {
+			// Not a HotSpot VM, the guard stays disabled.
+		}
+		return null;
+	}
+}
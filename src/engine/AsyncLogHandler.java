@@ -0,0 +1,242 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log handler that hands records to a background thread, which formats and
+ * writes them with the wrapped handlers.
+ *
+ * Logging threads only claim a slot in a bounded ring buffer with a
+ * compare-and-set, so a log call never waits on the console or the disk.
+ * When the buffer is full, records are either dropped and counted, or the
+ * logging thread waits for room, depending on the {@link OverflowPolicy}.
+ * The background thread flushes the wrapped handlers whenever the buffer
+ * runs empty.
+ */
+public final class AsyncLogHandler extends Handler {
+
+	/** What to do with a record when the buffer is full. */
+	public enum OverflowPolicy {
+		/** Drop the record and count it, the logging thread never waits. */
+		DROP,
+		/** Wait for the background thread to make room. */
+		BLOCK
+	}
+
+	/** Time the background thread sleeps when there is nothing to write. */
+	private static final long IDLE_PARK_NANOS = 10000000L;
+	/** Time a blocked logging thread waits before trying again. */
+	private static final long BLOCKED_PARK_NANOS = 50000L;
+
+	/** Handlers the records are written with. */
+	private final Handler[] targets;
+	/** What to do with a record when the buffer is full. */
+	private final OverflowPolicy policy;
+	/** Records waiting to be written. */
+	private final AtomicReferenceArray<LogRecord> buffer;
+	/** Sequence number of every slot, tells if it is free or filled. */
+	private final AtomicLongArray sequences;
+	/** Capacity minus one, the capacity being a power of two. */
+	private final int mask;
+	/** Next sequence number claimed by a logging thread. */
+	private final AtomicLong tail = new AtomicLong();
+	/** Next sequence number read by the background thread. */
+	private volatile long head;
+	/** Records dropped because the buffer was full. */
+	private final AtomicLong dropped = new AtomicLong();
+	/** Background thread writing the records. */
+	private final Thread writer;
+	/** If the handler was closed. */
+	private volatile boolean closed;
+
+	/**
+	 * Constructor, starts the background thread.
+	 *
+	 * @param capacity
+	 *            Minimum number of records the buffer holds, rounded up to a
+	 *            power of two.
+	 * @param policy
+	 *            What to do with a record when the buffer is full.
+	 * @param targets
+	 *            Handlers the records are written with.
+	 */
+	public AsyncLogHandler(final int capacity, final OverflowPolicy policy,
+			final Handler... targets) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.targets = targets.clone();
+		this.policy = policy;
+		this.buffer = new AtomicReferenceArray<LogRecord>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++)
+			this.sequences.set(i, i);
+		this.mask = size - 1;
+		setLevel(Level.ALL);
+
+		this.writer = new Thread(this::drainLoop, "Log writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public void publish(final LogRecord record) {
+		if (this.closed || !isLoggable(record))
+			return;
+		if (Thread.currentThread() == this.writer) {
+			// A wrapped handler logging, it can't wait for itself.
+			write(record);
+			return;
+		}
+		while (!offer(record)) {
+			// Full: wake the background thread up early to make room.
+			LockSupport.unpark(this.writer);
+			if (this.policy == OverflowPolicy.DROP || this.closed) {
+				this.dropped.incrementAndGet();
+				return;
+			}
+			LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * Waits until every record published so far is written, then flushes the
+	 * wrapped handlers.
+	 */
+	@Override
+	public void flush() {
+		long target = this.tail.get();
+		while (this.head < target && this.writer.isAlive()) {
+			LockSupport.unpark(this.writer);
+			LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+		}
+		flushTargets();
+	}
+
+	/**
+	 * Writes the pending records, then closes the wrapped handlers.
+	 */
+	@Override
+	public void close() {
+		if (this.closed)
+			return;
+		this.closed = true;
+		LockSupport.unpark(this.writer);
+		try {
+			this.writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (Handler target : this.targets)
+			target.close();
+	}
+
+	/**
+	 * Getter for the number of records dropped because the buffer was full.
+	 *
+	 * @return Dropped records.
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Claims a slot and stores a record in it.
+	 *
+	 * @param record
+	 *            Record to store.
+	 * @return False if the buffer is full.
+	 */
+	private boolean offer(final LogRecord record) {
+		while (true) {
+			long position = this.tail.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.buffer.lazySet(index, record);
+					this.sequences.set(index, position + 1);
+					return true;
+				}
+			} else if (difference < 0) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Takes the next record, only called by the background thread.
+	 *
+	 * @return Next record, null if none is ready.
+	 */
+	private LogRecord poll() {
+		long position = this.head;
+		int index = (int) position & this.mask;
+		if (this.sequences.get(index) != position + 1)
+			return null;
+		LogRecord record = this.buffer.get(index);
+		this.buffer.lazySet(index, null);
+		this.sequences.set(index, position + this.mask + 1);
+		this.head = position + 1;
+		return record;
+	}
+
+	/**
+	 * Body of the background thread: writes records as they come, and
+	 * flushes when the buffer runs empty.
+	 */
+	private void drainLoop() {
+		long reportedDrops = 0;
+		boolean unflushed = false;
+		while (true) {
+			LogRecord record = poll();
+			if (record != null) {
+				write(record);
+				unflushed = true;
+				continue;
+			}
+			long drops = this.dropped.get();
+			if (drops != reportedDrops) {
+				write(new LogRecord(Level.WARNING, (drops - reportedDrops)
+						+ " log records dropped, the log buffer was full."));
+				reportedDrops = drops;
+				unflushed = true;
+			}
+			if (unflushed) {
+				flushTargets();
+				unflushed = false;
+			}
+			if (this.closed && this.head == this.tail.get())
+				return;
+			LockSupport.parkNanos(IDLE_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * Writes a record with every wrapped handler.
+	 *
+	 * @param record
+	 *            Record to write.
+	 */
+	private void write(final LogRecord record) {
+		for (Handler target : this.targets) {
+			try {
+				target.publish(record);
+			} catch (RuntimeException e) {
+				reportError(null, e, java.util.logging.ErrorManager.WRITE_FAILURE);
+			}
+		}
+	}
+
+	/**
+	 * Flushes every wrapped handler.
+	 */
+	private void flushTargets() {
+		for (Handler target : this.targets)
+			target.flush();
+	}
+}
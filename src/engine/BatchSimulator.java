@@ -0,0 +1,467 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import engine.level.LevelManager;
+import entity.DropItem;
+import screen.GameScreen;
+
+/**
+ * Plays every level of a level file many times in parallel and writes
+ * balancing statistics as CSV, one row per level.
+ *
+ * Games are spread over a fork/join pool. Every worker plays its games with
+ * the headless loop and keeps its own totals, which are merged when the tasks
+ * join, so the workers share nothing while playing.
+ * <p>
+ * Options: {@code --levels=<maps.json>} (default: bundled levels),
+ * {@code --games=<per level>}, {@code --policy=fire|sweep},
+ * {@code --out=<csv file>} (default: standard output),
+ * {@code --threads=<workers>}, {@code --max-ticks=<per game>} and
+ * {@code --seed=<batch seed>}. Game number {@code i} of a batch is seeded
+ * with the batch seed plus {@code i}, so a batch seed reproduces every game
+ * whatever the number of threads.
+ */
+public final class BatchSimulator {
+
+	/** Default number of games per level. */
+	private static final int DEFAULT_GAMES = 100;
+	/** Default limit of updates per game, ten minutes of game time. */
+	private static final long DEFAULT_MAX_TICKS = 10L * 60L * 60L;
+	/** Games played by a task without splitting it further. */
+	private static final int GAMES_PER_TASK = 4;
+	/** Time the sweeping policy moves in one direction, in milliseconds. */
+	private static final long SWEEP_PERIOD = 1500;
+
+	/** Policies the simulated players can follow. */
+	public enum Policy {
+		/** Stand still and hold fire. */
+		FIRE,
+		/** Hold fire while moving left and right in turns. */
+		SWEEP
+	}
+
+	/** Levels to play. */
+	private final List<engine.level.Level> levels;
+	/** Games per level. */
+	private final int games;
+	/** Policy of the simulated players. */
+	private final Policy policy;
+	/** Limit of updates per game. */
+	private final long maxTicks;
+	/** Seed of the first game, the next games add their number. */
+	private final long seed;
+
+	/**
+	 * Constructor, sets the batch up.
+	 *
+	 * @param levels
+	 *            Levels to play.
+	 * @param games
+	 *            Games per level.
+	 * @param policy
+	 *            Policy of the simulated players.
+	 * @param maxTicks
+	 *            Limit of updates per game.
+	 * @param seed
+	 *            Seed of the batch.
+	 */
+	public BatchSimulator(final List<engine.level.Level> levels,
+			final int games, final Policy policy, final long maxTicks,
+			final long seed) {
+		this.levels = levels;
+		this.games = games;
+		this.policy = policy;
+		this.maxTicks = maxTicks;
+		this.seed = seed;
+	}
+
+	/**
+	 * Plays every game of the batch.
+	 *
+	 * @param pool
+	 *            Pool running the games.
+	 * @return Totals, one per level in level order.
+	 */
+	public LevelStats[] run(final ForkJoinPool pool) {
+		// Lazy singletons are created here, before the workers race for them.
+		Core.getDrawManager();
+		Core.getInputManager();
+		AchievementManager.getInstance();
+		boolean achievements = AchievementManager.isEnabled();
+		AchievementManager.setEnabled(false);
+		try {
+			return pool.invoke(new GameRangeTask(0,
+					this.levels.size() * this.games));
+		} finally {
+			AchievementManager.setEnabled(achievements);
+		}
+	}
+
+	/**
+	 * Plays one game on the current thread and adds its outcome to the
+	 * totals.
+	 *
+	 * @param game
+	 *            Number of the game in the batch.
+	 * @param totals
+	 *            Totals of the current task, one per level.
+	 */
+	private void playGame(final int game, final LevelStats[] totals) {
+		int levelIndex = game / this.games;
+		engine.level.Level level = this.levels.get(levelIndex);
+		int maxLives = Core.getMaxLives();
+		GameScreen screen = HeadlessGame.simulateLevel(
+				new GameState(level.getLevel(), 0, maxLives, maxLives, 0, 0, 0),
+				level, createInput(), this.maxTicks, this.seed + game);
+		GameState result = screen.getGameState();
+
+		LevelStats stats = totals[levelIndex];
+		// Both players play, and the level is won while either has lives.
+		boolean cleared = !screen.isRunning()
+				&& (result.getLivesRemaining() > 0
+						|| result.getLivesRemainingP2() > 0);
+		stats.games++;
+		if (cleared) {
+			stats.clears++;
+			stats.clearTicks += screen.getTickCount();
+		}
+		stats.livesLost += 2 * maxLives - result.getLivesRemaining()
+				- result.getLivesRemainingP2();
+		stats.coins += result.getCoin();
+		int[] drops = screen.getItemDropCounts();
+		for (int i = 0; i < drops.length; i++)
+			stats.drops[i] += drops[i];
+	}
+
+	/**
+	 * Creates the input of one game, following the batch policy.
+	 *
+	 * @return New input source.
+	 */
+	private InputSource createInput() {
+		if (this.policy == Policy.SWEEP)
+			return new SweepInput();
+		ScriptedInput input = new ScriptedInput();
+		input.press(KeyEvent.VK_SPACE);
+		input.press(KeyEvent.VK_ENTER);
+		return input;
+	}
+
+	/**
+	 * Plays a range of games, splitting it while it is large. Game number
+	 * {@code i} plays level {@code i / games}.
+	 */
+	private final class GameRangeTask extends RecursiveTask<LevelStats[]> {
+
+		/** Serial version, tasks are not serialized. */
+		private static final long serialVersionUID = 1L;
+
+		/** First game of the range. */
+		private final int from;
+		/** Game after the last one of the range. */
+		private final int to;
+
+		/**
+		 * Constructor, sets the range.
+		 *
+		 * @param from
+		 *            First game, inclusive.
+		 * @param to
+		 *            Last game, exclusive.
+		 */
+		GameRangeTask(final int from, final int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected LevelStats[] compute() {
+			if (this.to - this.from <= GAMES_PER_TASK) {
+				LevelStats[] totals = newTotals(levels.size());
+				for (int i = this.from; i < this.to; i++)
+					playGame(i, totals);
+				return totals;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			GameRangeTask left = new GameRangeTask(this.from, middle);
+			left.fork();
+			LevelStats[] totals = new GameRangeTask(middle, this.to).compute();
+			LevelStats[] leftTotals = left.join();
+			for (int i = 0; i < totals.length; i++)
+				totals[i].merge(leftTotals[i]);
+			return totals;
+		}
+	}
+
+	/**
+	 * Creates empty totals.
+	 *
+	 * @param count
+	 *            Number of levels.
+	 * @return Empty totals, one per level.
+	 */
+	private static LevelStats[] newTotals(final int count) {
+		LevelStats[] totals = new LevelStats[count];
+		for (int i = 0; i < count; i++)
+			totals[i] = new LevelStats();
+		return totals;
+	}
+
+	/**
+	 * Totals of the games played on one level. Only touched by one task at a
+	 * time, and merged when tasks join.
+	 */
+	public static final class LevelStats {
+
+		/** Games played. */
+		private long games;
+		/** Games where the level was cleared. */
+		private long clears;
+		/** Updates taken by the cleared games. */
+		private long clearTicks;
+		/** Lives lost by both players over every game. */
+		private long livesLost;
+		/** Coins held at the end of every game. */
+		private long coins;
+		/** Items dropped over every game, by item type ordinal. */
+		private final long[] drops = new long[DropItem.ItemType.values().length];
+
+		/**
+		 * Adds the totals of other games.
+		 *
+		 * @param other
+		 *            Totals to add.
+		 */
+		public void merge(final LevelStats other) {
+			this.games += other.games;
+			this.clears += other.clears;
+			this.clearTicks += other.clearTicks;
+			this.livesLost += other.livesLost;
+			this.coins += other.coins;
+			for (int i = 0; i < this.drops.length; i++)
+				this.drops[i] += other.drops[i];
+		}
+
+		/**
+		 * Getter for the number of games played.
+		 *
+		 * @return Games played.
+		 */
+		public long getGames() {
+			return this.games;
+		}
+
+		/**
+		 * Writes the totals as a CSV row.
+		 *
+		 * @param out
+		 *            Stream to write to.
+		 * @param levelNumber
+		 *            Number of the level.
+		 * @param tickRate
+		 *            Updates per second of game time.
+		 */
+		void writeRow(final PrintStream out, final int levelNumber,
+				final int tickRate) {
+			long total = 0;
+			for (long count : this.drops)
+				total += count;
+			StringBuilder row = new StringBuilder();
+			row.append(levelNumber).append(',').append(this.games)
+					.append(',').append(this.clears).append(',')
+					.append(format(ratio(this.clears, this.games))).append(',')
+					.append(format(ratio(this.clearTicks, this.clears)
+							/ tickRate)).append(',')
+					.append(format(ratio(this.livesLost, this.games)))
+					.append(',')
+					.append(format(ratio(this.coins, this.games)))
+					.append(',').append(total);
+			for (long count : this.drops)
+				row.append(',').append(count);
+			out.println(row);
+		}
+	}
+
+	/**
+	 * Holds fire for both players while moving left and right in turns,
+	 * following the game clock so that every run plays the same way.
+	 */
+	private static final class SweepInput implements InputSource {
+
+		@Override
+		public boolean isKeyDown(final int keyCode) {
+			return false;
+		}
+
+		@Override
+		public boolean isP1KeyDown(final int keyCode) {
+			return isDown(keyCode, KeyEvent.VK_A, KeyEvent.VK_D,
+					KeyEvent.VK_SPACE);
+		}
+
+		@Override
+		public boolean isP2KeyDown(final int keyCode) {
+			return isDown(keyCode, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT,
+					KeyEvent.VK_ENTER);
+		}
+
+		/**
+		 * Checks a key of a player against the current sweep direction.
+		 *
+		 * @param keyCode
+		 *            Key to check.
+		 * @param left
+		 *            Left key of the player.
+		 * @param right
+		 *            Right key of the player.
+		 * @param fire
+		 *            Fire key of the player.
+		 * @return Key state.
+		 */
+		private static boolean isDown(final int keyCode, final int left,
+				final int right, final int fire) {
+			if (keyCode == fire)
+				return true;
+			boolean goingLeft = (GameClock.currentTimeMillis()
+					/ SWEEP_PERIOD) % 2 == 0;
+			return keyCode == (goingLeft ? left : right);
+		}
+	}
+
+	/**
+	 * Ratio of two totals, zero when there is nothing to divide.
+	 *
+	 * @param value
+	 *            Dividend.
+	 * @param count
+	 *            Divisor.
+	 * @return Ratio.
+	 */
+	private static double ratio(final long value, final long count) {
+		return count == 0 ? 0 : (double) value / count;
+	}
+
+	/**
+	 * Formats a statistic for the CSV output.
+	 *
+	 * @param value
+	 *            Statistic.
+	 * @return Value with four decimals.
+	 */
+	private static String format(final double value) {
+		return String.format(Locale.ROOT, "%.4f", value);
+	}
+
+	/**
+	 * Writes the CSV header.
+	 *
+	 * @param out
+	 *            Stream to write to.
+	 */
+	private static void writeHeader(final PrintStream out) {
+		StringBuilder header = new StringBuilder("level,games,clears,"
+				+ "clear_rate,mean_clear_seconds,mean_lives_lost,mean_coins,"
+				+ "drops_total");
+		for (DropItem.ItemType type : DropItem.ItemType.values())
+			header.append(",drops_").append(type.name().toLowerCase(Locale.ROOT));
+		out.println(header);
+	}
+
+	/**
+	 * Runs a batch from the command line.
+	 *
+	 * @param args
+	 *            Options, see the class description.
+	 * @throws IOException
+	 *             If the level file can't be read or the output written.
+	 */
+	public static void main(final String[] args) throws IOException {
+		String levelFile = null;
+		String outFile = null;
+		int games = DEFAULT_GAMES;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long maxTicks = DEFAULT_MAX_TICKS;
+		Policy policy = Policy.FIRE;
+		long seed = RandomService.newSeed();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			String name = separator < 0 ? arg : arg.substring(0, separator);
+			String value = separator < 0 ? "" : arg.substring(separator + 1);
+			switch (name) {
+			case "--levels":
+				levelFile = value;
+				break;
+			case "--games":
+				games = Integer.parseInt(value);
+				break;
+			case "--policy":
+				policy = Policy.valueOf(value.toUpperCase(Locale.ROOT));
+				break;
+			case "--out":
+				outFile = value;
+				break;
+			case "--threads":
+				threads = Integer.parseInt(value);
+				break;
+			case "--max-ticks":
+				maxTicks = Long.parseLong(value);
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+		if (games <= 0 || threads <= 0 || maxTicks <= 0)
+			throw new IllegalArgumentException(
+					"Games, threads and ticks must be positive.");
+
+		HeadlessGame.configure();
+		LevelManager levelManager = levelFile == null ? new LevelManager()
+				: new LevelManager(Paths.get(levelFile));
+		List<engine.level.Level> levels = levelManager.getLevels();
+		BatchSimulator simulator = new BatchSimulator(levels, games, policy,
+				maxTicks, seed);
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long start = System.nanoTime();
+		LevelStats[] totals;
+		try {
+			totals = simulator.run(pool);
+		} finally {
+			pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		PrintStream out = outFile == null ? System.out
+				: new PrintStream(Files.newOutputStream(Paths.get(outFile)),
+						false, StandardCharsets.UTF_8.name());
+		try {
+			writeHeader(out);
+			for (int i = 0; i < totals.length; i++)
+				totals[i].writeRow(out, levels.get(i).getLevel(),
+						Core.getTickRate());
+		} finally {
+			if (out != System.out)
+				out.close();
+			else
+				out.flush();
+		}
+		long played = (long) levels.size() * games;
+		System.err.println(String.format(Locale.ROOT,
+				"%d games on %d threads in %.2f s, %.1f games/s, seed %d.",
+				played, threads, seconds, played / Math.max(seconds, 1e-9),
+				seed));
+	}
+}
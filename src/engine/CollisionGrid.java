@@ -0,0 +1,300 @@
+package engine;
+
+import java.util.Arrays;
+
+import entity.Entity;
+
+/**
+ * Uniform grid broadphase for collision checks.
+ *
+ * Entities are inserted with a caller defined tag and bucketed into square
+ * cells once per pass. A query returns the distinct entities sharing a cell
+ * with the queried box, so only nearby pairs reach the exact collision test.
+ * Entities outside the grid bounds are clamped to the border cells.
+ *
+ * The grid reuses its arrays between builds and only grows them, so
+ * rebuilding it every tick does not allocate in steady state.
+ */
+public final class CollisionGrid {
+
+	/** Initial capacity of the entity arrays. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Side of a cell, in pixels. */
+	private final int cellSize;
+	/** Number of cell columns. */
+	private final int columns;
+	/** Number of cell rows. */
+	private final int rows;
+	/** Start of every cell in the entry array, plus the end of the last. */
+	private final int[] cellStart;
+	/** Fill cursor of every cell, used while building. */
+	private final int[] cellCursor;
+	/** Entity indexes, grouped by cell. */
+	private int[] cellEntries;
+
+	/** Inserted entities. */
+	private Entity[] entities;
+	/** Tags of the inserted entities. */
+	private int[] tags;
+	/** Last query that returned every entity, to skip duplicates. */
+	private int[] queryStamps;
+	/** Number of inserted entities. */
+	private int entityCount;
+	/** Current query stamp. */
+	private int stamp;
+
+	/** Entities returned by the last query. */
+	private Entity[] candidates;
+	/** Tags of the entities returned by the last query. */
+	private int[] candidateTags;
+
+	/** Number of queries since the last statistics reset. */
+	private long queryCount;
+	/** Number of candidate pairs returned since the last statistics reset. */
+	private long candidatePairs;
+	/** Number of pairs a brute-force scan would have tested. */
+	private long bruteForcePairs;
+
+	/**
+	 * Constructor, creates an empty grid covering the given area.
+	 *
+	 * @param width
+	 *            Width of the covered area.
+	 * @param height
+	 *            Height of the covered area.
+	 * @param cellSize
+	 *            Side of a cell, ideally close to the size of the entities.
+	 */
+	public CollisionGrid(final int width, final int height, final int cellSize) {
+		this.cellSize = cellSize;
+		this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+		this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+		this.cellStart = new int[this.columns * this.rows + 1];
+		this.cellCursor = new int[this.columns * this.rows];
+		this.cellEntries = new int[INITIAL_CAPACITY];
+		this.entities = new Entity[INITIAL_CAPACITY];
+		this.tags = new int[INITIAL_CAPACITY];
+		this.queryStamps = new int[INITIAL_CAPACITY];
+		this.candidates = new Entity[INITIAL_CAPACITY];
+		this.candidateTags = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Removes every entity, to start a new pass.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.entityCount; i++)
+			this.entities[i] = null;
+		this.entityCount = 0;
+		for (int i = 0; i < this.cellStart.length; i++)
+			this.cellStart[i] = 0;
+	}
+
+	/**
+	 * Adds an entity to the next build.
+	 *
+	 * @param entity
+	 *            Entity to add.
+	 * @param tag
+	 *            Tag returned with the entity by the queries.
+	 */
+	public void insert(final Entity entity, final int tag) {
+		if (this.entityCount == this.entities.length) {
+			int capacity = this.entities.length * 2;
+			this.entities = Arrays.copyOf(this.entities, capacity);
+			this.tags = Arrays.copyOf(this.tags, capacity);
+			this.queryStamps = Arrays.copyOf(this.queryStamps, capacity);
+			this.candidates = new Entity[capacity];
+			this.candidateTags = new int[capacity];
+		}
+		this.entities[this.entityCount] = entity;
+		this.tags[this.entityCount] = tag;
+		this.queryStamps[this.entityCount] = this.stamp;
+		this.entityCount++;
+	}
+
+	/**
+	 * Buckets the inserted entities into their cells. Must be called after
+	 * the insertions and before the queries of a pass.
+	 */
+	public void build() {
+		// Count the entries of every cell, shifted by one.
+		for (int i = 0; i < this.entityCount; i++) {
+			Entity entity = this.entities[i];
+			int column0 = column(entity.getPositionX());
+			int column1 = column(entity.getPositionX() + entity.getWidth() - 1);
+			int row0 = row(entity.getPositionY());
+			int row1 = row(entity.getPositionY() + entity.getHeight() - 1);
+			for (int row = row0; row <= row1; row++)
+				for (int column = column0; column <= column1; column++)
+					this.cellStart[row * this.columns + column + 1]++;
+		}
+
+		int cells = this.cellCursor.length;
+		for (int cell = 0; cell < cells; cell++) {
+			this.cellStart[cell + 1] += this.cellStart[cell];
+			this.cellCursor[cell] = this.cellStart[cell];
+		}
+		if (this.cellEntries.length < this.cellStart[cells])
+			this.cellEntries = new int[Integer.highestOneBit(
+					this.cellStart[cells]) << 1];
+
+		for (int i = 0; i < this.entityCount; i++) {
+			Entity entity = this.entities[i];
+			int column0 = column(entity.getPositionX());
+			int column1 = column(entity.getPositionX() + entity.getWidth() - 1);
+			int row0 = row(entity.getPositionY());
+			int row1 = row(entity.getPositionY() + entity.getHeight() - 1);
+			for (int row = row0; row <= row1; row++)
+				for (int column = column0; column <= column1; column++)
+					this.cellEntries[this.cellCursor[row * this.columns + column]++] = i;
+		}
+	}
+
+	/**
+	 * Finds the entities sharing a cell with an entity.
+	 *
+	 * @param entity
+	 *            Entity to look around.
+	 * @return Number of candidates, read with {@link #getCandidate(int)}.
+	 */
+	public int query(final Entity entity) {
+		return query(entity.getPositionX(), entity.getPositionY(),
+				entity.getWidth(), entity.getHeight());
+	}
+
+	/**
+	 * Finds the entities sharing a cell with a box.
+	 *
+	 * @param positionX
+	 *            Left side of the box.
+	 * @param positionY
+	 *            Top side of the box.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @return Number of candidates, read with {@link #getCandidate(int)}.
+	 */
+	public int query(final int positionX, final int positionY,
+			final int width, final int height) {
+		int column0 = column(positionX);
+		int column1 = column(positionX + width - 1);
+		int row0 = row(positionY);
+		int row1 = row(positionY + height - 1);
+		int found = 0;
+
+		this.stamp++;
+		for (int row = row0; row <= row1; row++)
+			for (int column = column0; column <= column1; column++) {
+				int cell = row * this.columns + column;
+				for (int k = this.cellStart[cell]; k < this.cellStart[cell + 1]; k++) {
+					int index = this.cellEntries[k];
+					if (this.queryStamps[index] != this.stamp) {
+						this.queryStamps[index] = this.stamp;
+						this.candidates[found] = this.entities[index];
+						this.candidateTags[found] = this.tags[index];
+						found++;
+					}
+				}
+			}
+
+		this.queryCount++;
+		this.candidatePairs += found;
+		this.bruteForcePairs += this.entityCount;
+		return found;
+	}
+
+	/**
+	 * Getter for a candidate of the last query.
+	 *
+	 * @param index
+	 *            Candidate index, below the count returned by the query.
+	 * @return Candidate entity.
+	 */
+	public Entity getCandidate(final int index) {
+		return this.candidates[index];
+	}
+
+	/**
+	 * Getter for the tag of a candidate of the last query.
+	 *
+	 * @param index
+	 *            Candidate index, below the count returned by the query.
+	 * @return Tag the candidate was inserted with.
+	 */
+	public int getCandidateTag(final int index) {
+		return this.candidateTags[index];
+	}
+
+	/**
+	 * Getter for the number of entities in the grid.
+	 *
+	 * @return Inserted entities.
+	 */
+	public int getEntityCount() {
+		return this.entityCount;
+	}
+
+	/**
+	 * Getter for the number of queries since the last reset.
+	 *
+	 * @return Query count.
+	 */
+	public long getQueryCount() {
+		return this.queryCount;
+	}
+
+	/**
+	 * Getter for the number of candidate pairs since the last reset.
+	 *
+	 * @return Pairs handed to the exact collision test.
+	 */
+	public long getCandidatePairs() {
+		return this.candidatePairs;
+	}
+
+	/**
+	 * Getter for the number of pairs a brute-force scan would have tested
+	 * since the last reset.
+	 *
+	 * @return Brute-force pair count.
+	 */
+	public long getBruteForcePairs() {
+		return this.bruteForcePairs;
+	}
+
+	/**
+	 * Resets the query statistics.
+	 */
+	public void resetStatistics() {
+		this.queryCount = 0;
+		this.candidatePairs = 0;
+		this.bruteForcePairs = 0;
+	}
+
+	/**
+	 * Computes the clamped column of a coordinate.
+	 *
+	 * @param positionX
+	 *            Coordinate in the X axis.
+	 * @return Column index.
+	 */
+	private int column(final int positionX) {
+		int column = Math.floorDiv(positionX, this.cellSize);
+		return column < 0 ? 0 : (column >= this.columns ? this.columns - 1 : column);
+	}
+
+	/**
+	 * Computes the clamped row of a coordinate.
+	 *
+	 * @param positionY
+	 *            Coordinate in the Y axis.
+	 * @return Row index.
+	 */
+	private int row(final int positionY) {
+		int row = Math.floorDiv(positionY, this.cellSize);
+		return row < 0 ? 0 : (row >= this.rows ? this.rows - 1 : row);
+	}
+}
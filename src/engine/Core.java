@@ -2,8 +2,14 @@ package engine;
 
 import audio.SoundManager;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
@@ -36,11 +42,15 @@ public final class Core {
 	private static final int HEIGHT = 520;
 	/** Max fps of current screen. */
 	private static final int FPS = 60;
+	/** Simulation updates per second, game speed depends on it. */
+	private static final int TICK_RATE = 60;
 
 	/** Max lives. */
 	private static final int MAX_LIVES = 3;
 	/** Levels between extra life. */
 	private static final int EXTRA_LIFE_FRECUENCY = 3;
+	/** System property holding the directory level recordings go to. */
+	private static final String RECORD_DIR_PROPERTY = "invaders.recordDir";
 
 	/** Frame to draw the screen on. */
 	private static Frame frame;
@@ -55,8 +65,75 @@ public final class Core {
 	private static Handler fileHandler;
 	/** Logger handler for printing to console. */
 	private static ConsoleHandler consoleHandler;
+	/** Logger handler writing to the file and console handlers off the game thread. */
+	private static AsyncLogHandler asyncHandler;
+	/** Loggers of the subsystems, kept so their levels are not lost. */
+	private static final Map<String, Logger> SUBSYSTEM_LOGGERS = new ConcurrentHashMap<String, Logger>();
+	/** Records the asynchronous log buffer holds. */
+	private static final int LOG_BUFFER_CAPACITY = 4096;
+	/** System property holding the subsystem log levels, as "name=LEVEL,...". */
+	private static final String LOG_LEVELS_PROPERTY = "invaders.logLevels";
+	/** System property holding the log overflow policy, "drop" or "block". */
+	private static final String LOG_POLICY_PROPERTY = "invaders.logPolicy";
 
 
+	/**
+	 * Starts recording the input of a level, if a recording directory is
+	 * set.
+	 *
+	 * @param screen
+	 *            Screen of the level, not started yet.
+	 * @param seed
+	 *            Seed of the level.
+	 * @param gameState
+	 *            State of the game when the level starts.
+	 * @param bonusLife
+	 *            If the level starts with a bonus life.
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @return Recorder fed to the screen, null when not recording.
+	 */
+	private static InputRecorder startRecording(final Screen screen,
+			final long seed, final GameState gameState,
+			final boolean bonusLife, final int width, final int height) {
+		if (System.getProperty(RECORD_DIR_PROPERTY) == null)
+			return null;
+		InputRecorder recorder = new InputRecorder(getInputManager(),
+				InputRecording.start(seed, gameState.getLevel(), gameState,
+						bonusLife, width, height));
+		screen.setInputSource(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Stores the outcome of a recorded level and writes the recording.
+	 *
+	 * @param recorder
+	 *            Recorder of the level.
+	 * @param result
+	 *            State of the game when the level ended.
+	 */
+	private static void finishRecording(final InputRecorder recorder,
+			final GameState result) {
+		InputRecording recording = recorder.getRecording();
+		recording.setOutcome(result.getScore(), result.getLivesRemaining(),
+				result.getLivesRemainingP2());
+		Path file = Paths.get(System.getProperty(RECORD_DIR_PROPERTY),
+				"level" + recording.getLevel() + "-"
+						+ Long.toHexString(recording.getSeed()) + ".inrec");
+		try {
+			Files.createDirectories(file.getParent());
+			recording.write(file);
+			LOGGER.info("Recorded " + recording.getTickCount()
+					+ " ticks to " + file + ".");
+		} catch (IOException e) {
+			LOGGER.warning("Could not write the recording " + file + ": "
+					+ e.getMessage());
+		}
+	}
+
 	/**
 	 * Test implementation.
 	 * 
@@ -73,8 +150,12 @@ public final class Core {
 			consoleHandler = new ConsoleHandler();
 			consoleHandler.setFormatter(new MinimalFormatter());
 
-			LOGGER.addHandler(fileHandler);
-			LOGGER.addHandler(consoleHandler);
+			AsyncLogHandler.OverflowPolicy policy = AsyncLogHandler.OverflowPolicy
+					.valueOf(System.getProperty(LOG_POLICY_PROPERTY, "drop")
+							.toUpperCase(java.util.Locale.ROOT));
+			asyncHandler = new AsyncLogHandler(LOG_BUFFER_CAPACITY, policy,
+					fileHandler, consoleHandler);
+			LOGGER.addHandler(asyncHandler);
 			LOGGER.setLevel(Level.ALL);
 
 		} catch (Exception e) {
@@ -82,6 +163,20 @@ public final class Core {
 			e.printStackTrace();
 		}
 
+		// Closing the window exits without reaching the end of main.
+		Runtime.getRuntime().addShutdownHook(new Thread(
+				AchievementManager::flushInstance, "Achievement flush"));
+		Runtime.getRuntime().addShutdownHook(new Thread(
+				SoundManager::shutdown, "Sound shutdown"));
+
+		GameClock.setCurrent(GameClock.stepped());
+		RandomService.setCurrent(RandomService.fromSystemProperties());
+		LOGGER.info("Random seed of the session: "
+				+ RandomService.current().getSeed());
+
+		// Effects load in the background while the title screen shows.
+		SoundManager.preloadAll();
+
 		frame = new Frame(WIDTH, HEIGHT);
 		DrawManager.getInstance().setFrame(frame);
 		int width = frame.getWidth();
@@ -128,6 +223,12 @@ public final class Core {
 						SoundManager.stopAll();
 						SoundManager.playLoop("sfx/level" + gameState.getLevel() + ".wav");
 
+                        // Every level gets its own seed, so it can be replayed alone.
+                        RandomService sessionRandom = RandomService.current();
+                        long levelSeed = sessionRandom
+                                .get(RandomService.Stream.LEVELS).nextLong();
+                        RandomService.setCurrent(new RandomService(levelSeed));
+
                         // Start a new level
                         currentScreen = new GameScreen(
                                 gameState,
@@ -138,12 +239,17 @@ public final class Core {
                                 height,
                                 FPS
                         );
+                        InputRecorder recorder = startRecording(currentScreen,
+                                levelSeed, gameState, bonusLife, width, height);
 
                         LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                                 + " game screen at " + FPS + " fps.");
                         frame.setScreen(currentScreen);
                         LOGGER.info("Closing game screen.");
+                        RandomService.setCurrent(sessionRandom);
                         gameState = ((GameScreen) currentScreen).getGameState();
+                        if (recorder != null)
+                            finishRecording(recorder, gameState);
                         if (gameState.getLivesRemaining() > 0 || gameState.getLivesRemainingP2() > 0) {
 							SoundManager.stopAll();
 							SoundManager.play("sfx/levelup.wav");
@@ -219,8 +325,9 @@ public final class Core {
 
         } while (returnCode != 0);
 
-        fileHandler.flush();
-        fileHandler.close();
+        AchievementManager.flushInstance();
+        if (asyncHandler != null)
+            asyncHandler.close();
         System.exit(0);
 	}
 
@@ -240,6 +347,85 @@ public final class Core {
 		return LOGGER;
 	}
 
+	/**
+	 * Controls access to the logger of a subsystem. Its records go to the
+	 * application logger handlers, and its level can be set on the command
+	 * line with the {@value #LOG_LEVELS_PROPERTY} property, for example
+	 * "formation=FINE,items=WARNING". Subsystems not configured there
+	 * inherit the level of the application logger.
+	 *
+	 * @param subsystem
+	 *            Name of the subsystem.
+	 * @return Subsystem logger.
+	 */
+	public static Logger getLogger(final String subsystem) {
+		return SUBSYSTEM_LOGGERS.computeIfAbsent(subsystem,
+				Core::createSubsystemLogger);
+	}
+
+	/**
+	 * Creates the logger of a subsystem, with its configured level if any.
+	 *
+	 * @param subsystem
+	 *            Name of the subsystem.
+	 * @return New subsystem logger.
+	 */
+	private static Logger createSubsystemLogger(final String subsystem) {
+		Logger logger = Logger.getLogger(LOGGER.getName() + "." + subsystem);
+		Level level = null;
+		String levels = System.getProperty(LOG_LEVELS_PROPERTY, "");
+		for (String entry : levels.split(",")) {
+			int separator = entry.indexOf('=');
+			if (separator > 0 && entry.substring(0, separator).trim()
+					.equals(subsystem)) {
+				try {
+					level = Level.parse(entry.substring(separator + 1).trim()
+							.toUpperCase(java.util.Locale.ROOT));
+				} catch (IllegalArgumentException e) {
+					LOGGER.warning("Unknown log level in " + entry);
+				}
+			}
+		}
+		logger.setLevel(level);
+		return logger;
+	}
+
+	/**
+	 * Getter for the simulation tick rate, shared by every screen.
+	 *
+	 * @return Updates per second.
+	 */
+	public static int getTickRate() {
+		return TICK_RATE;
+	}
+
+	/**
+	 * Getter for the width of the game area when no frame insets apply.
+	 *
+	 * @return Screen width.
+	 */
+	public static int getScreenWidth() {
+		return WIDTH;
+	}
+
+	/**
+	 * Getter for the height of the game area when no frame insets apply.
+	 *
+	 * @return Screen height.
+	 */
+	public static int getScreenHeight() {
+		return HEIGHT;
+	}
+
+	/**
+	 * Getter for the maximum number of lives.
+	 *
+	 * @return Max lives.
+	 */
+	public static int getMaxLives() {
+		return MAX_LIVES;
+	}
+
 	/**
 	 * Controls access to the drawing manager.
 	 * 
@@ -5,6 +5,9 @@ import java.awt.Font;
 import java.awt.FontFormatException;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.LinkedHashMap;
@@ -12,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
+import entity.BulletStore;
 import entity.Entity;
 import entity.FinalBoss;
 import entity.Ship;
@@ -43,8 +47,34 @@ public final class DrawManager {
 	private static Graphics graphics;
 	/** Buffer Graphics. */
 	private static Graphics backBufferGraphics;
-	/** Buffer image. */
+	/** Buffer image, used when page flipping is unavailable. */
 	private static BufferedImage backBuffer;
+	/** Graphics of the software buffer image, kept between frames. */
+	private static Graphics softwareBufferGraphics;
+	/** Frame insets, offset of the drawable area. */
+	private static Insets frameInsets;
+	/** If frames are drawn through the frame's page-flipping strategy. */
+	private static boolean pageFlipping;
+	/** Consecutive frames whose accelerated buffer contents were lost. */
+	private static int lostFrames;
+	/** Lost frames in a row before falling back to the software buffer. */
+	private static final int MAX_LOST_FRAMES = 10;
+	/** Translucent background of the pop-up messages. */
+	private static final Color POPUP_BACKGROUND = new Color(0, 0, 0, 200);
+	/** Text color of health gain pop-ups. */
+	private static final Color HEALTH_GAIN_COLOR = new Color(50, 255, 50);
+	/** Text color of health loss pop-ups. */
+	private static final Color HEALTH_LOSS_COLOR = new Color(255, 50, 50);
+	/** Gray levels used for the twinkling stars. */
+	private static final Color[] STAR_COLORS = new Color[256];
+	static {
+		for (int i = 0; i < STAR_COLORS.length; i++)
+			STAR_COLORS[i] = new Color(i, i, i);
+	}
+	/** Ship drawn as the life counter of the first player. */
+	private static Ship livesShipP1;
+	/** Ship drawn as the life counter of the second player. */
+	private static Ship livesShipP2;
 	/** Normal sized font. */
 	private static Font fontRegular;
 	/** Normal sized font properties. */
@@ -60,6 +90,10 @@ public final class DrawManager {
 
 	/** Sprite types mapped to their images. */
 	private static Map<SpriteType, boolean[][]> spriteMap;
+	/** Maximum number of rasterized sprites kept in memory. */
+	private static final int SPRITE_CACHE_CAPACITY = 128;
+	/** Rasterized sprites, one per sprite type and color. */
+	private static SpriteCache spriteCache;
 
 	/** Sprite types. */
 	public static enum SpriteType {
@@ -78,36 +112,9 @@ public final class DrawManager {
 		logger.info("Started loading resources.");
 
 		try {
-			spriteMap = new LinkedHashMap<SpriteType, boolean[][]>();
-
-			spriteMap.put(SpriteType.Ship, new boolean[13][8]);
-			spriteMap.put(SpriteType.ShipDestroyed, new boolean[13][8]);
-			spriteMap.put(SpriteType.Bullet, new boolean[3][5]);
-			spriteMap.put(SpriteType.EnemyBullet, new boolean[3][5]);
-			spriteMap.put(SpriteType.EnemyShipA1, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipA2, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipB1, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipB2, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipC1, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipC2, new boolean[12][8]);
-			spriteMap.put(SpriteType.EnemyShipSpecial, new boolean[16][7]);
-			spriteMap.put(SpriteType.Explosion, new boolean[13][7]);
-			spriteMap.put(SpriteType.SoundOn, new boolean[15][15]);
-			spriteMap.put(SpriteType.SoundOff, new boolean[15][15]);
-			spriteMap.put(SpriteType.Item_Explode, new boolean[5][5]);
-			spriteMap.put(SpriteType.Item_Slow, new boolean[5][5]);
-			spriteMap.put(SpriteType.Item_Stop, new boolean[5][5]);
-			spriteMap.put(SpriteType.Item_Push, new boolean[5][5]);
-			spriteMap.put(SpriteType.Item_Shield, new boolean[5][5]);
-			spriteMap.put(SpriteType.Item_Heal, new boolean[5][5]);
-			spriteMap.put(SpriteType.FinalBoss1, new boolean[50][40]);
-			spriteMap.put(SpriteType.FinalBoss2, new boolean[50][40]);
-			spriteMap.put(SpriteType.FinalBossBullet,new boolean[3][5]);
-			spriteMap.put(SpriteType.FinalBossDeath, new boolean[50][40]);
-			spriteMap.put(SpriteType.OmegaBoss1, new boolean[32][14]);
-			spriteMap.put(SpriteType.OmegaBoss2, new boolean[32][14]);
-			spriteMap.put(SpriteType.OmegaBossDeath, new boolean[16][16]);
+			spriteMap = createSpriteMap();
 			fileManager.loadSprite(spriteMap);
+			spriteCache = new SpriteCache(spriteMap, SPRITE_CACHE_CAPACITY);
 			logger.info("Finished loading the sprites.");
 
 			fontRegular = fileManager.loadFont(14f);
@@ -122,6 +129,45 @@ public final class DrawManager {
 		}
 	}
 
+	/**
+	 * Creates the empty matrix of every sprite, in the order of the graphics
+	 * file, ready for {@link FileManager#loadSprite(Map)}.
+	 *
+	 * @return Sprite matrices by sprite type.
+	 */
+	public static Map<SpriteType, boolean[][]> createSpriteMap() {
+		Map<SpriteType, boolean[][]> sprites =
+				new LinkedHashMap<SpriteType, boolean[][]>();
+		sprites.put(SpriteType.Ship, new boolean[13][8]);
+		sprites.put(SpriteType.ShipDestroyed, new boolean[13][8]);
+		sprites.put(SpriteType.Bullet, new boolean[3][5]);
+		sprites.put(SpriteType.EnemyBullet, new boolean[3][5]);
+		sprites.put(SpriteType.EnemyShipA1, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipA2, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipB1, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipB2, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipC1, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipC2, new boolean[12][8]);
+		sprites.put(SpriteType.EnemyShipSpecial, new boolean[16][7]);
+		sprites.put(SpriteType.Explosion, new boolean[13][7]);
+		sprites.put(SpriteType.SoundOn, new boolean[15][15]);
+		sprites.put(SpriteType.SoundOff, new boolean[15][15]);
+		sprites.put(SpriteType.Item_Explode, new boolean[5][5]);
+		sprites.put(SpriteType.Item_Slow, new boolean[5][5]);
+		sprites.put(SpriteType.Item_Stop, new boolean[5][5]);
+		sprites.put(SpriteType.Item_Push, new boolean[5][5]);
+		sprites.put(SpriteType.Item_Shield, new boolean[5][5]);
+		sprites.put(SpriteType.Item_Heal, new boolean[5][5]);
+		sprites.put(SpriteType.FinalBoss1, new boolean[50][40]);
+		sprites.put(SpriteType.FinalBoss2, new boolean[50][40]);
+		sprites.put(SpriteType.FinalBossBullet,new boolean[3][5]);
+		sprites.put(SpriteType.FinalBossDeath, new boolean[50][40]);
+		sprites.put(SpriteType.OmegaBoss1, new boolean[32][14]);
+		sprites.put(SpriteType.OmegaBoss2, new boolean[32][14]);
+		sprites.put(SpriteType.OmegaBossDeath, new boolean[16][16]);
+		return sprites;
+	}
+
 	/**
 	 * Returns shared instance of DrawManager.
 	 */
@@ -136,46 +182,116 @@ public final class DrawManager {
 	 */
 	public void setFrame(final Frame currentFrame) {
 		frame = currentFrame;
+		frameInsets = frame.getInsets();
+		pageFlipping = frame.getRenderStrategy() != null;
+		lostFrames = 0;
+		logger.info(pageFlipping ? "Drawing with page flipping."
+				: "Drawing with a software back buffer.");
 	}
 
 	/**
 	 * First part of the drawing process.
 	 */
 	public void initDrawing(final Screen screen) {
-		backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
-				BufferedImage.TYPE_INT_RGB);
-
-		graphics = frame.getGraphics();
-		backBufferGraphics = backBuffer.getGraphics();
+		if (pageFlipping) {
+			backBufferGraphics = frame.getRenderStrategy().getDrawGraphics();
+			backBufferGraphics.translate(frameInsets.left, frameInsets.top);
+		} else {
+			ensureSoftwareBuffer(screen.getWidth(), screen.getHeight());
+			backBufferGraphics = softwareBufferGraphics;
+		}
 
 		backBufferGraphics.setColor(Color.BLACK);
 		backBufferGraphics.fillRect(0, 0, screen.getWidth(), screen.getHeight());
 
-		fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
-		fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
-		fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
+		if (fontRegularMetrics == null) {
+			fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
+			fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
+			fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
+		}
 	}
 
 	/**
 	 * Draws the completed drawing on screen.
 	 */
 	public void completeDrawing(final Screen screen) {
-		graphics.drawImage(backBuffer, frame.getInsets().left,
-				frame.getInsets().top, frame);
+		if (pageFlipping) {
+			BufferStrategy strategy = frame.getRenderStrategy();
+			backBufferGraphics.dispose();
+			if (strategy.contentsRestored() || strategy.contentsLost()) {
+				// Contents are undefined, skip this frame and redraw the next.
+				if (++lostFrames >= MAX_LOST_FRAMES) {
+					pageFlipping = false;
+					logger.warning("Accelerated buffer lost " + lostFrames
+							+ " frames in a row, switching to a software"
+							+ " back buffer.");
+				}
+			} else {
+				strategy.show();
+				lostFrames = 0;
+			}
+			Toolkit.getDefaultToolkit().sync();
+		} else {
+			if (graphics == null)
+				graphics = frame.getGraphics();
+			graphics.drawImage(backBuffer, frameInsets.left,
+					frameInsets.top, frame);
+		}
+	}
+
+	/**
+	 * Makes sure the software back buffer exists with the given size. The
+	 * image is only reallocated when the screen size changes.
+	 *
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 */
+	private static void ensureSoftwareBuffer(final int width, final int height) {
+		if (backBuffer != null && backBuffer.getWidth() == width
+				&& backBuffer.getHeight() == height)
+			return;
+		if (softwareBufferGraphics != null)
+			softwareBufferGraphics.dispose();
+		backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		softwareBufferGraphics = backBuffer.getGraphics();
 	}
 
 	/**
 	 * Draws an entity.
 	 */
 	public void drawEntity(final Entity entity, final int positionX, final int positionY) {
-		boolean[][] image = spriteMap.get(entity.getSpriteType());
-		backBufferGraphics.setColor(entity.getColor());
-		for (int i = 0; i < image.length; i++)
-			for (int j = 0; j < image[i].length; j++)
-				if (image[i][j])
-					backBufferGraphics.drawRect(positionX + i * 2, positionY + j * 2, 1, 1);
+		BufferedImage image = spriteCache.get(entity.getSpriteType(), entity.getColor());
+		if (image != null)
+			backBufferGraphics.drawImage(image, positionX, positionY, null);
+	}
 
+	/**
+	 * Draws every bullet of a store, player bullets upwards and enemy bullets
+	 * downwards.
+	 *
+	 * @param bullets
+	 *            Bullets to draw.
+	 */
+	public void drawBullets(final BulletStore bullets) {
+		BufferedImage playerBullet = spriteCache.get(SpriteType.Bullet, Color.WHITE);
+		BufferedImage enemyBullet = spriteCache.get(SpriteType.EnemyBullet, Color.WHITE);
+		for (int i = 0; i < bullets.size(); i++) {
+			BufferedImage image = bullets.getSpeed(i) < 0 ? playerBullet : enemyBullet;
+			if (image != null)
+				backBufferGraphics.drawImage(image, bullets.getPositionX(i),
+						bullets.getPositionY(i), null);
+		}
+	}
 
+	/**
+	 * Getter for the rasterized sprite cache.
+	 *
+	 * @return Sprite cache, with its hit and miss counters.
+	 */
+	public SpriteCache getSpriteCache() {
+		return spriteCache;
 	}
 
 	/**
@@ -231,9 +347,10 @@ public final class DrawManager {
 		backBufferGraphics.setColor(Color.WHITE);
 		// backBufferGraphics.drawString("P1:" + Integer.toString(lives), 10, 25);
 		backBufferGraphics.drawString("P1:", 15, 25);
-		Ship dummyShip = new Ship(0, 0,Color.green);
+		if (livesShipP1 == null)
+			livesShipP1 = new Ship(0, 0, Color.green);
 		for (int i = 0; i < lives; i++)
-			drawEntity(dummyShip, 40 + 35 * i, 10);
+			drawEntity(livesShipP1, 40 + 35 * i, 10);
 	}
 
 	public void drawLivesP2(final Screen screen, final int lives) {
@@ -242,9 +359,10 @@ public final class DrawManager {
 		// backBufferGraphics.drawString("P2:" + Integer.toString(lives), 10, 40);
 		backBufferGraphics.drawString("P2:", 15, 40);
 
-		Ship dummyShip = new Ship(0, 0,Color.pink);
+		if (livesShipP2 == null)
+			livesShipP2 = new Ship(0, 0, Color.pink);
 		for (int i = 0; i < lives; i++) {
-			drawEntity(dummyShip, 40 + 35 * i, 30);
+			drawEntity(livesShipP2, 40 + 35 * i, 30);
 		}
 	}
 
@@ -278,7 +396,7 @@ public final class DrawManager {
         int popupHeight = 50;
         int x = screen.getWidth() / 2 - popupWidth / 2;
         int y = 80;
-        backBufferGraphics.setColor(new Color(0, 0, 0, 200));
+        backBufferGraphics.setColor(POPUP_BACKGROUND);
         backBufferGraphics.fillRoundRect(x, y, popupWidth, popupHeight, 15, 15);
         backBufferGraphics.setColor(Color.YELLOW);
         backBufferGraphics.drawRoundRect(x, y, popupWidth, popupHeight, 15, 15);
@@ -295,18 +413,47 @@ public final class DrawManager {
         int popupHeight = 40;
         int x = screen.getWidth() / 2 - popupWidth / 2;
         int y = 100;
-        backBufferGraphics.setColor(new Color(0, 0, 0, 200));
+        backBufferGraphics.setColor(POPUP_BACKGROUND);
         backBufferGraphics.fillRoundRect(x, y, popupWidth, popupHeight, 15, 15);
         Color textColor;
         if (text.startsWith("+")) {
-            textColor = new Color(50, 255, 50);
+            textColor = HEALTH_GAIN_COLOR;
         } else {
-            textColor = new Color(255, 50, 50);
+            textColor = HEALTH_LOSS_COLOR;
         }
         backBufferGraphics.setColor(textColor);
         drawCenteredBigString(screen, text, y + popupHeight / 2 + 5);
     }
 
+	/**
+	 * Draws the performance overlay in the top left corner, over the HUD.
+	 *
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param lines
+	 *            Text of the overlay, one entry per line.
+	 */
+	public void drawPerformanceOverlay(final Screen screen, final String[] lines) {
+		if (lines.length == 0)
+			return;
+		backBufferGraphics.setFont(fontSmall);
+		final int lineSpacing = fontSmallMetrics.getHeight() + 1;
+		int width = 0;
+		for (String line : lines)
+			width = Math.max(width, fontSmallMetrics.stringWidth(line));
+		final int x = 5;
+		final int y = 5;
+		backBufferGraphics.setColor(POPUP_BACKGROUND);
+		backBufferGraphics.fillRect(x, y, width + 10,
+				lineSpacing * lines.length + 6);
+		backBufferGraphics.setColor(Color.GREEN);
+		int yPosition = y + 3 + fontSmallMetrics.getAscent();
+		for (String line : lines) {
+			backBufferGraphics.drawString(line, x + 5, yPosition);
+			yPosition += lineSpacing;
+		}
+	}
+
 	/**
 	 * Draws a thick line from side to side of the screen.
 	 */
@@ -328,6 +475,29 @@ public final class DrawManager {
 		drawCenteredBigString(screen, titleString, screen.getHeight() / 3);
 	}
 
+	/**
+	 * Draws the progress of the sound loading, under the title.
+	 *
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param loaded
+	 *            Sounds loaded so far.
+	 * @param total
+	 *            Sounds to load.
+	 */
+	public void drawSoundLoading(final Screen screen, final int loaded,
+			final int total) {
+		String loadingString = "Loading sounds " + loaded + "/" + total;
+		int barWidth = screen.getWidth() / 3;
+		int barX = screen.getWidth() / 2 - barWidth / 2;
+		int barY = screen.getHeight() / 2 + 30;
+		backBufferGraphics.setColor(Color.GRAY);
+		drawCenteredRegularString(screen, loadingString, screen.getHeight() / 2 + 20);
+		backBufferGraphics.drawRect(barX, barY, barWidth, 4);
+		backBufferGraphics.setColor(Color.GREEN);
+		backBufferGraphics.fillRect(barX, barY, barWidth * loaded / total, 4);
+	}
+
 	/**
 	 * Draws main menu.
 	 */
@@ -339,7 +509,7 @@ public final class DrawManager {
         String exitString = "Exit";
 
 		// Pulsing color for selected item
-		float pulse = (float) ((Math.sin(System.currentTimeMillis() / 200.0) + 1.0) / 2.0);
+		float pulse = (float) ((Math.sin(GameClock.currentTimeMillis() / 200.0) + 1.0) / 2.0);
 		Color pulseColor = new Color(0, 0.5f + pulse * 0.5f, 0);
 
         if (option == 2) backBufferGraphics.setColor(pulseColor);
@@ -660,7 +830,7 @@ public final class DrawManager {
 		int x = screen.getWidth() / 2 - popupWidth / 2;
 		int y = 70;
 
-		backBufferGraphics.setColor(new Color(0, 0, 0, 200));
+		backBufferGraphics.setColor(POPUP_BACKGROUND);
 		backBufferGraphics.fillRoundRect(x, y, popupWidth, popupHeight, 15, 15);
 
 		if (message.contains("Purchased")) {
@@ -707,7 +877,7 @@ public final class DrawManager {
 			float b = star.brightness;
 			if (b < 0) b = 0;
 			if (b > 1) b = 1;
-			backBufferGraphics.setColor(new Color(b, b, b));
+			backBufferGraphics.setColor(STAR_COLORS[Math.round(b * 255)]);
 			backBufferGraphics.drawRect(screenX, screenY, 1, 1);
 		}
 	}
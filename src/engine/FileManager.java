@@ -15,6 +15,11 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -23,6 +28,8 @@ import java.util.HashMap;
 import java.util.logging.Logger;
 
 import engine.DrawManager.SpriteType;
+import engine.telemetry.FileSaveEvent;
+import engine.telemetry.Telemetry;
 
 /**
  * Manages files used in the application.
@@ -231,6 +238,9 @@ public final class FileManager {
 			throws IOException {
 		OutputStream outputStream = null;
 		BufferedWriter bufferedWriter = null;
+		FileSaveEvent event = Telemetry.beginFileSave();
+		int savedCount = 0;
+		boolean saved = false;
 
 		try {
 			String jarPath = FileManager.class.getProtectionDomain()
@@ -253,7 +263,6 @@ public final class FileManager {
 			logger.info("Saving user high scores.");
 
 			// Saves 7 or less scores.
-			int savedCount = 0;
 			for (Score score : highScores) {
 				if (savedCount >= MAX_SCORES)
 					break;
@@ -263,10 +272,12 @@ public final class FileManager {
 				bufferedWriter.newLine();
 				savedCount++;
 			}
+			saved = true;
 
 		} finally {
 			if (bufferedWriter != null)
 				bufferedWriter.close();
+			Telemetry.commitFileSave(event, "scores", savedCount, saved);
 		}
 	}
 	/**
@@ -298,7 +309,9 @@ public final class FileManager {
 		return unlockedStatus;
 	}
 	/**
-	 * Saves current achievements and their unlock status to disk.
+	 * Saves current achievements and their unlock status to disk. The file is
+	 * written under a temporary name and then renamed over the old one, so a
+	 * crash while saving never leaves a truncated file.
 	 *
 	 * @param achievements
 	 *            List of achievements to save.
@@ -306,15 +319,29 @@ public final class FileManager {
 	 *             In case of saving problems.
 	 */
 	public void saveAchievements(final List<Achievement> achievements) throws IOException {
-		String path = "achievements.dat";
-		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), "UTF-8"))) {
-			logger.info("Saving achievements to file");
+		Path path = Paths.get("achievements.dat");
+		Path temporary = Paths.get("achievements.dat.tmp");
+		FileSaveEvent event = Telemetry.beginFileSave();
+		boolean saved = false;
+		try {
+			try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporary.toFile()), "UTF-8"))) {
+				logger.info("Saving achievements to file");
 
-			for (Achievement achievement : achievements) {
+				for (Achievement achievement : achievements) {
 
-				writer.write(achievement.getName() + ":" + achievement.isUnlocked());
-				writer.newLine();
+					writer.write(achievement.getName() + ":" + achievement.isUnlocked());
+					writer.newLine();
+				}
 			}
+			try {
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			saved = true;
+		} finally {
+			Telemetry.commitFileSave(event, path.toString(), achievements.size(), saved);
 		}
 	}
 
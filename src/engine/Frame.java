@@ -1,6 +1,7 @@
 package engine;
 
 import java.awt.Insets;
+import java.awt.image.BufferStrategy;
 
 import javax.swing.JFrame;
 
@@ -15,6 +16,9 @@ import screen.Screen;
 @SuppressWarnings("serial")
 public class Frame extends JFrame {
 
+	/** Number of buffers used for page flipping, front buffer included. */
+	private static final int BUFFER_COUNT = 2;
+
 	/** Frame width. */
 	private int width;
 	/** Frame height. */
@@ -36,7 +40,10 @@ public class Frame extends JFrame {
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 
 		setLocationRelativeTo(null);
+		// Drawing is done actively by the screens, not by Swing repaints.
+		setIgnoreRepaint(true);
 		setVisible(true);
+		createRenderStrategy();
 
 		Insets insets = getInsets();
 		this.width = width - insets.left - insets.right;
@@ -46,6 +53,29 @@ public class Frame extends JFrame {
 		addKeyListener(Core.getInputManager());
 	}
 
+	/**
+	 * Creates the persistent page-flipping strategy the screens draw on.
+	 * Leaves the frame without a strategy if the platform can't provide one,
+	 * in which case drawing falls back to a software back buffer.
+	 */
+	private void createRenderStrategy() {
+		try {
+			createBufferStrategy(BUFFER_COUNT);
+		} catch (IllegalStateException | IllegalArgumentException e) {
+			Core.getLogger().warning("Page flipping unavailable, using a"
+					+ " software back buffer: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Getter for the frame's page-flipping strategy.
+	 *
+	 * @return Buffer strategy, or null if page flipping is unavailable.
+	 */
+	public final BufferStrategy getRenderStrategy() {
+		return getBufferStrategy();
+	}
+
 	/**
 	 * Sets current screen.
 	 * 
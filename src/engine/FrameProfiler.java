@@ -0,0 +1,254 @@
+package engine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Times the stages of the game screen update and drawing, keeping one
+ * {@link LatencyHistogram} per stage.
+ *
+ * Stages are timed as laps: each lap reads the time once and charges the
+ * time since the previous lap to a stage, so timing the whole pipeline costs
+ * one {@link System#nanoTime()} call per stage. Memory is fixed when the
+ * profiler is created. At the end of a level, the game screen writes a
+ * summary with the p50, p95, p99 and largest time of every stage.
+ * <p>
+ * The duration of the last lap of every phase is also kept, for the flight
+ * recorder events, which can ask for laps to be timed even with the
+ * histograms turned off.
+ * <p>
+ * Profiling is on unless the {@value #ENABLED_PROPERTY} property is false.
+ * Summaries go to the directory named by {@value #DIRECTORY_PROPERTY},
+ * "profiles" by default.
+ */
+public final class FrameProfiler {
+
+	/** System property turning the profiler off when false. */
+	public static final String ENABLED_PROPERTY = "invaders.profile";
+	/** System property holding the directory of the summaries. */
+	public static final String DIRECTORY_PROPERTY = "invaders.profileDir";
+
+	/** Default directory of the summaries. */
+	private static final String DEFAULT_DIRECTORY = "profiles";
+	/** Nanoseconds in a microsecond. */
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	/** Timed stages of the game screen. */
+	public enum Phase {
+		/** Reading the keys and moving and firing the ships. */
+		INPUT,
+		/** Enemy formation update and shooting. */
+		FORMATION,
+		/** Boss reveal, movement and attacks. */
+		BOSS,
+		/** Ship and special enemy updates. */
+		SHIPS,
+		/** Moving and recycling the dropped items. */
+		CLEAN_ITEMS,
+		/** Filling the collision broadphase. */
+		COLLISION_GRID,
+		/** Bullets against ships and enemies. */
+		BULLET_COLLISIONS,
+		/** Ships against enemies. */
+		SHIP_COLLISIONS,
+		/** Ships against dropped items. */
+		ITEM_COLLISIONS,
+		/** Moving and culling the bullets. */
+		CLEAN_BULLETS,
+		/** Whole update, every stage above included. */
+		UPDATE,
+		/** Drawing to the back buffer. */
+		DRAW,
+		/** Showing the back buffer. */
+		COMPLETE_DRAWING
+	}
+
+	/** Phases, to avoid copying the values array. */
+	private static final Phase[] PHASES = Phase.values();
+
+	/** If stages are timed. */
+	private final boolean enabled;
+	/** One histogram per phase, indexed by phase ordinal. */
+	private final LatencyHistogram[] histograms;
+	/** Duration of the last lap of every phase, indexed by phase ordinal. */
+	private final long[] lastLaps;
+	/** If the current series of laps is timed. */
+	private boolean timing;
+
+	/**
+	 * Constructor, configured from the system properties.
+	 */
+	public FrameProfiler() {
+		this(isEnabledByProperties());
+	}
+
+	/**
+	 * Constructor, creates the histograms.
+	 *
+	 * @param enabled
+	 *            If stages are timed.
+	 */
+	public FrameProfiler(final boolean enabled) {
+		this.enabled = enabled;
+		this.histograms = new LatencyHistogram[PHASES.length];
+		this.lastLaps = new long[PHASES.length];
+		for (int i = 0; i < PHASES.length; i++)
+			this.histograms[i] = new LatencyHistogram();
+	}
+
+	/**
+	 * Checks the system properties.
+	 *
+	 * @return False if profiling is turned off.
+	 */
+	private static boolean isEnabledByProperties() {
+		return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+	}
+
+	/**
+	 * Checks if stages are timed.
+	 *
+	 * @return True when enabled.
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Reads the time a series of laps starts at.
+	 *
+	 * @return Current time in nanoseconds, zero when disabled.
+	 */
+	public long start() {
+		return start(false);
+	}
+
+	/**
+	 * Reads the time a series of laps starts at, timing the laps even when
+	 * disabled if asked to. The last laps are cleared, so a phase skipped in
+	 * this series reads as zero even if the previous one was never taken.
+	 *
+	 * @param recorded
+	 *            If the laps are needed for a recorded event.
+	 * @return Current time in nanoseconds, zero when not timed.
+	 */
+	public long start(final boolean recorded) {
+		Arrays.fill(this.lastLaps, 0L);
+		this.timing = this.enabled || recorded;
+		return this.timing ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Charges the time since the previous lap to a phase.
+	 *
+	 * @param phase
+	 *            Phase that just ended.
+	 * @param since
+	 *            Time of the previous lap.
+	 * @return Current time, to pass to the next lap.
+	 */
+	public long lap(final Phase phase, final long since) {
+		if (!this.timing)
+			return 0;
+		long now = System.nanoTime();
+		this.lastLaps[phase.ordinal()] = now - since;
+		if (this.enabled)
+			this.histograms[phase.ordinal()].record(now - since);
+		return now;
+	}
+
+	/**
+	 * Reads and clears the duration of the last lap of a phase.
+	 *
+	 * @param phase
+	 *            Phase to read.
+	 * @return Duration in nanoseconds, zero if not timed since last read.
+	 */
+	public long takeLastLap(final Phase phase) {
+		long duration = this.lastLaps[phase.ordinal()];
+		this.lastLaps[phase.ordinal()] = 0;
+		return duration;
+	}
+
+	/**
+	 * Getter for the histogram of a phase.
+	 *
+	 * @param phase
+	 *            Phase to read.
+	 * @return Recorded times, in nanoseconds.
+	 */
+	public LatencyHistogram getHistogram(final Phase phase) {
+		return this.histograms[phase.ordinal()];
+	}
+
+	/**
+	 * Forgets every recorded time.
+	 */
+	public void reset() {
+		for (LatencyHistogram histogram : this.histograms)
+			histogram.reset();
+	}
+
+	/**
+	 * Writes the summary of every phase.
+	 *
+	 * @param out
+	 *            Writer to write to.
+	 * @param title
+	 *            First line of the summary.
+	 */
+	public void writeSummary(final PrintWriter out, final String title) {
+		out.println(title);
+		out.println(String.format(Locale.ROOT, "%-18s %8s %10s %10s %10s %10s %10s",
+				"phase", "count", "p50 us", "p95 us", "p99 us", "max us",
+				"total ms"));
+		for (Phase phase : PHASES) {
+			LatencyHistogram histogram = getHistogram(phase);
+			out.println(String.format(Locale.ROOT,
+					"%-18s %8d %10.1f %10.1f %10.1f %10.1f %10.1f",
+					phase.name().toLowerCase(Locale.ROOT), histogram.getCount(),
+					histogram.getPercentile(50) / NANOS_PER_MICRO,
+					histogram.getPercentile(95) / NANOS_PER_MICRO,
+					histogram.getPercentile(99) / NANOS_PER_MICRO,
+					histogram.getMax() / NANOS_PER_MICRO,
+					histogram.getTotal() / (NANOS_PER_MICRO * 1000.0)));
+		}
+	}
+
+	/**
+	 * Writes the summary of a level to a new file in the summary directory.
+	 * Does nothing when disabled.
+	 *
+	 * @param level
+	 *            Number of the level.
+	 * @param title
+	 *            First line of the summary.
+	 * @return Written file, null when disabled.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	public Path dumpLevel(final int level, final String title)
+			throws IOException {
+		if (!this.enabled)
+			return null;
+		Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY,
+				DEFAULT_DIRECTORY));
+		Files.createDirectories(directory);
+		String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT)
+				.format(new Date());
+		Path file = directory.resolve("level" + level + "-" + stamp + ".txt");
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file,
+				StandardCharsets.UTF_8))) {
+			writeSummary(out, title);
+		}
+		return file;
+	}
+}
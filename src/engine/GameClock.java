@@ -0,0 +1,177 @@
+package engine;
+
+/**
+ * Source of the game time read by cooldowns, timers and timed effects.
+ *
+ * The game uses a stepped clock, which only moves when the screen loop
+ * advances it by one tick before each update. Every read during a tick sees
+ * the same time, reading it is a field load, pausing the clock freezes every
+ * timer at once, and headless runs can play a level faster than real time
+ * while every cooldown still sees the durations it expects. Threads that
+ * never set a clock follow the system time. The clock in use is kept per
+ * thread, so simulations on different threads do not share time.
+ */
+public final class GameClock {
+
+	/** Nanoseconds in a millisecond. */
+	private static final long NANOS_PER_MILLI = 1000000L;
+	/**
+	 * Starting time of stepped clocks. Not zero, as cooldowns use a zero
+	 * timestamp to mean they were never started.
+	 */
+	private static final long STEPPED_START_NANOS = 1000L * NANOS_PER_MILLI;
+
+	/** Clock following the system time. */
+	private static final GameClock SYSTEM = new GameClock(false);
+	/** Clock used by the current thread. */
+	private static final ThreadLocal<GameClock> CURRENT =
+			ThreadLocal.withInitial(() -> SYSTEM);
+
+	/** If the clock only moves when advanced. */
+	private final boolean stepped;
+	/** Current time of a stepped clock. */
+	private long nanos;
+	/** Current time of a stepped clock, in milliseconds. */
+	private long millis;
+	/** If advancing a stepped clock is ignored. */
+	private boolean paused;
+
+	/**
+	 * Constructor, creates a clock.
+	 *
+	 * @param stepped
+	 *            If the clock only moves when advanced.
+	 */
+	private GameClock(final boolean stepped) {
+		this.stepped = stepped;
+		this.nanos = STEPPED_START_NANOS;
+		this.millis = STEPPED_START_NANOS / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Getter for the clock following the system time.
+	 *
+	 * @return System clock.
+	 */
+	public static GameClock system() {
+		return SYSTEM;
+	}
+
+	/**
+	 * Creates a clock that only moves when advanced.
+	 *
+	 * @return New stepped clock.
+	 */
+	public static GameClock stepped() {
+		return new GameClock(true);
+	}
+
+	/**
+	 * Getter for the clock used by the current thread.
+	 *
+	 * @return Current clock.
+	 */
+	public static GameClock current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Sets the clock used by the current thread.
+	 *
+	 * @param clock
+	 *            New clock, null to go back to the system clock.
+	 */
+	public static void setCurrent(final GameClock clock) {
+		if (clock == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(clock);
+	}
+
+	/**
+	 * Reads the time of the current clock.
+	 *
+	 * @return Current time in milliseconds.
+	 */
+	public static long currentTimeMillis() {
+		return current().millis();
+	}
+
+	/**
+	 * Reads the time of the current clock, with a higher precision. Only
+	 * meaningful to measure elapsed time.
+	 *
+	 * @return Current time in nanoseconds.
+	 */
+	public static long nanoTime() {
+		return current().nanos();
+	}
+
+	/**
+	 * Reads the time of this clock.
+	 *
+	 * @return Time in milliseconds.
+	 */
+	public long millis() {
+		if (this.stepped)
+			return this.millis;
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Reads the time of this clock, with a higher precision.
+	 *
+	 * @return Time in nanoseconds.
+	 */
+	public long nanos() {
+		if (this.stepped)
+			return this.nanos;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Moves a stepped clock forward, unless it is paused.
+	 *
+	 * @param elapsedNanos
+	 *            Time to move forward, in nanoseconds.
+	 */
+	public void advance(final long elapsedNanos) {
+		if (!this.stepped)
+			throw new IllegalStateException("The system clock can't be advanced.");
+		if (this.paused)
+			return;
+		this.nanos += elapsedNanos;
+		this.millis = this.nanos / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Pauses or resumes a stepped clock. While paused, the clock ignores
+	 * advances, so cooldowns, timers and timed effects all stand still.
+	 *
+	 * @param paused
+	 *            True to pause the clock, false to resume it.
+	 */
+	public void setPaused(final boolean paused) {
+		if (!this.stepped)
+			throw new IllegalStateException("The system clock can't be paused.");
+		this.paused = paused;
+	}
+
+	/**
+	 * Checks if the clock is paused.
+	 *
+	 * @return True while a stepped clock ignores advances.
+	 */
+	public boolean isPaused() {
+		return this.paused;
+	}
+
+	/**
+	 * Checks if the clock only moves when advanced.
+	 *
+	 * @return True for stepped clocks.
+	 */
+	public boolean isStepped() {
+		return this.stepped;
+	}
+}
@@ -20,7 +20,7 @@ public class GameTimer {
      * Starts the timer.
      */
     public void start() {
-        this.startTime = System.nanoTime();
+        this.startTime = GameClock.nanoTime();
         this.running = true;
         this.stopTime = 0L;
     }
@@ -30,7 +30,7 @@ public class GameTimer {
      */
     public void stop() {
         if (this.running) {
-            this.stopTime = System.nanoTime();
+            this.stopTime = GameClock.nanoTime();
             this.running = false;
         }
     }
@@ -39,7 +39,7 @@ public class GameTimer {
      * @return Elapsed time in milliseconds.
      */
     public long getElapsedTime() {
-        final long endTime = this.running ? System.nanoTime() : this.stopTime;
+        final long endTime = this.running ? GameClock.nanoTime() : this.stopTime;
         return (endTime - this.startTime) / 1000000;
     }
 
@@ -0,0 +1,323 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.Level;
+
+import audio.SoundManager;
+import engine.level.LevelManager;
+import screen.GameScreen;
+
+/**
+ * Runs game levels without a display, sound or real time pacing.
+ *
+ * The level logic is the regular {@link GameScreen} update, fed by a
+ * programmatic {@link InputSource} and timed by a stepped {@link GameClock},
+ * so a whole level plays in milliseconds.
+ */
+public final class HeadlessGame {
+
+	/** Default limit of updates per level, ten minutes of game time. */
+	private static final long DEFAULT_MAX_TICKS = 10L * 60L * 60L;
+	/** Command line option playing a recording back. */
+	private static final String REPLAY_OPTION = "--replay=";
+	/** Command line option checking the allocations of the updates. */
+	private static final String ALLOCATION_CHECK_OPTION = "--allocation-check";
+	/** Games played by the allocation check when not given. */
+	private static final int DEFAULT_CHECK_GAMES = 15;
+	/** Updates of each warm-up game of the allocation check. */
+	private static final long CHECK_WARMUP_TICKS = 1500L;
+	/** Updates over budget tolerated per game by the allocation check. */
+	private static final int CHECK_TOLERANCE = 5;
+	/** Exit status of an allocation check that went over budget. */
+	private static final int ALLOCATION_CHECK_FAILED = 3;
+
+	/**
+	 * Constructor, not called.
+	 */
+	private HeadlessGame() {
+
+	}
+
+	/**
+	 * Prepares the process for headless runs: no display, no sound, no frame
+	 * profiles, no achievements, and only warnings logged.
+	 */
+	public static void configure() {
+		System.setProperty("java.awt.headless", "true");
+		SoundManager.setMuted(true);
+		AchievementManager.setEnabled(false);
+		System.setProperty(FrameProfiler.ENABLED_PROPERTY, "false");
+		Core.getLogger().setLevel(Level.WARNING);
+	}
+
+	/**
+	 * Plays a level on the current thread until it finishes or runs out of
+	 * updates.
+	 *
+	 * @param gameState
+	 *            State of the game when the level starts.
+	 * @param level
+	 *            Level to play.
+	 * @param input
+	 *            Source of the key states.
+	 * @param maxTicks
+	 *            Maximum number of updates.
+	 * @return Finished screen, to read the resulting state and tick count.
+	 */
+	public static GameScreen simulateLevel(final GameState gameState,
+			final engine.level.Level level, final InputSource input,
+			final long maxTicks) {
+		return simulateLevel(gameState, level, input, maxTicks,
+				RandomService.newSeed());
+	}
+
+	/**
+	 * Plays a level on the current thread until it finishes or runs out of
+	 * updates. The same seed and input always play the same game.
+	 *
+	 * @param gameState
+	 *            State of the game when the level starts.
+	 * @param level
+	 *            Level to play.
+	 * @param input
+	 *            Source of the key states.
+	 * @param maxTicks
+	 *            Maximum number of updates.
+	 * @param seed
+	 *            Seed of every random decision of the game.
+	 * @return Finished screen, to read the resulting state and tick count.
+	 */
+	public static GameScreen simulateLevel(final GameState gameState,
+			final engine.level.Level level, final InputSource input,
+			final long maxTicks, final long seed) {
+		return simulateLevel(gameState, level, false, Core.getScreenWidth(),
+				Core.getScreenHeight(), input, maxTicks, seed);
+	}
+
+	/**
+	 * Plays a recorded level again, with the recorded seed, starting state,
+	 * screen size and shop upgrades. The shop upgrades stay applied.
+	 *
+	 * @param recording
+	 *            Recording to play back.
+	 * @param level
+	 *            Level that was recorded.
+	 * @return Finished screen, to read the resulting state and tick count.
+	 */
+	public static GameScreen replay(final InputRecording recording,
+			final engine.level.Level level) {
+		recording.applyShopLevels();
+		return simulateLevel(recording.getStartState(), level,
+				recording.hasBonusLife(), recording.getWidth(),
+				recording.getHeight(), new InputPlayback(recording),
+				recording.getTickCount(), recording.getSeed());
+	}
+
+	/**
+	 * Plays a level on the current thread until it finishes or runs out of
+	 * updates. Achievements are not tracked, so a simulated game never
+	 * unlocks or saves them for the player.
+	 *
+	 * @param gameState
+	 *            State of the game when the level starts.
+	 * @param level
+	 *            Level to play.
+	 * @param bonusLife
+	 *            If the level starts with a bonus life.
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param input
+	 *            Source of the key states.
+	 * @param maxTicks
+	 *            Maximum number of updates.
+	 * @param seed
+	 *            Seed of every random decision of the game.
+	 * @return Finished screen.
+	 */
+	private static GameScreen simulateLevel(final GameState gameState,
+			final engine.level.Level level, final boolean bonusLife,
+			final int width, final int height, final InputSource input,
+			final long maxTicks, final long seed) {
+		GameClock previous = GameClock.current();
+		RandomService previousRandom = RandomService.current();
+		boolean achievementsEnabled = AchievementManager.isEnabled();
+		GameClock.setCurrent(GameClock.stepped());
+		RandomService.setCurrent(new RandomService(seed));
+		AchievementManager.setEnabled(false);
+		try {
+			GameScreen screen = new GameScreen(gameState, level, bonusLife,
+					Core.getMaxLives(), width, height, Core.getTickRate());
+			screen.setInputSource(input);
+			screen.runHeadless(maxTicks);
+			return screen;
+		} finally {
+			GameClock.setCurrent(previous);
+			RandomService.setCurrent(previousRandom);
+			AchievementManager.setEnabled(achievementsEnabled);
+		}
+	}
+
+	/**
+	 * Plays a level headless, holding the fire key, and prints the outcome.
+	 * With {@code --replay=<file>}, plays a recording back instead and checks
+	 * that it ends the way it was recorded. With
+	 * {@code --allocation-check[=<games>]}, plays games under a strict tick
+	 * allocation guard and exits with status 3 if the updates allocate.
+	 *
+	 * @param args
+	 *            Optional level number, maximum number of updates and
+	 *            seed, or the replay or allocation check option.
+	 * @throws IOException
+	 *             If the recording can't be read.
+	 */
+	public static void main(final String[] args) throws IOException {
+		configure();
+		if (args.length > 0 && args[0].startsWith(REPLAY_OPTION)) {
+			replayMain(Paths.get(args[0].substring(REPLAY_OPTION.length())));
+			return;
+		}
+		if (args.length > 0 && args[0].startsWith(ALLOCATION_CHECK_OPTION)) {
+			String games = args[0].substring(ALLOCATION_CHECK_OPTION.length());
+			allocationCheckMain(games.startsWith("=")
+					? Integer.parseInt(games.substring(1)) : DEFAULT_CHECK_GAMES);
+			return;
+		}
+		int levelNumber = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+		long maxTicks = args.length > 1 ? Long.parseLong(args[1])
+				: DEFAULT_MAX_TICKS;
+		long seed = args.length > 2 ? Long.parseLong(args[2])
+				: RandomService.newSeed();
+
+		engine.level.Level level = new LevelManager().getLevel(levelNumber);
+		if (level == null) {
+			System.err.println("Level " + levelNumber + " not found.");
+			System.exit(1);
+		}
+		ScriptedInput input = new ScriptedInput();
+		input.press(KeyEvent.VK_SPACE);
+
+		long start = System.nanoTime();
+		GameScreen screen = simulateLevel(new GameState(levelNumber, 0,
+				Core.getMaxLives(), Core.getMaxLives(), 0, 0, 0), level,
+				input, maxTicks, seed);
+		long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+
+		GameState result = screen.getGameState();
+		System.out.println("Level " + levelNumber + ": " + screen.getTickCount()
+				+ " ticks in " + elapsedMillis + " ms, score " + result.getScore()
+				+ ", lives " + result.getLivesRemaining() + "/"
+				+ result.getLivesRemainingP2() + ", ships destroyed "
+				+ result.getShipsDestroyed() + ", seed " + seed + ".");
+	}
+
+	/**
+	 * Plays a recording back and prints whether it reproduced.
+	 *
+	 * @param file
+	 *            Recording file.
+	 * @throws IOException
+	 *             If the recording can't be read.
+	 */
+	private static void replayMain(final Path file) throws IOException {
+		InputRecording recording = InputRecording.read(file);
+		engine.level.Level level = new LevelManager()
+				.getLevel(recording.getLevel());
+		if (level == null) {
+			System.err.println("Level " + recording.getLevel() + " not found.");
+			System.exit(1);
+		}
+		long start = System.nanoTime();
+		GameScreen screen = replay(recording, level);
+		long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+
+		GameState result = screen.getGameState();
+		boolean reproduced = recording.matchesOutcome(result);
+		System.out.println("Replay of level " + recording.getLevel() + ": "
+				+ screen.getTickCount() + "/" + recording.getTickCount()
+				+ " ticks in " + elapsedMillis + " ms, score "
+				+ result.getScore() + ", lives " + result.getLivesRemaining()
+				+ "/" + result.getLivesRemainingP2() + ", "
+				+ (reproduced ? "reproduced." : "DIVERGED."));
+		if (!reproduced)
+			System.exit(2);
+	}
+
+	/**
+	 * Plays games with a strict tick allocation guard, and exits with an
+	 * error status when a game goes over budget. Each level is first played
+	 * for a short while with the guard off, so one-time costs like class
+	 * loading and pool filling are not counted. The budget is 0 bytes and
+	 * {@value #CHECK_TOLERANCE} overruns are tolerated per game, unless set
+	 * with the {@value AllocationGuard#BUDGET_PROPERTY} and
+	 * {@value AllocationGuard#TOLERANCE_PROPERTY} properties.
+	 *
+	 * @param games
+	 *            Number of games, cycling through the levels.
+	 */
+	private static void allocationCheckMain(final int games) {
+		List<engine.level.Level> levels = new LevelManager().getLevels();
+		String budget = System.getProperty(AllocationGuard.BUDGET_PROPERTY, "0");
+		System.clearProperty(AllocationGuard.BUDGET_PROPERTY);
+		for (int i = 0; i < levels.size(); i++)
+			playCheckGame(levels.get(i), -1 - i, CHECK_WARMUP_TICKS);
+
+		System.setProperty(AllocationGuard.BUDGET_PROPERTY, budget);
+		System.setProperty(AllocationGuard.STRICT_PROPERTY, "true");
+		if (System.getProperty(AllocationGuard.TOLERANCE_PROPERTY) == null)
+			System.setProperty(AllocationGuard.TOLERANCE_PROPERTY,
+					String.valueOf(CHECK_TOLERANCE));
+		long ticks = 0;
+		long overruns = 0;
+		long worstBytes = 0;
+		for (int game = 0; game < games; game++) {
+			engine.level.Level level = levels.get(game % levels.size());
+			GameScreen screen;
+			try {
+				screen = playCheckGame(level, game, DEFAULT_MAX_TICKS);
+			} catch (IllegalStateException e) {
+				System.err.println("Allocation check failed on level "
+						+ level.getLevel() + ", seed " + game + ": "
+						+ e.getMessage());
+				System.exit(ALLOCATION_CHECK_FAILED);
+				return;
+			}
+			AllocationGuard guard = screen.getAllocationGuard();
+			if (!guard.isEnabled()) {
+				System.err.println("Allocation counters are not available.");
+				System.exit(1);
+			}
+			ticks += guard.getBlocks();
+			overruns += guard.getOverruns();
+			worstBytes = Math.max(worstBytes, guard.getWorstBytes());
+		}
+		System.out.println("Allocation check: " + games + " games, " + ticks
+				+ " ticks, " + overruns + " over the budget of " + budget
+				+ " bytes, worst " + worstBytes + " bytes.");
+	}
+
+	/**
+	 * Plays one game of the allocation check, holding the fire key.
+	 *
+	 * @param level
+	 *            Level to play.
+	 * @param seed
+	 *            Seed of the game.
+	 * @param maxTicks
+	 *            Maximum number of updates.
+	 * @return Finished screen.
+	 */
+	private static GameScreen playCheckGame(final engine.level.Level level,
+			final long seed, final long maxTicks) {
+		ScriptedInput input = new ScriptedInput();
+		input.press(KeyEvent.VK_SPACE);
+		return simulateLevel(new GameState(level.getLevel(), 0,
+				Core.getMaxLives(), Core.getMaxLives(), 0, 0, 0), level,
+				input, maxTicks, seed);
+	}
+}
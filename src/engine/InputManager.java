@@ -9,7 +9,7 @@ import java.awt.event.KeyListener;
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
-public final class InputManager implements KeyListener {
+public final class InputManager implements KeyListener, InputSource {
 
 	/** Number of recognised keys. */
 	private static final int NUM_KEYS = 256;
@@ -43,6 +43,7 @@ public final class InputManager implements KeyListener {
 	 *            Key number to check.
 	 * @return Key state.
 	 */
+	@Override
 	public boolean isKeyDown(final int keyCode) {
 		return keys[keyCode];
 	}
@@ -82,10 +83,12 @@ public final class InputManager implements KeyListener {
 
 	}
 
+	@Override
 	public boolean isP1KeyDown(int keyCode) {
 		return isKeyDown(keyCode);
 	}
 
+	@Override
 	public boolean isP2KeyDown(int keyCode) {
 		return isKeyDown(keyCode);
 	}
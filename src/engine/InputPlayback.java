@@ -0,0 +1,59 @@
+package engine;
+
+/**
+ * Input source that plays a recording back, standing in for the keyboard.
+ * Every tick moves to the next recorded key states; once the recording is
+ * over, every key is released.
+ */
+public final class InputPlayback implements InputSource {
+
+	/** Recording played back. */
+	private final InputRecording recording;
+	/** Index of the current run. */
+	private int run;
+	/** Ticks already played of the current run. */
+	private int playedInRun;
+	/** Keys held during the current tick. */
+	private int mask;
+
+	/**
+	 * Constructor, starts at the first tick of the recording.
+	 *
+	 * @param recording
+	 *            Recording to play back.
+	 */
+	public InputPlayback(final InputRecording recording) {
+		this.recording = recording;
+	}
+
+	@Override
+	public void onTick() {
+		while (this.run < this.recording.getRunCount()
+				&& this.playedInRun >= this.recording.getRunLength(this.run)) {
+			this.run++;
+			this.playedInRun = 0;
+		}
+		if (this.run < this.recording.getRunCount()) {
+			this.mask = this.recording.getRunMask(this.run);
+			this.playedInRun++;
+		} else {
+			this.mask = 0;
+		}
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return (this.mask & (InputRecording.p1Bit(keyCode)
+				| InputRecording.p2Bit(keyCode))) != 0;
+	}
+
+	@Override
+	public boolean isP1KeyDown(final int keyCode) {
+		return (this.mask & InputRecording.p1Bit(keyCode)) != 0;
+	}
+
+	@Override
+	public boolean isP2KeyDown(final int keyCode) {
+		return (this.mask & InputRecording.p2Bit(keyCode)) != 0;
+	}
+}
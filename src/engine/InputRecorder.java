@@ -0,0 +1,71 @@
+package engine;
+
+/**
+ * Input source that samples the key states of both players once per tick and
+ * appends them to a recording.
+ *
+ * The screen sees the sampled states during the whole tick, even if a key
+ * event arrives in the middle of it, so the recording holds exactly what the
+ * game read and plays back the same way.
+ */
+public final class InputRecorder implements InputSource {
+
+	/** Source of the live key states. */
+	private final InputSource source;
+	/** Recording the ticks are appended to. */
+	private final InputRecording recording;
+	/** Keys held during the current tick. */
+	private int mask;
+
+	/**
+	 * Constructor, starts recording.
+	 *
+	 * @param source
+	 *            Source of the live key states.
+	 * @param recording
+	 *            Recording the ticks are appended to.
+	 */
+	public InputRecorder(final InputSource source,
+			final InputRecording recording) {
+		this.source = source;
+		this.recording = recording;
+	}
+
+	@Override
+	public void onTick() {
+		this.source.onTick();
+		int sampled = 0;
+		for (int keyCode : InputRecording.P1_KEYS)
+			if (this.source.isP1KeyDown(keyCode))
+				sampled |= InputRecording.p1Bit(keyCode);
+		for (int keyCode : InputRecording.P2_KEYS)
+			if (this.source.isP2KeyDown(keyCode))
+				sampled |= InputRecording.p2Bit(keyCode);
+		this.mask = sampled;
+		this.recording.appendTick(sampled);
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return this.source.isKeyDown(keyCode);
+	}
+
+	@Override
+	public boolean isP1KeyDown(final int keyCode) {
+		return (this.mask & InputRecording.p1Bit(keyCode)) != 0;
+	}
+
+	@Override
+	public boolean isP2KeyDown(final int keyCode) {
+		return (this.mask & InputRecording.p2Bit(keyCode)) != 0;
+	}
+
+	/**
+	 * Getter for the recording.
+	 *
+	 * @return Recording the ticks are appended to.
+	 */
+	public InputRecording getRecording() {
+		return this.recording;
+	}
+}
@@ -0,0 +1,445 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import entity.ShopItem;
+
+/**
+ * Key states of both players during one level, tick by tick, together with
+ * everything else needed to play the level again exactly: the seed of the
+ * level, its starting state, the screen size and the shop upgrades.
+ *
+ * The key states of a tick are packed in a bit mask, one bit per key read by
+ * the game screen. Players hold keys for many ticks, so the masks are stored
+ * run-length encoded as (mask, ticks) pairs, and written as variable-length
+ * integers: a minute of play usually takes a few hundred bytes.
+ */
+public final class InputRecording {
+
+	/** Keys of the first player, in mask bit order. */
+	static final int[] P1_KEYS = { KeyEvent.VK_D, KeyEvent.VK_A,
+			KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_SPACE };
+	/** Keys of the second player, in mask bit order after the first. */
+	static final int[] P2_KEYS = { KeyEvent.VK_RIGHT, KeyEvent.VK_LEFT,
+			KeyEvent.VK_UP, KeyEvent.VK_DOWN, KeyEvent.VK_ENTER };
+
+	/** First bytes of a recording file, "INVR". */
+	private static final int MAGIC = 0x494E5652;
+	/** Version of the file format. */
+	private static final int VERSION = 1;
+	/** Initial capacity of the run arrays. */
+	private static final int INITIAL_RUNS = 64;
+
+	/** Seed of the level. */
+	private long seed;
+	/** Number of the level. */
+	private int level;
+	/** If the level started with a bonus life. */
+	private boolean bonusLife;
+	/** Screen width. */
+	private int width;
+	/** Screen height. */
+	private int height;
+	/** State of the game when the level started. */
+	private GameState startState;
+	/** Shop upgrade levels: multi-shot, rapid fire, penetration, bullet speed, ship speed. */
+	private int[] shopLevels;
+
+	/** If the outcome of the level is known. */
+	private boolean hasOutcome;
+	/** Score at the end of the level. */
+	private int finalScore;
+	/** Lives of the first player at the end of the level. */
+	private int finalLivesP1;
+	/** Lives of the second player at the end of the level. */
+	private int finalLivesP2;
+
+	/** Key mask of every run. */
+	private int[] runMasks;
+	/** Number of ticks of every run. */
+	private int[] runLengths;
+	/** Number of runs. */
+	private int runCount;
+	/** Total number of ticks. */
+	private long tickCount;
+
+	/**
+	 * Constructor, creates an empty recording.
+	 */
+	private InputRecording() {
+		this.runMasks = new int[INITIAL_RUNS];
+		this.runLengths = new int[INITIAL_RUNS];
+	}
+
+	/**
+	 * Starts the recording of a level, capturing the current shop upgrades.
+	 *
+	 * @param seed
+	 *            Seed of the level.
+	 * @param level
+	 *            Number of the level.
+	 * @param startState
+	 *            State of the game when the level starts.
+	 * @param bonusLife
+	 *            If the level starts with a bonus life.
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @return New recording, without ticks.
+	 */
+	public static InputRecording start(final long seed, final int level,
+			final GameState startState, final boolean bonusLife,
+			final int width, final int height) {
+		InputRecording recording = new InputRecording();
+		recording.seed = seed;
+		recording.level = level;
+		recording.startState = startState;
+		recording.bonusLife = bonusLife;
+		recording.width = width;
+		recording.height = height;
+		recording.shopLevels = new int[] { ShopItem.getMultiShotLevel(),
+				ShopItem.getRapidFireLevel(), ShopItem.getPenetrationLevel(),
+				ShopItem.getBulletSpeedLevel(), ShopItem.getShipSpeedLevel() };
+		return recording;
+	}
+
+	/**
+	 * Applies the shop upgrades of the recording, before playing it again.
+	 */
+	public void applyShopLevels() {
+		ShopItem.setMultiShotLevel(this.shopLevels[0]);
+		ShopItem.setRapidFireLevel(this.shopLevels[1]);
+		ShopItem.setPenetrationLevel(this.shopLevels[2]);
+		ShopItem.setBulletSpeedLevel(this.shopLevels[3]);
+		ShopItem.setSHIPSPEED(this.shopLevels[4]);
+	}
+
+	/**
+	 * Adds the key mask of the next tick.
+	 *
+	 * @param mask
+	 *            Keys held during the tick.
+	 */
+	public void appendTick(final int mask) {
+		if (this.runCount > 0 && this.runMasks[this.runCount - 1] == mask
+				&& this.runLengths[this.runCount - 1] < Integer.MAX_VALUE) {
+			this.runLengths[this.runCount - 1]++;
+		} else {
+			if (this.runCount == this.runMasks.length) {
+				this.runMasks = Arrays.copyOf(this.runMasks, this.runCount * 2);
+				this.runLengths = Arrays.copyOf(this.runLengths, this.runCount * 2);
+			}
+			this.runMasks[this.runCount] = mask;
+			this.runLengths[this.runCount] = 1;
+			this.runCount++;
+		}
+		this.tickCount++;
+	}
+
+	/**
+	 * Stores the outcome of the level, so a replay can be checked against it.
+	 *
+	 * @param score
+	 *            Final score.
+	 * @param livesP1
+	 *            Final lives of the first player.
+	 * @param livesP2
+	 *            Final lives of the second player.
+	 */
+	public void setOutcome(final int score, final int livesP1,
+			final int livesP2) {
+		this.hasOutcome = true;
+		this.finalScore = score;
+		this.finalLivesP1 = livesP1;
+		this.finalLivesP2 = livesP2;
+	}
+
+	/**
+	 * Checks if a result matches the recorded outcome.
+	 *
+	 * @param result
+	 *            State of the game at the end of a replay.
+	 * @return True if there is no recorded outcome or it matches.
+	 */
+	public boolean matchesOutcome(final GameState result) {
+		return !this.hasOutcome || (result.getScore() == this.finalScore
+				&& result.getLivesRemaining() == this.finalLivesP1
+				&& result.getLivesRemainingP2() == this.finalLivesP2);
+	}
+
+	/**
+	 * Computes the bit of a key of the first player.
+	 *
+	 * @param keyCode
+	 *            Key to look up.
+	 * @return Mask with the bit of the key, zero if the key isn't recorded.
+	 */
+	static int p1Bit(final int keyCode) {
+		return bit(P1_KEYS, keyCode, 0);
+	}
+
+	/**
+	 * Computes the bit of a key of the second player.
+	 *
+	 * @param keyCode
+	 *            Key to look up.
+	 * @return Mask with the bit of the key, zero if the key isn't recorded.
+	 */
+	static int p2Bit(final int keyCode) {
+		return bit(P2_KEYS, keyCode, P1_KEYS.length);
+	}
+
+	/**
+	 * Computes the bit of a key in a key table.
+	 *
+	 * @param keys
+	 *            Key table.
+	 * @param keyCode
+	 *            Key to look up.
+	 * @param offset
+	 *            Bit of the first key of the table.
+	 * @return Mask with the bit of the key, zero if it isn't in the table.
+	 */
+	private static int bit(final int[] keys, final int keyCode,
+			final int offset) {
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] == keyCode)
+				return 1 << (offset + i);
+		return 0;
+	}
+
+	/**
+	 * Writes the recording to a file.
+	 *
+	 * @param file
+	 *            File to write.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	public void write(final Path file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(this.seed);
+			writeVarInt(out, this.level);
+			out.writeBoolean(this.bonusLife);
+			writeVarInt(out, this.width);
+			writeVarInt(out, this.height);
+			writeVarInt(out, this.startState.getScore());
+			writeVarInt(out, this.startState.getLivesRemaining());
+			writeVarInt(out, this.startState.getLivesRemainingP2());
+			writeVarInt(out, this.startState.getBulletsShot());
+			writeVarInt(out, this.startState.getShipsDestroyed());
+			writeVarInt(out, this.startState.getCoin());
+			writeVarInt(out, this.shopLevels.length);
+			for (int shopLevel : this.shopLevels)
+				writeVarInt(out, shopLevel);
+			out.writeBoolean(this.hasOutcome);
+			if (this.hasOutcome) {
+				writeVarInt(out, this.finalScore);
+				writeVarInt(out, this.finalLivesP1);
+				writeVarInt(out, this.finalLivesP2);
+			}
+			writeVarInt(out, this.runCount);
+			for (int i = 0; i < this.runCount; i++) {
+				writeVarInt(out, this.runMasks[i]);
+				writeVarInt(out, this.runLengths[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads a recording from a file.
+	 *
+	 * @param file
+	 *            File to read.
+	 * @return Recording.
+	 * @throws IOException
+	 *             If the file can't be read or isn't a recording.
+	 */
+	public static InputRecording read(final Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " is not an input recording.");
+			int version = in.readUnsignedByte();
+			if (version != VERSION)
+				throw new IOException("Unsupported recording version " + version);
+			InputRecording recording = new InputRecording();
+			recording.seed = in.readLong();
+			recording.level = readVarInt(in);
+			recording.bonusLife = in.readBoolean();
+			recording.width = readVarInt(in);
+			recording.height = readVarInt(in);
+			int score = readVarInt(in);
+			int livesP1 = readVarInt(in);
+			int livesP2 = readVarInt(in);
+			int bulletsShot = readVarInt(in);
+			int shipsDestroyed = readVarInt(in);
+			int coin = readVarInt(in);
+			recording.startState = new GameState(recording.level, score,
+					livesP1, livesP2, bulletsShot, shipsDestroyed, coin);
+			recording.shopLevels = new int[readVarInt(in)];
+			for (int i = 0; i < recording.shopLevels.length; i++)
+				recording.shopLevels[i] = readVarInt(in);
+			recording.hasOutcome = in.readBoolean();
+			if (recording.hasOutcome)
+				recording.setOutcome(readVarInt(in), readVarInt(in),
+						readVarInt(in));
+			int runs = readVarInt(in);
+			recording.runMasks = new int[Math.max(1, runs)];
+			recording.runLengths = new int[Math.max(1, runs)];
+			for (int i = 0; i < runs; i++) {
+				recording.runMasks[i] = readVarInt(in);
+				recording.runLengths[i] = readVarInt(in);
+				recording.tickCount += recording.runLengths[i];
+			}
+			recording.runCount = runs;
+			return recording;
+		}
+	}
+
+	/**
+	 * Writes an unsigned variable-length integer, seven bits per byte.
+	 *
+	 * @param out
+	 *            Stream to write to.
+	 * @param value
+	 *            Value to write.
+	 * @throws IOException
+	 *             If the stream can't be written.
+	 */
+	private static void writeVarInt(final DataOutputStream out, final int value)
+			throws IOException {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			out.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte(remaining);
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer.
+	 *
+	 * @param in
+	 *            Stream to read from.
+	 * @return Value read.
+	 * @throws IOException
+	 *             If the stream can't be read or the value is malformed.
+	 */
+	private static int readVarInt(final DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable-length integer.");
+	}
+
+	/**
+	 * Getter for the number of runs.
+	 *
+	 * @return Runs of identical key masks.
+	 */
+	int getRunCount() {
+		return this.runCount;
+	}
+
+	/**
+	 * Getter for the key mask of a run.
+	 *
+	 * @param run
+	 *            Index of the run.
+	 * @return Keys held during the run.
+	 */
+	int getRunMask(final int run) {
+		return this.runMasks[run];
+	}
+
+	/**
+	 * Getter for the length of a run.
+	 *
+	 * @param run
+	 *            Index of the run.
+	 * @return Ticks of the run.
+	 */
+	int getRunLength(final int run) {
+		return this.runLengths[run];
+	}
+
+	/**
+	 * Getter for the total number of ticks.
+	 *
+	 * @return Recorded ticks.
+	 */
+	public long getTickCount() {
+		return this.tickCount;
+	}
+
+	/**
+	 * Getter for the seed of the level.
+	 *
+	 * @return Seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Getter for the number of the level.
+	 *
+	 * @return Level number.
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Getter for the bonus life flag.
+	 *
+	 * @return If the level started with a bonus life.
+	 */
+	public boolean hasBonusLife() {
+		return this.bonusLife;
+	}
+
+	/**
+	 * Getter for the screen width.
+	 *
+	 * @return Width.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Getter for the screen height.
+	 *
+	 * @return Height.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Getter for the state of the game when the level started.
+	 *
+	 * @return Starting state.
+	 */
+	public GameState getStartState() {
+		return this.startState;
+	}
+}
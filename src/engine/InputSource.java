@@ -0,0 +1,45 @@
+package engine;
+
+/**
+ * Source of the key states read by the screens.
+ *
+ * The game reads the keyboard through {@link InputManager}, while headless
+ * runs plug in a programmatic source such as {@link ScriptedInput}, and
+ * recorded games are fed back through {@link InputPlayback}.
+ */
+public interface InputSource {
+
+	/**
+	 * Returns true if the provided key is currently pressed.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	boolean isKeyDown(int keyCode);
+
+	/**
+	 * Returns true if the provided key of the first player is pressed.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	boolean isP1KeyDown(int keyCode);
+
+	/**
+	 * Returns true if the provided key of the second player is pressed.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	boolean isP2KeyDown(int keyCode);
+
+	/**
+	 * Called by the screen loop once before every update. Sources that
+	 * sample or replay key states per tick move to the next tick here.
+	 */
+	default void onTick() {
+	}
+}
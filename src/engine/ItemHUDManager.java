@@ -20,8 +20,9 @@ import screen.Screen;
  */
 public class ItemHUDManager {
     
-    /** Singleton instance */
-    private static ItemHUDManager instance;
+    /** Instance of every thread, so parallel simulations don't share a HUD */
+    private static final ThreadLocal<ItemHUDManager> INSTANCE =
+            ThreadLocal.withInitial(ItemHUDManager::new);
     
     /** Size of each item square */
     private static final int ITEM_SQUARE_SIZE = 20;
@@ -40,6 +41,9 @@ public class ItemHUDManager {
     
     /** Currently active dropped items */
     private List<DroppedItemInfo> activeDroppedItems;
+
+    /** Expired dropped items, reused for the next ones */
+    private List<DroppedItemInfo> spareDroppedItems;
     
     /** Maximum number of dynamic items that can be displayed */
     private static final int MAX_DYNAMIC_ITEMS = 6;
@@ -55,12 +59,16 @@ public class ItemHUDManager {
         public long displayStartTime;
         
         public DroppedItemInfo(DropItem.ItemType itemType) {
+            set(itemType);
+        }
+
+        public void set(DropItem.ItemType itemType) {
             this.itemType = itemType;
-            this.displayStartTime = System.currentTimeMillis();
+            this.displayStartTime = GameClock.currentTimeMillis();
         }
         
         public boolean isExpired() {
-            return System.currentTimeMillis() - displayStartTime > DROPPED_ITEM_DISPLAY_DURATION;
+            return GameClock.currentTimeMillis() - displayStartTime > DROPPED_ITEM_DISPLAY_DURATION;
         }
     }
     
@@ -68,17 +76,15 @@ public class ItemHUDManager {
      * Private constructor for singleton pattern
      */
     private ItemHUDManager() {
-        this.activeDroppedItems = new ArrayList<>();
+        this.activeDroppedItems = new ArrayList<>(MAX_DYNAMIC_ITEMS);
+        this.spareDroppedItems = new ArrayList<>(MAX_DYNAMIC_ITEMS);
     }
     
     /**
-     * Get singleton instance
+     * Get the instance of the current thread
      */
     public static ItemHUDManager getInstance() {
-        if (instance == null) {
-            instance = new ItemHUDManager();
-        }
-        return instance;
+        return INSTANCE.get();
     }
     
     /**
@@ -99,19 +105,37 @@ public class ItemHUDManager {
         
         // If we have space, add the new item
         if (activeDroppedItems.size() < MAX_DYNAMIC_ITEMS) {
-            activeDroppedItems.add(new DroppedItemInfo(itemType));
+            activeDroppedItems.add(obtainDroppedItemInfo(itemType));
         } else {
             // Replace the oldest item
-            activeDroppedItems.remove(0);
-            activeDroppedItems.add(new DroppedItemInfo(itemType));
+            DroppedItemInfo oldest = activeDroppedItems.remove(0);
+            oldest.set(itemType);
+            activeDroppedItems.add(oldest);
         }
     }
+
+    /**
+     * Reuse an expired item info if there is one, so picking items up does
+     * not allocate
+     */
+    private DroppedItemInfo obtainDroppedItemInfo(DropItem.ItemType itemType) {
+        if (spareDroppedItems.isEmpty()) {
+            return new DroppedItemInfo(itemType);
+        }
+        DroppedItemInfo info = spareDroppedItems.remove(spareDroppedItems.size() - 1);
+        info.set(itemType);
+        return info;
+    }
     
     /**
      * Remove expired dropped items
      */
     private void cleanupExpiredItems() {
-        activeDroppedItems.removeIf(DroppedItemInfo::isExpired);
+        for (int i = activeDroppedItems.size() - 1; i >= 0; i--) {
+            if (activeDroppedItems.get(i).isExpired()) {
+                spareDroppedItems.add(activeDroppedItems.remove(i));
+            }
+        }
     }
     
     /**
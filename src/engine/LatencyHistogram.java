@@ -0,0 +1,151 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in a fixed amount of memory.
+ *
+ * Buckets are log-linear: every power of two is split in
+ * {@value #SUB_BUCKETS} equal buckets, so a recorded value lands in a bucket
+ * at most about 6% wider than itself whatever its magnitude. Recording is a
+ * few bit operations and an array increment, and percentiles are read by
+ * walking the buckets, reporting the upper bound of the bucket they fall
+ * in. The largest value is kept exactly.
+ */
+public final class LatencyHistogram {
+
+	/** Buckets per power of two, as a power of two. */
+	private static final int SUB_BUCKET_BITS = 4;
+	/** Buckets per power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Highest power of two tracked, larger values share the last bucket. */
+	private static final int MAX_EXPONENT = 40;
+	/** Number of buckets. */
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2)
+			* SUB_BUCKETS;
+
+	/** Count of values in every bucket. */
+	private final long[] counts = new long[BUCKETS];
+	/** Number of recorded values. */
+	private long count;
+	/** Sum of the recorded values. */
+	private long total;
+	/** Largest recorded value. */
+	private long max;
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value
+	 *            Value to record, negative values count as zero.
+	 */
+	public void record(final long value) {
+		long clamped = Math.max(0, value);
+		this.counts[bucketOf(clamped)]++;
+		this.count++;
+		this.total += clamped;
+		if (clamped > this.max)
+			this.max = clamped;
+	}
+
+	/**
+	 * Reads a percentile of the recorded values.
+	 *
+	 * @param percentile
+	 *            Percentile, between 0 and 100.
+	 * @return Upper bound of the bucket holding the percentile, never more
+	 *         than the largest value; zero if nothing was recorded.
+	 */
+	public long getPercentile(final double percentile) {
+		if (this.count == 0)
+			return 0;
+		long rank = (long) Math.ceil(percentile / 100.0 * this.count);
+		rank = Math.max(1, Math.min(rank, this.count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += this.counts[bucket];
+			if (seen >= rank)
+				return Math.min(upperBoundOf(bucket), this.max);
+		}
+		return this.max;
+	}
+
+	/**
+	 * Getter for the number of recorded values.
+	 *
+	 * @return Recorded values.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Getter for the sum of the recorded values.
+	 *
+	 * @return Sum.
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Getter for the largest recorded value.
+	 *
+	 * @return Largest value, zero if nothing was recorded.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Getter for the mean of the recorded values.
+	 *
+	 * @return Mean, zero if nothing was recorded.
+	 */
+	public double getMean() {
+		return this.count == 0 ? 0 : (double) this.total / this.count;
+	}
+
+	/**
+	 * Forgets every recorded value.
+	 */
+	public void reset() {
+		Arrays.fill(this.counts, 0);
+		this.count = 0;
+		this.total = 0;
+		this.max = 0;
+	}
+
+	/**
+	 * Finds the bucket of a value.
+	 *
+	 * @param value
+	 *            Non-negative value.
+	 * @return Bucket index.
+	 */
+	private static int bucketOf(final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT)
+			return BUCKETS - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Computes the largest value of a bucket.
+	 *
+	 * @param bucket
+	 *            Bucket index.
+	 * @return Upper bound, inclusive.
+	 */
+	private static long upperBoundOf(final int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
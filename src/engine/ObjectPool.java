@@ -0,0 +1,188 @@
+package engine;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps released objects of one type to hand them out again.
+ *
+ * Free objects sit on a stack, so taking and returning one is constant time
+ * and neither hashes nor allocates. The pool remembers the most objects that
+ * were out at the same time, which is used to trim the free list back between
+ * levels instead of letting it grow forever.
+ *
+ * A pool is not thread-safe. Shared pools are held in a {@link ThreadLocal},
+ * one pool per thread, so that simulations running in parallel never hand
+ * out each other's objects.
+ *
+ * @param <T>
+ *            Type of the pooled objects.
+ */
+public final class ObjectPool<T> {
+
+	/** Creates new objects when the free list is empty. */
+	private final Supplier<? extends T> factory;
+	/** Objects ready to be handed out. */
+	private final ArrayDeque<T> free;
+	/** Objects handed out and not released yet. */
+	private int inUse;
+	/** Most objects in use at the same time since the last trim. */
+	private int peak;
+	/** Requests served from the free list. */
+	private long hits;
+	/** Requests that had to create a new object. */
+	private long misses;
+
+	/**
+	 * Constructor, creates an empty pool.
+	 *
+	 * @param factory
+	 *            Creates new objects when none is free.
+	 */
+	public ObjectPool(final Supplier<? extends T> factory) {
+		this.factory = factory;
+		this.free = new ArrayDeque<T>();
+	}
+
+	/**
+	 * Takes a free object, creating one if there is none. The caller is in
+	 * charge of resetting its state.
+	 *
+	 * @return Pooled or new object.
+	 */
+	public T acquire() {
+		T object = this.free.pollFirst();
+		if (object == null) {
+			object = this.factory.get();
+			this.misses++;
+		} else {
+			this.hits++;
+		}
+		this.inUse++;
+		if (this.inUse > this.peak)
+			this.peak = this.inUse;
+		return object;
+	}
+
+	/**
+	 * Returns an object to the pool. Releasing an object twice would hand it
+	 * out to two owners, so it is rejected instead of being absorbed.
+	 *
+	 * @param object
+	 *            Object not used anymore.
+	 * @throws IllegalStateException
+	 *             If no object is in use.
+	 */
+	public void release(final T object) {
+		if (this.inUse == 0)
+			throw new IllegalStateException(
+					"Released more objects than were acquired.");
+		assert !this.free.contains(object) : "Object released twice.";
+		this.free.addFirst(object);
+		this.inUse--;
+	}
+
+	/**
+	 * Returns several objects to the pool.
+	 *
+	 * @param objects
+	 *            Objects not used anymore.
+	 */
+	public void releaseAll(final List<? extends T> objects) {
+		for (int i = 0; i < objects.size(); i++)
+			release(objects.get(i));
+	}
+
+	/**
+	 * Creates objects until the free list holds at least a given amount.
+	 *
+	 * @param capacity
+	 *            Number of free objects wanted.
+	 */
+	public void prewarm(final int capacity) {
+		while (this.free.size() < capacity)
+			this.free.addFirst(this.factory.get());
+	}
+
+	/**
+	 * Drops the free objects beyond the high-water mark, keeping at least a
+	 * given amount, then starts a new high-water period.
+	 *
+	 * @param keep
+	 *            Free objects kept even when fewer were in use, usually the
+	 *            amount the pool is prewarmed with.
+	 * @return Number of dropped objects.
+	 */
+	public int trim(final int keep) {
+		int limit = Math.max(this.peak, keep);
+		int dropped = 0;
+		while (this.free.size() > limit) {
+			this.free.pollLast();
+			dropped++;
+		}
+		this.peak = this.inUse;
+		return dropped;
+	}
+
+	/**
+	 * Getter for the number of requests served from the free list.
+	 *
+	 * @return Pool hits.
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Getter for the number of requests that created a new object.
+	 *
+	 * @return Pool misses.
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Getter for the most objects in use at the same time since the last
+	 * trim.
+	 *
+	 * @return Peak occupancy.
+	 */
+	public int getPeak() {
+		return this.peak;
+	}
+
+	/**
+	 * Getter for the number of objects currently handed out.
+	 *
+	 * @return Objects in use.
+	 */
+	public int getInUse() {
+		return this.inUse;
+	}
+
+	/**
+	 * Getter for the number of objects ready to be handed out.
+	 *
+	 * @return Free objects.
+	 */
+	public int getFreeCount() {
+		return this.free.size();
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStatistics() {
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	@Override
+	public String toString() {
+		return this.hits + " hits, " + this.misses + " misses, peak "
+				+ this.peak + ", " + this.inUse + " in use, " + this.free.size()
+				+ " free";
+	}
+}
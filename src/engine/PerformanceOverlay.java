@@ -0,0 +1,146 @@
+package engine;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+import screen.Screen;
+
+/**
+ * Debug overlay showing how the game performs: frame and tick rates, stage
+ * time percentiles, entity counts, pool occupancy, audio activity, heap
+ * usage and garbage collections.
+ *
+ * A key toggles it. The text is rebuilt only a few times per second and
+ * drawn from the cached lines in between, so showing the overlay barely
+ * changes the numbers it reports. Refreshes follow the real time, not the
+ * game clock, so they keep going while the game is paused.
+ */
+public final class PerformanceOverlay {
+
+	/** Time between text refreshes, in nanoseconds. */
+	private static final long REFRESH_NANOS = 250000000L;
+	/** Nanoseconds in a millisecond. */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	/** Bytes in a megabyte. */
+	private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+	/** Garbage collectors of the virtual machine. */
+	private static final List<GarbageCollectorMXBean> COLLECTORS =
+			ManagementFactory.getGarbageCollectorMXBeans();
+
+	/** If the overlay is shown. */
+	private boolean visible;
+	/** If the toggle key was held during the last check. */
+	private boolean toggleHeld;
+	/** Time of the next text refresh. */
+	private long nextRefresh;
+	/** Lines shown, rebuilt at every refresh. */
+	private String[] lines = new String[0];
+
+	/**
+	 * Shows or hides the overlay when the toggle key goes down.
+	 *
+	 * @param toggleDown
+	 *            Current state of the toggle key.
+	 */
+	public void handleToggle(final boolean toggleDown) {
+		if (toggleDown && !this.toggleHeld) {
+			this.visible = !this.visible;
+			this.nextRefresh = System.nanoTime();
+		}
+		this.toggleHeld = toggleDown;
+	}
+
+	/**
+	 * Checks if the overlay is shown.
+	 *
+	 * @return True when shown.
+	 */
+	public boolean isVisible() {
+		return this.visible;
+	}
+
+	/**
+	 * Checks if the text is due for a refresh.
+	 *
+	 * @return True if the overlay is shown and the text is old enough.
+	 */
+	public boolean needsRefresh() {
+		return this.visible && System.nanoTime() - this.nextRefresh >= 0;
+	}
+
+	/**
+	 * Rebuilds the text of the overlay.
+	 *
+	 * @param screen
+	 *            Screen measured.
+	 * @param profiler
+	 *            Stage times of the screen.
+	 * @param entities
+	 *            Line describing the live entities.
+	 * @param pools
+	 *            Line describing the pool occupancy.
+	 * @param audio
+	 *            Line describing the audio voices and command queue.
+	 */
+	public void refresh(final Screen screen, final FrameProfiler profiler,
+			final String entities, final String pools, final String audio) {
+		LatencyHistogram update = profiler.getHistogram(FrameProfiler.Phase.UPDATE);
+		LatencyHistogram draw = profiler.getHistogram(FrameProfiler.Phase.DRAW);
+
+		Runtime runtime = Runtime.getRuntime();
+		long usedHeap = (runtime.totalMemory() - runtime.freeMemory())
+				/ BYTES_PER_MEGABYTE;
+		long maxHeap = runtime.maxMemory() / BYTES_PER_MEGABYTE;
+		long collections = 0;
+		long collectionMillis = 0;
+		for (GarbageCollectorMXBean collector : COLLECTORS) {
+			collections += Math.max(0, collector.getCollectionCount());
+			collectionMillis += Math.max(0, collector.getCollectionTime());
+		}
+
+		this.lines = new String[] {
+				String.format(Locale.ROOT, "FPS %d  TPS %d",
+						screen.getMeasuredFrameRate(),
+						screen.getMeasuredTickRate()),
+				percentiles("Update", update),
+				percentiles("Draw", draw),
+				entities,
+				pools,
+				audio,
+				String.format(Locale.ROOT, "Heap %d/%d MB", usedHeap, maxHeap),
+				String.format(Locale.ROOT, "GC %d in %d ms", collections,
+						collectionMillis) };
+		this.nextRefresh = System.nanoTime() + REFRESH_NANOS;
+	}
+
+	/**
+	 * Formats the percentiles of a stage.
+	 *
+	 * @param name
+	 *            Name of the stage.
+	 * @param histogram
+	 *            Times of the stage.
+	 * @return Line of text.
+	 */
+	private static String percentiles(final String name,
+			final LatencyHistogram histogram) {
+		if (histogram.getCount() == 0)
+			return name + " not profiled";
+		return String.format(Locale.ROOT, "%s p50 %.2f p95 %.2f p99 %.2f ms",
+				name, histogram.getPercentile(50) / NANOS_PER_MILLI,
+				histogram.getPercentile(95) / NANOS_PER_MILLI,
+				histogram.getPercentile(99) / NANOS_PER_MILLI);
+	}
+
+	/**
+	 * Getter for the lines shown.
+	 *
+	 * @return Text of the overlay, one entry per line.
+	 */
+	public String[] getLines() {
+		return this.lines;
+	}
+}
@@ -0,0 +1,162 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of every random decision of the game.
+ *
+ * A service is built from one seed and hands out independent named streams,
+ * each one derived from the seed and the stream name. Streams are not shared
+ * between game systems, so adding draws to one system (say, a new boss
+ * pattern) does not shift the sequence seen by the others, and a seed fully
+ * determines a run with the same inputs. The service in use is kept per
+ * thread, like the {@link GameClock}, so parallel simulations neither share
+ * state nor contend on it.
+ */
+public final class RandomService {
+
+	/** System property holding the seed of the game session. */
+	public static final String SEED_PROPERTY = "invaders.seed";
+
+	/** Named streams of random numbers. */
+	public enum Stream {
+		/** Which enemy shoots next. */
+		ENEMY_FIRE,
+		/** Item drop rolls. */
+		DROPS,
+		/** Boss attack patterns. */
+		BOSS,
+		/** Variable cooldown durations. */
+		TIMING,
+		/** Cosmetic effects that do not change the game. */
+		EFFECTS,
+		/** Seeds of the levels of a session. */
+		LEVELS
+	}
+
+	/** Service used by the current thread. */
+	private static final ThreadLocal<RandomService> CURRENT =
+			ThreadLocal.withInitial(() -> new RandomService(newSeed()));
+
+	/** Seed the streams are derived from. */
+	private final long seed;
+	/** Streams, created by the constructor, indexed by stream ordinal. */
+	private final SplittableRandom[] streams;
+
+	/**
+	 * Constructor, creates a service and all of its streams, so drawing
+	 * numbers never allocates.
+	 *
+	 * @param seed
+	 *            Seed the streams are derived from.
+	 */
+	public RandomService(final long seed) {
+		this.seed = seed;
+		Stream[] values = Stream.values();
+		this.streams = new SplittableRandom[values.length];
+		for (int i = 0; i < values.length; i++)
+			this.streams[i] = new SplittableRandom(mix(seed
+					^ mix(values[i].name().hashCode())));
+	}
+
+	/**
+	 * Creates a service seeded from the system property, or from an
+	 * unpredictable seed if it is not set.
+	 *
+	 * @return New service.
+	 */
+	public static RandomService fromSystemProperties() {
+		Long seed = Long.getLong(SEED_PROPERTY);
+		return new RandomService(seed != null ? seed : newSeed());
+	}
+
+	/**
+	 * Creates an unpredictable seed.
+	 *
+	 * @return New seed.
+	 */
+	public static long newSeed() {
+		return new SplittableRandom().nextLong();
+	}
+
+	/**
+	 * Getter for the service used by the current thread.
+	 *
+	 * @return Current service.
+	 */
+	public static RandomService current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Sets the service used by the current thread.
+	 *
+	 * @param service
+	 *            New service, null to go back to an unseeded one.
+	 */
+	public static void setCurrent(final RandomService service) {
+		if (service == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(service);
+	}
+
+	/**
+	 * Draws a number from a stream of the current service.
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @return Number between 0 inclusive and 1 exclusive.
+	 */
+	public static double nextDouble(final Stream stream) {
+		return current().get(stream).nextDouble();
+	}
+
+	/**
+	 * Draws a number from a stream of the current service.
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @param bound
+	 *            Upper bound, must be positive.
+	 * @return Number between 0 inclusive and the bound exclusive.
+	 */
+	public static int nextInt(final Stream stream, final int bound) {
+		return current().get(stream).nextInt(bound);
+	}
+
+	/**
+	 * Getter for a stream of this service.
+	 *
+	 * @param stream
+	 *            Stream to get.
+	 * @return Random number generator of the stream.
+	 */
+	public SplittableRandom get(final Stream stream) {
+		return this.streams[stream.ordinal()];
+	}
+
+	/**
+	 * Getter for the seed the streams are derived from.
+	 *
+	 * @return Seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Scrambles the bits of a value, so that close seeds and names give
+	 * unrelated streams.
+	 *
+	 * @param value
+	 *            Value to scramble.
+	 * @return Scrambled value.
+	 */
+	private static long mix(final long value) {
+		long z = value + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
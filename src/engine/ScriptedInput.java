@@ -0,0 +1,71 @@
+package engine;
+
+/**
+ * Input source driven by code instead of the keyboard, for headless runs.
+ * Keys stay pressed until they are released.
+ */
+public final class ScriptedInput implements InputSource {
+
+	/** Number of recognised keys. */
+	private static final int NUM_KEYS = 256;
+
+	/** Keys marked as pressed or not. */
+	private final boolean[] keys = new boolean[NUM_KEYS];
+
+	/**
+	 * Marks a key as pressed.
+	 *
+	 * @param keyCode
+	 *            Key to press.
+	 */
+	public void press(final int keyCode) {
+		setKeyDown(keyCode, true);
+	}
+
+	/**
+	 * Marks a key as released.
+	 *
+	 * @param keyCode
+	 *            Key to release.
+	 */
+	public void release(final int keyCode) {
+		setKeyDown(keyCode, false);
+	}
+
+	/**
+	 * Changes the state of a key. Keys outside the recognised range are
+	 * ignored, like the keyboard does.
+	 *
+	 * @param keyCode
+	 *            Key to change.
+	 * @param down
+	 *            New key state.
+	 */
+	public void setKeyDown(final int keyCode, final boolean down) {
+		if (keyCode >= 0 && keyCode < NUM_KEYS)
+			this.keys[keyCode] = down;
+	}
+
+	/**
+	 * Releases every key.
+	 */
+	public void releaseAll() {
+		for (int i = 0; i < NUM_KEYS; i++)
+			this.keys[i] = false;
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return keyCode >= 0 && keyCode < NUM_KEYS && this.keys[keyCode];
+	}
+
+	@Override
+	public boolean isP1KeyDown(final int keyCode) {
+		return isKeyDown(keyCode);
+	}
+
+	@Override
+	public boolean isP2KeyDown(final int keyCode) {
+		return isKeyDown(keyCode);
+	}
+}
@@ -0,0 +1,256 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Caches pre-rasterized sprites, one image per sprite type and color pair.
+ *
+ * Sprites are stored as boolean matrices where every lit cell covers a 2x2
+ * block on screen. The first time a (sprite type, color) pair is requested it
+ * is rasterized into an ARGB image, so drawing an entity becomes a single
+ * image copy instead of one rectangle per lit cell.
+ *
+ * Entries live in an open-addressing table keyed by a primitive long, so a
+ * lookup does not allocate. When the cache is full the least recently used
+ * entry is evicted, which keeps runtime colors (level colors, shield tint,
+ * pulsing menu colors) from growing the cache without bound.
+ */
+public final class SpriteCache {
+
+	/** Size in pixels of every lit sprite cell. */
+	private static final int CELL_SIZE = 2;
+
+	/** Sprite matrices to rasterize from. */
+	private final Map<SpriteType, boolean[][]> spriteMap;
+	/** Maximum number of cached images. */
+	private final int capacity;
+	/** Mask used to wrap slot indexes, table length minus one. */
+	private final int mask;
+	/** Keys of the cached images, sprite ordinal and ARGB color. */
+	private final long[] keys;
+	/** Cached images, null marks an empty slot. */
+	private final BufferedImage[] images;
+	/** Last use stamp of every slot, for eviction. */
+	private final long[] lastUsed;
+	/** Number of cached images. */
+	private int size;
+	/** Monotonic use counter. */
+	private long useCounter;
+
+	/** Lookups served from the cache. */
+	private long hits;
+	/** Lookups that needed rasterizing. */
+	private long misses;
+	/** Images evicted to make room. */
+	private long evictions;
+
+	/**
+	 * Constructor, creates an empty cache.
+	 *
+	 * @param spriteMap
+	 *            Sprite types mapped to their boolean matrices.
+	 * @param capacity
+	 *            Maximum number of images kept at the same time.
+	 */
+	public SpriteCache(final Map<SpriteType, boolean[][]> spriteMap,
+			final int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive.");
+		this.spriteMap = spriteMap;
+		this.capacity = capacity;
+
+		// Keep the load factor at or below one half.
+		int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+		this.mask = tableSize - 1;
+		this.keys = new long[tableSize];
+		this.images = new BufferedImage[tableSize];
+		this.lastUsed = new long[tableSize];
+	}
+
+	/**
+	 * Returns the image of a sprite in a given color, rasterizing it the first
+	 * time the pair is requested.
+	 *
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param color
+	 *            Color of the lit cells.
+	 * @return Rasterized sprite, or null if the sprite is not loaded.
+	 */
+	public BufferedImage get(final SpriteType spriteType, final Color color) {
+		final int rgb = color.getRGB();
+		final long key = ((long) spriteType.ordinal() << 32)
+				| (rgb & 0xFFFFFFFFL);
+
+		int slot = slotFor(key);
+		while (this.images[slot] != null) {
+			if (this.keys[slot] == key) {
+				this.hits++;
+				this.lastUsed[slot] = ++this.useCounter;
+				return this.images[slot];
+			}
+			slot = (slot + 1) & this.mask;
+		}
+
+		this.misses++;
+		boolean[][] sprite = this.spriteMap.get(spriteType);
+		if (sprite == null)
+			return null;
+		BufferedImage image = rasterize(sprite, rgb);
+
+		if (this.size >= this.capacity) {
+			evictLeastRecentlyUsed();
+			// The table changed, look for a free slot again.
+			slot = slotFor(key);
+			while (this.images[slot] != null)
+				slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.images[slot] = image;
+		this.lastUsed[slot] = ++this.useCounter;
+		this.size++;
+		return image;
+	}
+
+	/**
+	 * Drops every cached image. Counters are kept.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.images.length; i++)
+			this.images[i] = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Getter for the number of lookups served from the cache.
+	 *
+	 * @return Cache hits.
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Getter for the number of lookups that needed rasterizing.
+	 *
+	 * @return Cache misses.
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Getter for the number of images evicted to make room.
+	 *
+	 * @return Evicted images.
+	 */
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * Getter for the number of images currently cached.
+	 *
+	 * @return Cached images.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Getter for the maximum number of cached images.
+	 *
+	 * @return Cache capacity.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Draws a sprite matrix into a transparent image.
+	 *
+	 * @param sprite
+	 *            Sprite matrix, indexed [x][y].
+	 * @param rgb
+	 *            ARGB color of the lit cells.
+	 * @return New image of the sprite.
+	 */
+	private static BufferedImage rasterize(final boolean[][] sprite,
+			final int rgb) {
+		int width = sprite.length;
+		int height = width > 0 ? sprite[0].length : 0;
+		BufferedImage image = new BufferedImage(
+				Math.max(1, width * CELL_SIZE),
+				Math.max(1, height * CELL_SIZE), BufferedImage.TYPE_INT_ARGB);
+
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < height; j++)
+				if (sprite[i][j])
+					for (int dx = 0; dx < CELL_SIZE; dx++)
+						for (int dy = 0; dy < CELL_SIZE; dy++)
+							image.setRGB(i * CELL_SIZE + dx,
+									j * CELL_SIZE + dy, rgb);
+		return image;
+	}
+
+	/**
+	 * Removes the least recently used image.
+	 */
+	private void evictLeastRecentlyUsed() {
+		int oldest = -1;
+		for (int i = 0; i < this.images.length; i++)
+			if (this.images[i] != null
+					&& (oldest < 0 || this.lastUsed[i] < this.lastUsed[oldest]))
+				oldest = i;
+		if (oldest >= 0) {
+			removeAt(oldest);
+			this.evictions++;
+		}
+	}
+
+	/**
+	 * Removes the entry in a slot, shifting back the entries of its probe
+	 * chain so that lookups keep finding them.
+	 *
+	 * @param slot
+	 *            Slot to empty.
+	 */
+	private void removeAt(final int slot) {
+		int hole = slot;
+		int i = slot;
+		while (true) {
+			i = (i + 1) & this.mask;
+			if (this.images[i] == null)
+				break;
+			int home = slotFor(this.keys[i]);
+			// The entry may fill the hole unless its home lies in (hole, i].
+			boolean homeBetween = hole <= i
+					? (home > hole && home <= i)
+					: (home > hole || home <= i);
+			if (!homeBetween) {
+				this.keys[hole] = this.keys[i];
+				this.images[hole] = this.images[i];
+				this.lastUsed[hole] = this.lastUsed[i];
+				hole = i;
+			}
+		}
+		this.images[hole] = null;
+		this.size--;
+	}
+
+	/**
+	 * Computes the home slot of a key.
+	 *
+	 * @param key
+	 *            Sprite and color key.
+	 * @return Home slot index.
+	 */
+	private int slotFor(final long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & this.mask;
+	}
+}
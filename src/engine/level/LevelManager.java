@@ -5,10 +5,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import engine.telemetry.LevelLoadEvent;
+import engine.telemetry.Telemetry;
+
 public class LevelManager {
 
     private List<Level> levels;
@@ -17,10 +23,39 @@ public class LevelManager {
         loadLevels();
     }
 
+    /**
+     * Loads the levels from a file in the maps.json format, without falling
+     * back to the default levels.
+     *
+     * @param file Level file to read.
+     * @throws IOException If the file can't be read or parsed.
+     */
+    public LevelManager(final Path file) throws IOException {
+        LevelLoadEvent event = Telemetry.beginLevelLoad();
+        long size = -1;
+        try {
+            String jsonContent = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            size = jsonContent.length();
+            try {
+                this.levels = JsonLoader.parse(jsonContent);
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid level file " + file + ": " + e.getMessage(), e);
+            }
+            if (this.levels == null) {
+                throw new IOException("No levels in " + file);
+            }
+        } finally {
+            Telemetry.commitLevelLoad(event, file.toString(), size, getNumberOfLevels(), false);
+        }
+    }
+
     /**
      * Loads the levels from the maps.json resource file.
      */
     private void loadLevels() {
+        LevelLoadEvent event = Telemetry.beginLevelLoad();
+        long size = -1;
+        boolean fallback = false;
         try (InputStream inputStream = LevelManager.class.getClassLoader().getResourceAsStream("maps/maps.json")) {
             if (inputStream == null) {
                 throw new IOException("Cannot find resource file: maps/maps.json");
@@ -30,6 +65,7 @@ public class LevelManager {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
                 jsonContent = reader.lines().collect(Collectors.joining("\n"));
             }
+            size = jsonContent.length();
             
             this.levels = JsonLoader.parse(jsonContent);
 
@@ -47,7 +83,9 @@ public class LevelManager {
             this.levels.add(new Level(5, 7, 6, 20, 1000));
             this.levels.add(new Level(6, 7, 7, 10, 1000));
             this.levels.add(new Level(7, 8, 7, 2, 500));
+            fallback = true;
         }
+        Telemetry.commitLevelLoad(event, "maps/maps.json", size, getNumberOfLevels(), fallback);
     }
     
     /**
@@ -69,6 +107,17 @@ public class LevelManager {
         return null;
     }
 
+    /**
+     * Returns every loaded level, in file order.
+     * @return The levels.
+     */
+    public List<Level> getLevels() {
+        if (this.levels == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(this.levels);
+    }
+
     /**
      * Returns the total number of levels loaded.
      * @return The number of levels.
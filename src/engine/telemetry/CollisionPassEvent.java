@@ -0,0 +1,38 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one collision pass of a game update.
+ */
+@Name("invaders.CollisionPass")
+@Label("Collision Pass")
+@Category({ "Invaders", "Engine" })
+@Description("One collision pass: what was tested, against how many entities.")
+@StackTrace(false)
+public final class CollisionPassEvent extends jdk.jfr.Event {
+
+	/** Name of the pass. */
+	@Label("Pass")
+	String pass;
+
+	/** Level played. */
+	@Label("Level")
+	int level;
+
+	/** Moving entities tested by the pass. */
+	@Label("Tested")
+	int tested;
+
+	/** Entities in the collision grid. */
+	@Label("Grid Entities")
+	int gridEntities;
+
+	/** Pairs the grid returned as candidates during the pass. */
+	@Label("Candidate Pairs")
+	long candidatePairs;
+}
@@ -0,0 +1,28 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a file saved by the file manager.
+ */
+@Name("invaders.FileSave")
+@Label("File Save")
+@Category({ "Invaders", "Resources" })
+@Description("High scores or achievements written to disk.")
+public final class FileSaveEvent extends jdk.jfr.Event {
+
+	/** File written. */
+	@Label("File")
+	String file;
+
+	/** Entries written. */
+	@Label("Entries")
+	int entries;
+
+	/** If the file was written completely. */
+	@Label("Success")
+	boolean success;
+}
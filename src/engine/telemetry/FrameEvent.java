@@ -0,0 +1,95 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of one game update: the time spent in every stage
+ * and the number of live entities afterwards. The event lasts the whole
+ * update.
+ */
+@Name("invaders.Frame")
+@Label("Game Frame")
+@Category({ "Invaders", "Engine" })
+@Description("One game update, with the time of every stage and the live entity counts.")
+@StackTrace(false)
+public final class FrameEvent extends jdk.jfr.Event {
+
+	/** Level played. */
+	@Label("Level")
+	int level;
+
+	/** Updates run by the screen so far. */
+	@Label("Tick")
+	long tick;
+
+	/** Reading the keys and moving and firing the ships. */
+	@Label("Input")
+	@Timespan(Timespan.NANOSECONDS)
+	long input;
+
+	/** Enemy formation update and shooting. */
+	@Label("Formation")
+	@Timespan(Timespan.NANOSECONDS)
+	long formation;
+
+	/** Boss reveal, movement and attacks. */
+	@Label("Boss")
+	@Timespan(Timespan.NANOSECONDS)
+	long boss;
+
+	/** Ship and special enemy updates. */
+	@Label("Ships")
+	@Timespan(Timespan.NANOSECONDS)
+	long ships;
+
+	/** Moving and recycling the dropped items. */
+	@Label("Clean Items")
+	@Timespan(Timespan.NANOSECONDS)
+	long cleanItems;
+
+	/** Filling the collision broadphase. */
+	@Label("Collision Grid")
+	@Timespan(Timespan.NANOSECONDS)
+	long collisionGrid;
+
+	/** Bullets against ships and enemies. */
+	@Label("Bullet Collisions")
+	@Timespan(Timespan.NANOSECONDS)
+	long bulletCollisions;
+
+	/** Ships against enemies. */
+	@Label("Ship Collisions")
+	@Timespan(Timespan.NANOSECONDS)
+	long shipCollisions;
+
+	/** Ships against dropped items. */
+	@Label("Item Collisions")
+	@Timespan(Timespan.NANOSECONDS)
+	long itemCollisions;
+
+	/** Moving and culling the bullets. */
+	@Label("Clean Bullets")
+	@Timespan(Timespan.NANOSECONDS)
+	long cleanBullets;
+
+	/** Live bullets. */
+	@Label("Bullets")
+	int bullets;
+
+	/** Dropped items on screen. */
+	@Label("Items")
+	int items;
+
+	/** Ships in the enemy formation. */
+	@Label("Enemies")
+	int enemies;
+
+	/** Boss bullets on screen. */
+	@Label("Boss Bullets")
+	int bossBullets;
+}
@@ -0,0 +1,34 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the level file being read and parsed.
+ */
+@Name("invaders.LevelLoad")
+@Label("Level Load")
+@Category({ "Invaders", "Resources" })
+@Description("Level file read and parsed.")
+public final class LevelLoadEvent extends jdk.jfr.Event {
+
+	/** File or resource read. */
+	@Label("Source")
+	String source;
+
+	/** Characters of level data parsed. */
+	@Label("Size")
+	@DataAmount(DataAmount.BYTES)
+	long size;
+
+	/** Levels loaded. */
+	@Label("Levels")
+	int levels;
+
+	/** If the loading failed and the built-in levels were used. */
+	@Label("Fallback")
+	boolean fallback;
+}
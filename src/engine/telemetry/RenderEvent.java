@@ -0,0 +1,34 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of one drawn frame. The event lasts from the start
+ * of the drawing until the back buffer is shown.
+ */
+@Name("invaders.Render")
+@Label("Frame Render")
+@Category({ "Invaders", "Engine" })
+@Description("One frame drawn to the back buffer and shown.")
+@StackTrace(false)
+public final class RenderEvent extends jdk.jfr.Event {
+
+	/** Level played. */
+	@Label("Level")
+	int level;
+
+	/** Drawing to the back buffer. */
+	@Label("Draw")
+	@Timespan(Timespan.NANOSECONDS)
+	long draw;
+
+	/** Showing the back buffer. */
+	@Label("Complete Drawing")
+	@Timespan(Timespan.NANOSECONDS)
+	long completeDrawing;
+}
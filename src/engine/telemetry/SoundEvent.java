@@ -0,0 +1,32 @@
+package engine.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a sound started by the sound manager.
+ */
+@Name("invaders.Sound")
+@Label("Sound Play")
+@Category({ "Invaders", "Audio" })
+@Description("Sound effect or music started, loading the clip if needed.")
+public final class SoundEvent extends jdk.jfr.Event {
+
+	/** Resource played. */
+	@Label("Resource")
+	String resource;
+
+	/** If the sound loops. */
+	@Label("Loop")
+	boolean loop;
+
+	/** If the clip was loaded by this call. */
+	@Label("Loaded")
+	boolean loaded;
+
+	/** If the clip could be played. */
+	@Label("Played")
+	boolean played;
+}
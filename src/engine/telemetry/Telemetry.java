@@ -0,0 +1,313 @@
+package engine.telemetry;
+
+import jdk.jfr.EventType;
+
+import engine.CollisionGrid;
+import engine.FrameProfiler;
+
+/**
+ * Emits the flight recorder events of the game, so a session can be
+ * profiled with the standard JDK Flight Recorder tools, for example by
+ * starting the game with {@code -XX:StartFlightRecording}.
+ *
+ * Every event is started with a {@code begin} method returning null when no
+ * recording wants it, and ended with the matching {@code commit} method,
+ * which does nothing when given null. When nothing is recorded, instrumented
+ * code only pays a check of the event settings, and allocates nothing.
+ */
+public final class Telemetry {
+
+	/** Type of the game update events. */
+	private static final EventType FRAME = EventType.getEventType(FrameEvent.class);
+	/** Type of the frame drawing events. */
+	private static final EventType RENDER = EventType.getEventType(RenderEvent.class);
+	/** Type of the collision pass events. */
+	private static final EventType COLLISION_PASS =
+			EventType.getEventType(CollisionPassEvent.class);
+	/** Type of the level loading events. */
+	private static final EventType LEVEL_LOAD =
+			EventType.getEventType(LevelLoadEvent.class);
+	/** Type of the sound events. */
+	private static final EventType SOUND = EventType.getEventType(SoundEvent.class);
+	/** Type of the file saving events. */
+	private static final EventType FILE_SAVE =
+			EventType.getEventType(FileSaveEvent.class);
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private Telemetry() {
+	}
+
+	/**
+	 * Starts the event of a game update.
+	 *
+	 * @return Started event, null if not recorded.
+	 */
+	public static FrameEvent beginFrame() {
+		if (!FRAME.isEnabled())
+			return null;
+		FrameEvent event = new FrameEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a game update, taking the stage times from the last
+	 * laps of the profiler.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginFrame()}, may be null.
+	 * @param profiler
+	 *            Profiler timing the update.
+	 * @param level
+	 *            Level played.
+	 * @param tick
+	 *            Updates run by the screen so far.
+	 * @param bullets
+	 *            Live bullets.
+	 * @param items
+	 *            Dropped items on screen.
+	 * @param enemies
+	 *            Ships in the enemy formation.
+	 * @param bossBullets
+	 *            Boss bullets on screen.
+	 */
+	public static void commitFrame(final FrameEvent event,
+			final FrameProfiler profiler, final int level, final long tick,
+			final int bullets, final int items, final int enemies,
+			final int bossBullets) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.level = level;
+		event.tick = tick;
+		event.input = profiler.takeLastLap(FrameProfiler.Phase.INPUT);
+		event.formation = profiler.takeLastLap(FrameProfiler.Phase.FORMATION);
+		event.boss = profiler.takeLastLap(FrameProfiler.Phase.BOSS);
+		event.ships = profiler.takeLastLap(FrameProfiler.Phase.SHIPS);
+		event.cleanItems = profiler.takeLastLap(FrameProfiler.Phase.CLEAN_ITEMS);
+		event.collisionGrid = profiler.takeLastLap(FrameProfiler.Phase.COLLISION_GRID);
+		event.bulletCollisions =
+				profiler.takeLastLap(FrameProfiler.Phase.BULLET_COLLISIONS);
+		event.shipCollisions =
+				profiler.takeLastLap(FrameProfiler.Phase.SHIP_COLLISIONS);
+		event.itemCollisions =
+				profiler.takeLastLap(FrameProfiler.Phase.ITEM_COLLISIONS);
+		event.cleanBullets = profiler.takeLastLap(FrameProfiler.Phase.CLEAN_BULLETS);
+		event.bullets = bullets;
+		event.items = items;
+		event.enemies = enemies;
+		event.bossBullets = bossBullets;
+		event.commit();
+	}
+
+	/**
+	 * Starts the event of a drawn frame.
+	 *
+	 * @return Started event, null if not recorded.
+	 */
+	public static RenderEvent beginRender() {
+		if (!RENDER.isEnabled())
+			return null;
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a drawn frame, taking the drawing times from the last
+	 * laps of the profiler.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginRender()}, may be null.
+	 * @param profiler
+	 *            Profiler timing the drawing.
+	 * @param level
+	 *            Level played.
+	 */
+	public static void commitRender(final RenderEvent event,
+			final FrameProfiler profiler, final int level) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.level = level;
+		event.draw = profiler.takeLastLap(FrameProfiler.Phase.DRAW);
+		event.completeDrawing =
+				profiler.takeLastLap(FrameProfiler.Phase.COMPLETE_DRAWING);
+		event.commit();
+	}
+
+	/**
+	 * Starts the event of a collision pass.
+	 *
+	 * @param grid
+	 *            Collision grid queried by the pass.
+	 * @return Started event, null if not recorded.
+	 */
+	public static CollisionPassEvent beginCollisionPass(final CollisionGrid grid) {
+		if (!COLLISION_PASS.isEnabled())
+			return null;
+		CollisionPassEvent event = new CollisionPassEvent();
+		event.candidatePairs = -grid.getCandidatePairs();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a collision pass.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginCollisionPass(CollisionGrid)},
+	 *            may be null.
+	 * @param grid
+	 *            Collision grid queried by the pass.
+	 * @param pass
+	 *            Name of the pass.
+	 * @param level
+	 *            Level played.
+	 * @param tested
+	 *            Moving entities tested by the pass.
+	 */
+	public static void commitCollisionPass(final CollisionPassEvent event,
+			final CollisionGrid grid, final String pass, final int level,
+			final int tested) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.pass = pass;
+		event.level = level;
+		event.tested = tested;
+		event.gridEntities = grid.getEntityCount();
+		event.candidatePairs += grid.getCandidatePairs();
+		event.commit();
+	}
+
+	/**
+	 * Starts the event of a level file load.
+	 *
+	 * @return Started event, null if not recorded.
+	 */
+	public static LevelLoadEvent beginLevelLoad() {
+		if (!LEVEL_LOAD.isEnabled())
+			return null;
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a level file load.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginLevelLoad()}, may be null.
+	 * @param source
+	 *            File or resource read.
+	 * @param size
+	 *            Characters of level data parsed, -1 if unknown.
+	 * @param levels
+	 *            Levels loaded.
+	 * @param fallback
+	 *            If the built-in levels were used instead.
+	 */
+	public static void commitLevelLoad(final LevelLoadEvent event,
+			final String source, final long size, final int levels,
+			final boolean fallback) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.source = source;
+		event.size = size;
+		event.levels = levels;
+		event.fallback = fallback;
+		event.commit();
+	}
+
+	/**
+	 * Starts the event of a sound being played.
+	 *
+	 * @return Started event, null if not recorded.
+	 */
+	public static SoundEvent beginSound() {
+		if (!SOUND.isEnabled())
+			return null;
+		SoundEvent event = new SoundEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a sound being played.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginSound()}, may be null.
+	 * @param resource
+	 *            Resource played.
+	 * @param loop
+	 *            If the sound loops.
+	 * @param loaded
+	 *            If the clip was loaded by this call.
+	 * @param played
+	 *            If the clip could be played.
+	 */
+	public static void commitSound(final SoundEvent event,
+			final String resource, final boolean loop, final boolean loaded,
+			final boolean played) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.resource = resource;
+		event.loop = loop;
+		event.loaded = loaded;
+		event.played = played;
+		event.commit();
+	}
+
+	/**
+	 * Starts the event of a file being saved.
+	 *
+	 * @return Started event, null if not recorded.
+	 */
+	public static FileSaveEvent beginFileSave() {
+		if (!FILE_SAVE.isEnabled())
+			return null;
+		FileSaveEvent event = new FileSaveEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event of a file being saved.
+	 *
+	 * @param event
+	 *            Event started by {@link #beginFileSave()}, may be null.
+	 * @param file
+	 *            File written.
+	 * @param entries
+	 *            Entries written.
+	 * @param success
+	 *            If the file was written completely.
+	 */
+	public static void commitFileSave(final FileSaveEvent event,
+			final String file, final int entries, final boolean success) {
+		if (event == null)
+			return;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.file = file;
+		event.entries = entries;
+		event.success = success;
+		event.commit();
+	}
+}
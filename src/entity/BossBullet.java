@@ -35,6 +35,27 @@ public class BossBullet extends Entity{
         this.dy = dy;
         this.spriteType = DrawManager.SpriteType.FinalBossBullet; // boss's bullet image = enemyBullet
     }
+    /**
+     * Reuses the bullet for a new shot.
+     *
+     * @param x
+     *            current x-coordinate
+     * @param y
+     *            current y-coordinate
+     * @param dx
+     *            amount of horizontal change
+     * @param dy
+     *            amount of vertical change
+     * @param color
+     *            bullet's color
+     */
+    public void reset(int x, int y, int dx, int dy, Color color) {
+        this.positionX = x;
+        this.positionY = y;
+        this.dx = dx;
+        this.dy = dy;
+        this.color = color;
+    }
     /**
      * move a bullet
      */
@@ -0,0 +1,71 @@
+package entity;
+
+import java.awt.Color;
+import java.util.List;
+
+import engine.ObjectPool;
+
+/**
+ * Implements a pool of recyclable boss bullets.
+ */
+public final class BossBulletPool {
+
+	/** Width of every boss bullet. */
+	private static final int WIDTH = 6;
+	/** Height of every boss bullet. */
+	private static final int HEIGHT = 10;
+
+	/** Already created boss bullets. */
+	private static final ThreadLocal<ObjectPool<BossBullet>> pool =
+			ThreadLocal.withInitial(() -> new ObjectPool<BossBullet>(
+					() -> new BossBullet(0, 0, 0, 0, WIDTH, HEIGHT, Color.yellow)));
+
+	/**
+	 * Constructor, not called.
+	 */
+	private BossBulletPool() {
+
+	}
+
+	/**
+	 * Returns a boss bullet from the pool if one is available, a new one if
+	 * there isn't.
+	 *
+	 * @param positionX
+	 *            Requested position of the bullet in the X axis.
+	 * @param positionY
+	 *            Requested position of the bullet in the Y axis.
+	 * @param dx
+	 *            Requested horizontal change per update.
+	 * @param dy
+	 *            Requested vertical change per update.
+	 * @param color
+	 *            Requested color of the bullet.
+	 * @return Requested boss bullet.
+	 */
+	public static BossBullet getBullet(final int positionX, final int positionY,
+			final int dx, final int dy, final Color color) {
+		BossBullet bullet = pool.get().acquire();
+		bullet.reset(positionX, positionY, dx, dy, color);
+		return bullet;
+	}
+
+	/**
+	 * Adds one or more boss bullets to the list of available ones.
+	 *
+	 * @param bullets
+	 *            Boss bullets to recycle.
+	 */
+	public static void recycle(final List<BossBullet> bullets) {
+		pool.get().releaseAll(bullets);
+	}
+
+	/**
+	 * Getter for the pool of the current thread, to pre-warm, trim or read statistics.
+	 *
+	 * @return Boss bullet pool.
+	 */
+	public static ObjectPool<BossBullet> getPool() {
+		return pool.get();
+	}
+}
@@ -1,7 +1,8 @@
 package entity;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+
+import engine.ObjectPool;
 
 /**
  * Implements a pool of recyclable bullets.
@@ -11,8 +12,10 @@ import java.util.Set;
  */
 public final class BulletPool {
 
-	/** Set of already created bullets. */
-	private static Set<Bullet> pool = new HashSet<Bullet>();
+	/** Already created bullets. */
+	private static final ThreadLocal<ObjectPool<Bullet>> pool =
+			ThreadLocal.withInitial(() -> new ObjectPool<Bullet>(
+					() -> new Bullet(0, 0, 0)));
 
 	/**
 	 * Constructor, not called.
@@ -36,19 +39,13 @@ public final class BulletPool {
 	 */
 	public static Bullet getBullet(final int positionX,
 			final int positionY, final int speed) {
-		Bullet bullet;
-		if (!pool.isEmpty()) {
-			bullet = pool.iterator().next();
-			pool.remove(bullet);
-			bullet.setPositionX(positionX - bullet.getWidth() / 2);
-			bullet.setPositionY(positionY);
-			bullet.setSpeed(speed);
-			bullet.resetPenetration();
-			bullet.setSprite();
-		} else {
-			bullet = new Bullet(positionX, positionY, speed);
-			bullet.setPositionX(positionX - bullet.getWidth() / 2);
-		}
+		Bullet bullet = pool.get().acquire();
+		bullet.setPositionX(positionX - bullet.getWidth() / 2);
+		bullet.setPositionY(positionY);
+		bullet.setSpeed(speed);
+		bullet.setOwnerId(null);
+		bullet.resetPenetration();
+		bullet.setSprite();
 		return bullet;
 	}
 
@@ -58,7 +55,16 @@ public final class BulletPool {
 	 * @param bullet
 	 *            Bullets to recycle.
 	 */
-	public static void recycle(final Set<Bullet> bullet) {
-		pool.addAll(bullet);
+	public static void recycle(final List<Bullet> bullet) {
+		pool.get().releaseAll(bullet);
+	}
+
+	/**
+	 * Getter for the pool of the current thread, to pre-warm, trim or read statistics.
+	 *
+	 * @return Bullet pool.
+	 */
+	public static ObjectPool<Bullet> getPool() {
+		return pool.get();
 	}
 }
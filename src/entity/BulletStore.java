@@ -0,0 +1,217 @@
+package entity;
+
+import java.util.Arrays;
+
+/**
+ * Stores every live bullet of a screen in parallel primitive arrays.
+ *
+ * A bullet is just an index into the arrays, so adding, moving and culling
+ * bullets does not allocate or hash. Removing a bullet moves the last one
+ * into its slot, which means indexes are only stable until the next removal;
+ * loops that remove while iterating should walk the store backwards.
+ */
+public final class BulletStore {
+
+	/** Owner of bullets shot by enemies. */
+	public static final int OWNER_ENEMY = 0;
+	/** Owner of bullets shot by the first player. */
+	public static final int OWNER_P1 = 1;
+	/** Owner of bullets shot by the second player. */
+	public static final int OWNER_P2 = 2;
+	/** Width of every bullet. */
+	public static final int WIDTH = 3 * 2;
+	/** Height of every bullet. */
+	public static final int HEIGHT = 5 * 2;
+
+	/** Initial capacity of the arrays. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Position in the x-axis of the left side of every bullet. */
+	private int[] positionX;
+	/** Position in the y-axis of the top side of every bullet. */
+	private int[] positionY;
+	/** Speed of every bullet, positive is down. */
+	private int[] speed;
+	/** Owner of every bullet. */
+	private int[] owner;
+	/** Hits every bullet can still go through. */
+	private int[] penetration;
+	/** Number of live bullets. */
+	private int size;
+
+	/**
+	 * Constructor, creates an empty store.
+	 */
+	public BulletStore() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor, creates an empty store.
+	 *
+	 * @param capacity
+	 *            Number of bullets to make room for.
+	 */
+	public BulletStore(final int capacity) {
+		int initial = Math.max(1, capacity);
+		this.positionX = new int[initial];
+		this.positionY = new int[initial];
+		this.speed = new int[initial];
+		this.owner = new int[initial];
+		this.penetration = new int[initial];
+	}
+
+	/**
+	 * Adds a bullet.
+	 *
+	 * @param centerX
+	 *            Position in the x-axis of the center of the bullet.
+	 * @param positionY
+	 *            Position in the y-axis of the bullet.
+	 * @param bulletSpeed
+	 *            Speed of the bullet, positive or negative depending on
+	 *            direction - positive is down.
+	 * @param bulletOwner
+	 *            Owner of the bullet.
+	 * @return Index of the new bullet.
+	 */
+	public int add(final int centerX, final int positionY,
+			final int bulletSpeed, final int bulletOwner) {
+		if (this.size == this.positionX.length)
+			grow();
+		int index = this.size++;
+		this.positionX[index] = centerX - WIDTH / 2;
+		this.positionY[index] = positionY;
+		this.speed[index] = bulletSpeed;
+		this.owner[index] = bulletOwner;
+		this.penetration[index] = ShopItem.getPenetrationCount();
+		return index;
+	}
+
+	/**
+	 * Removes a bullet, moving the last bullet into its slot.
+	 *
+	 * @param index
+	 *            Index of the bullet to remove.
+	 */
+	public void remove(final int index) {
+		int last = --this.size;
+		if (index != last) {
+			this.positionX[index] = this.positionX[last];
+			this.positionY[index] = this.positionY[last];
+			this.speed[index] = this.speed[last];
+			this.owner[index] = this.owner[last];
+			this.penetration[index] = this.penetration[last];
+		}
+	}
+
+	/**
+	 * Moves every bullet by its speed.
+	 */
+	public void updateAll() {
+		for (int i = 0; i < this.size; i++)
+			this.positionY[i] += this.speed[i];
+	}
+
+	/**
+	 * Removes the bullets whose position is outside a vertical band.
+	 *
+	 * @param minY
+	 *            Lowest position in the y-axis that is kept.
+	 * @param maxY
+	 *            Highest position in the y-axis that is kept.
+	 * @return Number of removed bullets.
+	 */
+	public int cull(final int minY, final int maxY) {
+		int removed = 0;
+		for (int i = this.size - 1; i >= 0; i--)
+			if (this.positionY[i] < minY || this.positionY[i] > maxY) {
+				remove(i);
+				removed++;
+			}
+		return removed;
+	}
+
+	/**
+	 * Counts a hit of a bullet going through a target.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return True if the bullet persists, false if it should be removed.
+	 */
+	public boolean penetrate(final int index) {
+		return --this.penetration[index] >= 0;
+	}
+
+	/**
+	 * Removes every bullet.
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Getter for the number of live bullets.
+	 *
+	 * @return Number of bullets.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Getter for the position in the x-axis of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Left side of the bullet.
+	 */
+	public int getPositionX(final int index) {
+		return this.positionX[index];
+	}
+
+	/**
+	 * Getter for the position in the y-axis of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Top side of the bullet.
+	 */
+	public int getPositionY(final int index) {
+		return this.positionY[index];
+	}
+
+	/**
+	 * Getter for the speed of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Speed of the bullet, positive is down.
+	 */
+	public int getSpeed(final int index) {
+		return this.speed[index];
+	}
+
+	/**
+	 * Getter for the owner of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return One of the OWNER constants.
+	 */
+	public int getOwner(final int index) {
+		return this.owner[index];
+	}
+
+	/**
+	 * Doubles the capacity of the arrays.
+	 */
+	private void grow() {
+		int capacity = this.positionX.length * 2;
+		this.positionX = Arrays.copyOf(this.positionX, capacity);
+		this.positionY = Arrays.copyOf(this.positionY, capacity);
+		this.speed = Arrays.copyOf(this.speed, capacity);
+		this.owner = Arrays.copyOf(this.owner, capacity);
+		this.penetration = Arrays.copyOf(this.penetration, capacity);
+	}
+}
@@ -2,7 +2,8 @@ package entity;
 import java.awt.Color;
 
 import engine.DrawManager.SpriteType;
-import java.util.Random;
+import engine.GameClock;
+import engine.RandomService;
 
 public class DropItem extends Entity {
     public enum ItemType {
@@ -20,7 +21,6 @@ public class DropItem extends Entity {
         }
 
         private static final ItemType[] VALUES = values();
-        private static final Random RANDOM = new Random();
         private static final int TOTAL_WEIGHT;
 
         static {
@@ -38,7 +38,7 @@ public class DropItem extends Entity {
          */
 
         public static ItemType selectItemType() {
-            int randomWeight = RANDOM.nextInt(TOTAL_WEIGHT);
+            int randomWeight = RandomService.nextInt(RandomService.Stream.DROPS, TOTAL_WEIGHT);
             int cumulativeWeight = 0;
 
             for (ItemType type : VALUES) {
@@ -53,9 +53,9 @@ public class DropItem extends Entity {
     }
 
     public static ItemType fromString(String text) {
-        for (ItemType b : ItemType.values()) {
-            if (b.name().equalsIgnoreCase(text)) {
-                return b;
+        for (int i = 0; i < ItemType.VALUES.length; i++) {
+            if (ItemType.VALUES[i].name().equalsIgnoreCase(text)) {
+                return ItemType.VALUES[i];
             }
         }
         return null;
@@ -102,7 +102,9 @@ public class DropItem extends Entity {
         }
     }
 
-    private static long freezeEndTime = 0;
+    /** End time of the freeze effect, kept per thread for parallel simulations. */
+    private static final ThreadLocal<long[]> FREEZE_END_TIME =
+            ThreadLocal.withInitial(() -> new long[1]);
 
     /**
      * enemy push
@@ -115,11 +117,7 @@ public class DropItem extends Entity {
         }
 
         // All enemyship push
-        for (EnemyShip enemy : enemyShipFormation) {
-            if (enemy != null && !enemy.isDestroyed()) {
-                enemy.move(0, -distanceY);
-            }
-        }
+        enemyShipFormation.pushBack(distanceY);
     }
 
     /**
@@ -130,7 +128,14 @@ public class DropItem extends Entity {
      */
     public static void applyTimeFreezeItem(int durationMillis) {
         // current Time + duration Time = End Time
-        freezeEndTime = System.currentTimeMillis() + durationMillis;
+        FREEZE_END_TIME.get()[0] = GameClock.currentTimeMillis() + durationMillis;
+    }
+
+    /**
+     * Cancels the freeze effect, for a game starting on a reused thread.
+     */
+    public static void resetTimeFreeze() {
+        FREEZE_END_TIME.get()[0] = 0;
     }
 
     /**
@@ -139,11 +144,13 @@ public class DropItem extends Entity {
      * @return If returning true, don't move all enemy ship except special enemy
      */
     public static boolean isTimeFreezeActive() {
-        if (freezeEndTime > 0 && System.currentTimeMillis() < freezeEndTime) {
+        long[] freezeEndTime = FREEZE_END_TIME.get();
+        long now = GameClock.currentTimeMillis();
+        if (freezeEndTime[0] > 0 && now < freezeEndTime[0]) {
             return true;
         }
-        if (freezeEndTime > 0 && System.currentTimeMillis() >= freezeEndTime) {
-            freezeEndTime = 0;
+        if (freezeEndTime[0] > 0 && now >= freezeEndTime[0]) {
+            freezeEndTime[0] = 0;
         }
         return false;
     }
@@ -181,7 +188,7 @@ public class DropItem extends Entity {
         this.setSprite();
     }
     public static ItemType getRandomItemType(final double proba) {
-        if (Math.random() < proba){
+        if (RandomService.nextDouble(RandomService.Stream.DROPS) < proba){
             return ItemType.selectItemType();
         }
         else {
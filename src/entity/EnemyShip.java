@@ -164,7 +164,6 @@ public class EnemyShip extends Entity {
         if (!this.isDestroyed) {
             this.isDestroyed = true;
             this.spriteType = SpriteType.Explosion;
-			SoundManager.stop("sfx/disappearance.wav");
             SoundManager.play("sfx/disappearance.wav");
             this.explosionCooldown.reset();
         }
@@ -195,6 +194,24 @@ public class EnemyShip extends Entity {
 		this.X_SPEED = x_speed;
 	}
 
+	/**
+	 * Puts a special ship back to its starting properties, so it can appear
+	 * again without creating a new ship.
+	 *
+	 * @param direction
+	 *            Starting direction of the ship.
+	 * @param x_speed
+	 *            Speed of the ship in the X axis.
+	 */
+	public final void respawn(final Direction direction, final int x_speed) {
+		this.positionX = -32;
+		this.positionY = 60;
+		this.direction = direction;
+		this.X_SPEED = x_speed;
+		this.spriteType = SpriteType.EnemyShipSpecial;
+		this.isDestroyed = false;
+	}
+
     /**
      * Check if the explosion effect is finished.
      * @return True if the explosion is finished.
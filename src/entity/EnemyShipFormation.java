@@ -1,10 +1,10 @@
 package entity;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.Collections;
 import java.awt.Color;
@@ -16,6 +16,7 @@ import engine.Core;
 import engine.DrawManager;
 import engine.DrawManager.SpriteType;
 import engine.GameSettings;
+import engine.RandomService;
 import engine.level.Level;
 /**
  * Groups enemy ships into a formation that moves together.
@@ -49,6 +50,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private static final int DESCENT_DISTANCE = 20;
 	/** Minimum speed allowed. */
 	private static final int MINIMUM_SPEED = 10;
+	/** Subsystem of the formation log messages. */
+	private static final String LOG_SUBSYSTEM = "formation";
 
 	/** DrawManager instance. */
 	private DrawManager drawManager;
@@ -61,6 +64,16 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 	/** List of enemy ships forming the formation. */
 	private List<List<EnemyShip>> enemyShips;
+	/** Ships indexed by their original [column][row] slot, for hit tests. */
+	private EnemyShip[][] lattice;
+	/** Position in the x-axis of the original upper left slot. */
+	private int latticeX;
+	/** Position in the y-axis of the original upper left slot. */
+	private int latticeY;
+	/** Ships still in the formation, in column-major order. */
+	private EnemyShip[] members;
+	/** Number of ships in the members array. */
+	private int memberCount;
 	/** Minimum time between shots. */
 	private Cooldown shootingCooldown;
 	/** Number of ships in the formation - horizontally. */
@@ -128,7 +141,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	public EnemyShipFormation(final GameSettings gameSettings) {
 		this.drawManager = Core.getDrawManager();
-		this.logger = Core.getLogger();
+		this.logger = Core.getLogger(LOG_SUBSYSTEM);
 		this.enemyShips = new ArrayList<List<EnemyShip>>();
 		this.currentDirection = Direction.DOWN_RIGHT;
 		this.movementInterval = 0;
@@ -179,6 +192,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 		for (List<EnemyShip> column : this.enemyShips)
 			this.shooters.add(column.get(column.size() - 1));
+
+		buildLattice();
 	}
 
     /**
@@ -187,7 +202,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
      */
     public EnemyShipFormation(final Level level) {
         this.drawManager = Core.getDrawManager();
-        this.logger = Core.getLogger();
+        this.logger = Core.getLogger(LOG_SUBSYSTEM);
         this.enemyShips = new ArrayList<List<EnemyShip>>();
         this.currentDirection = Direction.DOWN_RIGHT;
         this.movementInterval = 0;
@@ -248,8 +263,42 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
         for (List<EnemyShip> column : this.enemyShips)
             this.shooters.add(column.get(column.size() - 1));
+
+        buildLattice();
     }
 
+	/**
+	 * Records every ship in its [column][row] slot. Ships keep their slot
+	 * even when columns are emptied, so a position maps straight to it.
+	 */
+	private void buildLattice() {
+		this.lattice = new EnemyShip[this.nShipsWide][this.nShipsHigh];
+		for (int i = 0; i < this.enemyShips.size(); i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
+			for (int j = 0; j < column.size(); j++)
+				this.lattice[i][j] = column.get(j);
+		}
+		this.latticeX = this.positionX;
+		this.latticeY = this.positionY;
+		this.members = new EnemyShip[this.nShipsWide * this.nShipsHigh];
+		rebuildMembers();
+	}
+
+	/**
+	 * Refills the members array from the columns, keeping column-major order.
+	 */
+	private void rebuildMembers() {
+		int count = 0;
+		for (int i = 0; i < this.enemyShips.size(); i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
+			for (int j = 0; j < column.size(); j++)
+				this.members[count++] = column.get(j);
+		}
+		for (int i = count; i < this.memberCount; i++)
+			this.members[i] = null;
+		this.memberCount = count;
+	}
+
 	/**
 	 * Associates the formation to a given screen.
 	 *
@@ -307,46 +356,46 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
             if (currentDirection == Direction.DOWN_RIGHT) {
                 if (isAtBottom && isAtRightSide) {
                     currentDirection = Direction.UP_LEFT;
-                    this.logger.info("Formation now moving up-left (hit corner)");
+                    this.logger.fine("Formation now moving up-left (hit corner)");
                 } else if (isAtBottom) {
                     currentDirection = Direction.UP_RIGHT;
-                    this.logger.info("Formation now moving up-right (hit bottom)");
+                    this.logger.fine("Formation now moving up-right (hit bottom)");
                 } else if (isAtRightSide) {
                     currentDirection = Direction.DOWN_LEFT;
-                    this.logger.info("Formation now moving down-left (hit right wall)");
+                    this.logger.fine("Formation now moving down-left (hit right wall)");
                 }
             } else if (currentDirection == Direction.DOWN_LEFT) {
                 if (isAtBottom && isAtLeftSide) {
                     currentDirection = Direction.UP_RIGHT;
-                    this.logger.info("Formation now moving up-right (hit corner)");
+                    this.logger.fine("Formation now moving up-right (hit corner)");
                 } else if (isAtBottom) {
                     currentDirection = Direction.UP_LEFT;
-                    this.logger.info("Formation now moving up-left (hit bottom)");
+                    this.logger.fine("Formation now moving up-left (hit bottom)");
                 } else if (isAtLeftSide) {
                     currentDirection = Direction.DOWN_RIGHT;
-                    this.logger.info("Formation now moving down-right (hit left wall)");
+                    this.logger.fine("Formation now moving down-right (hit left wall)");
                 }
             } else if (currentDirection == Direction.UP_RIGHT) {
                 if (isAtTop && isAtRightSide) {
                     currentDirection = Direction.DOWN_LEFT;
-                    this.logger.info("Formation now moving down-left (hit corner)");
+                    this.logger.fine("Formation now moving down-left (hit corner)");
                 } else if (isAtTop) {
                     currentDirection = Direction.DOWN_RIGHT;
-                    this.logger.info("Formation now moving down-right (back to top)");
+                    this.logger.fine("Formation now moving down-right (back to top)");
                 } else if (isAtRightSide) {
                     currentDirection = Direction.UP_LEFT;
-                    this.logger.info("Formation now moving up-left (hit right wall)");
+                    this.logger.fine("Formation now moving up-left (hit right wall)");
                 }
             } else if (currentDirection == Direction.UP_LEFT) {
                 if (isAtTop && isAtLeftSide) {
                     currentDirection = Direction.DOWN_RIGHT;
-                    this.logger.info("Formation now moving down-right (hit corner)");
+                    this.logger.fine("Formation now moving down-right (hit corner)");
                 } else if (isAtTop) {
                     currentDirection = Direction.DOWN_LEFT;
-                    this.logger.info("Formation now moving down-left (back to top)");
+                    this.logger.fine("Formation now moving down-left (back to top)");
                 } else if (isAtLeftSide) {
                     currentDirection = Direction.UP_RIGHT;
-                    this.logger.info("Formation now moving up-right (hit left wall)");
+                    this.logger.fine("Formation now moving up-right (hit left wall)");
                 }
             }
 
@@ -368,27 +417,36 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 			positionX += movementX;
 			positionY += movementY;
 
-			// Cleans explosions.
-			List<EnemyShip> destroyed;
-			for (List<EnemyShip> column : this.enemyShips) {
-				destroyed = new ArrayList<EnemyShip>();
-				for (EnemyShip ship : column) {
+			// Cleans explosions, before the lattice moves, so a ship's
+			// position still maps to its slot.
+			boolean removed = false;
+			for (int i = 0; i < this.enemyShips.size(); i++) {
+				List<EnemyShip> column = this.enemyShips.get(i);
+				for (int j = column.size() - 1; j >= 0; j--) {
+					EnemyShip ship = column.get(j);
 					if (ship != null && ship.isExplosionFinished()) {
-						destroyed.add(ship);
-						this.logger.info("Removed enemy "
-								+ column.indexOf(ship) + " from column "
-								+ this.enemyShips.indexOf(column));
+						column.remove(j);
+						removeFromLattice(ship);
+						removed = true;
+						if (this.logger.isLoggable(java.util.logging.Level.FINE))
+							this.logger.fine("Removed enemy " + j
+									+ " from column " + i);
 					}
 				}
-
-				column.removeAll(destroyed);
 			}
-
-			for (List<EnemyShip> column : this.enemyShips)
-				for (EnemyShip enemyShip : column) {
+			if (removed)
+				rebuildMembers();
+			latticeX += movementX;
+			latticeY += movementY;
+
+			for (int i = 0; i < this.enemyShips.size(); i++) {
+				List<EnemyShip> column = this.enemyShips.get(i);
+				for (int j = 0; j < column.size(); j++) {
+					EnemyShip enemyShip = column.get(j);
 					enemyShip.move(movementX, movementY);
 					enemyShip.update();
 				}
+			}
 		}
 	}
 
@@ -396,10 +454,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Cleans empty columns, adjusts the width and height of the formation.
 	 */
 	private void cleanUp() {
-		Set<Integer> emptyColumns = new HashSet<Integer>();
 		int maxColumn = 0;
 		int minPositionY = Integer.MAX_VALUE;
-		for (List<EnemyShip> column : this.enemyShips) {
+		// Backwards, so removing a column does not shift the ones left to visit.
+		for (int index = this.enemyShips.size() - 1; index >= 0; index--) {
+			List<EnemyShip> column = this.enemyShips.get(index);
 			if (!column.isEmpty()) {
 				// Height of this column
 				int columnSize = column.get(column.size() - 1).positionY
@@ -409,18 +468,17 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 						.getPositionY());
 			} else {
 				// Empty column, we remove it.
-				emptyColumns.add(this.enemyShips.indexOf(column));
+				this.enemyShips.remove(index);
+				if (logger.isLoggable(java.util.logging.Level.FINE))
+					logger.fine("Removed column " + index);
 			}
 		}
-		for (int index : emptyColumns) {
-			this.enemyShips.remove(index);
-			logger.info("Removed column " + index);
-		}
 
 		int leftMostPoint = 0;
 		int rightMostPoint = 0;
 
-		for (List<EnemyShip> column : this.enemyShips) {
+		for (int i = 0; i < this.enemyShips.size(); i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
 			if (!column.isEmpty()) {
 				if (leftMostPoint == 0)
 					leftMostPoint = column.get(0).getPositionX();
@@ -439,18 +497,19 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Shoots a bullet downwards.
 	 *
 	 * @param bullets
-	 *            Bullets set to add the bullet being shot.
+	 *            Bullet store to add the bullet being shot.
 	 */
-	public final void shoot(final Set<Bullet> bullets) {
+	public final void shoot(final BulletStore bullets) {
 		// For now, only ships in the bottom row are able to shoot.
 		if (this.shooters.isEmpty()) {return; }
-		int index = (int) (Math.random() * this.shooters.size());
+		int index = RandomService.nextInt(RandomService.Stream.ENEMY_FIRE,
+				this.shooters.size());
 		EnemyShip shooter = this.shooters.get(index);
 
 		if (this.shootingCooldown.checkFinished()) {
 			this.shootingCooldown.reset();
-			bullets.add(BulletPool.getBullet(shooter.getPositionX()
-					+ shooter.width / 2, shooter.getPositionY(), BULLET_SPEED));
+			bullets.add(shooter.getPositionX() + shooter.width / 2,
+					shooter.getPositionY(), BULLET_SPEED, BulletStore.OWNER_ENEMY);
 		}
 	}
 
@@ -461,22 +520,24 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 *            Ship to be destroyed.
 	 */
 	public final void destroy(final EnemyShip destroyedShip) {
-		for (List<EnemyShip> column : this.enemyShips)
+		for (int c = 0; c < this.enemyShips.size(); c++) {
+			List<EnemyShip> column = this.enemyShips.get(c);
 			for (int i = 0; i < column.size(); i++)
 				if (column.get(i).equals(destroyedShip)) {
 					column.get(i).destroy();
-					this.logger.info("Destroyed ship in ("
-							+ this.enemyShips.indexOf(column) + "," + i + ")");
+					if (this.logger.isLoggable(java.util.logging.Level.FINE))
+						this.logger.fine("Destroyed ship in (" + c + "," + i + ")");
 				}
+		}
 
 		// Updates the list of ships that can shoot the player.
 		if (this.shooters.contains(destroyedShip)) {
 			int destroyedShipIndex = this.shooters.indexOf(destroyedShip);
 			int destroyedShipColumnIndex = -1;
 
-			for (List<EnemyShip> column : this.enemyShips)
-				if (column.contains(destroyedShip)) {
-					destroyedShipColumnIndex = this.enemyShips.indexOf(column);
+			for (int i = 0; i < this.enemyShips.size(); i++)
+				if (this.enemyShips.get(i).contains(destroyedShip)) {
+					destroyedShipColumnIndex = i;
 					break;
 				}
 
@@ -487,8 +548,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 				this.shooters.set(destroyedShipIndex, nextShooter);
 			else {
 				this.shooters.remove(destroyedShipIndex);
-				this.logger.info("Shooters list reduced to "
-						+ this.shooters.size() + " members.");
+				if (this.logger.isLoggable(java.util.logging.Level.FINE))
+					this.logger.fine("Shooters list reduced to "
+							+ this.shooters.size() + " members.");
 			}
 		}
 
@@ -503,10 +565,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * @return New shooter ship.
 	 */
 	public final EnemyShip getNextShooter(final List<EnemyShip> column) {
-		Iterator<EnemyShip> iterator = column.iterator();
 		EnemyShip nextShooter = null;
-		while (iterator.hasNext()) {
-			EnemyShip checkShip = iterator.next();
+		for (int i = 0; i < column.size(); i++) {
+			EnemyShip checkShip = column.get(i);
 			if (checkShip != null && !checkShip.isDestroyed())
 				nextShooter = checkShip;
 		}
@@ -514,6 +575,108 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		return nextShooter;
 	}
 
+	/**
+	 * Finds a ship of the formation that is not destroyed and overlaps a box.
+	 * The box is mapped straight to the lattice slots it can touch, so only
+	 * those slots are checked instead of the whole formation.
+	 *
+	 * @param positionX
+	 *            Left side of the box.
+	 * @param positionY
+	 *            Top side of the box.
+	 * @param boxWidth
+	 *            Width of the box.
+	 * @param boxHeight
+	 *            Height of the box.
+	 * @return Overlapped ship, or null if there is none.
+	 */
+	public final EnemyShip hitTest(final int positionX, final int positionY,
+			final int boxWidth, final int boxHeight) {
+		if (this.lattice == null || this.shipCount <= 0)
+			return null;
+		int localX = positionX - this.latticeX;
+		int localY = positionY - this.latticeY;
+		// Slots whose ship may reach the box, as ships are smaller than a slot.
+		int column0 = Math.max(0, Math.floorDiv(localX - this.shipWidth + 1,
+				SEPARATION_DISTANCE));
+		int column1 = Math.min(this.lattice.length - 1, Math.floorDiv(
+				localX + boxWidth - 1, SEPARATION_DISTANCE));
+		int row0 = Math.max(0, Math.floorDiv(localY - this.shipHeight + 1,
+				SEPARATION_DISTANCE));
+		int row1 = Math.min(this.nShipsHigh - 1, Math.floorDiv(
+				localY + boxHeight - 1, SEPARATION_DISTANCE));
+
+		for (int column = column0; column <= column1; column++)
+			for (int row = row0; row <= row1; row++) {
+				EnemyShip ship = this.lattice[column][row];
+				if (ship != null && !ship.isDestroyed()
+						&& ship.getPositionX() < positionX + boxWidth
+						&& positionX < ship.getPositionX() + ship.getWidth()
+						&& ship.getPositionY() < positionY + boxHeight
+						&& positionY < ship.getPositionY() + ship.getHeight())
+					return ship;
+			}
+		return null;
+	}
+
+	/**
+	 * Finds a ship of the formation that is not destroyed and overlaps an
+	 * entity.
+	 *
+	 * @param entity
+	 *            Entity to test, usually a bullet or the player ship.
+	 * @return Overlapped ship, or null if there is none.
+	 */
+	public final EnemyShip hitTest(final Entity entity) {
+		return hitTest(entity.getPositionX(), entity.getPositionY(),
+				entity.getWidth(), entity.getHeight());
+	}
+
+	/**
+	 * Finds a ship of the formation that is not destroyed and covers a point.
+	 *
+	 * @param positionX
+	 *            Position of the point in the x-axis.
+	 * @param positionY
+	 *            Position of the point in the y-axis.
+	 * @return Ship under the point, or null if there is none.
+	 */
+	public final EnemyShip hitTest(final int positionX, final int positionY) {
+		return hitTest(positionX, positionY, 1, 1);
+	}
+
+	/**
+	 * Pushes every ship of the formation upwards.
+	 *
+	 * @param distance
+	 *            Distance to push the ships back.
+	 */
+	public final void pushBack(final int distance) {
+		for (int i = 0; i < this.enemyShips.size(); i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
+			for (int j = 0; j < column.size(); j++)
+				column.get(j).move(0, -distance);
+		}
+		this.positionY -= distance;
+		this.latticeY -= distance;
+	}
+
+	/**
+	 * Frees the lattice slot of a ship removed from the formation.
+	 *
+	 * @param ship
+	 *            Removed ship.
+	 */
+	private void removeFromLattice(final EnemyShip ship) {
+		int column = Math.floorDiv(ship.getPositionX() - this.latticeX,
+				SEPARATION_DISTANCE);
+		int row = Math.floorDiv(ship.getPositionY() - this.latticeY,
+				SEPARATION_DISTANCE);
+		if (column >= 0 && column < this.lattice.length && row >= 0
+				&& row < this.nShipsHigh && this.lattice[column][row] == ship)
+			this.lattice[column][row] = null;
+	}
+
 	/**
 	 * Returns an iterator over the ships in the formation.
 	 *
@@ -521,13 +684,60 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	@Override
 	public final Iterator<EnemyShip> iterator() {
-		Set<EnemyShip> enemyShipsList = new HashSet<EnemyShip>();
+		return new Iterator<EnemyShip>() {
+			/** Index of the next ship to return. */
+			private int next = 0;
 
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				enemyShipsList.add(enemyShip);
+			@Override
+			public boolean hasNext() {
+				return this.next < memberCount;
+			}
+
+			@Override
+			public EnemyShip next() {
+				if (this.next >= memberCount)
+					throw new NoSuchElementException();
+				return members[this.next++];
+			}
+		};
+	}
 
-		return enemyShipsList.iterator();
+	/**
+	 * Getter for the number of ships in the formation, including the ones
+	 * still exploding.
+	 *
+	 * @return Number of ships reachable by {@link #get(int)}.
+	 */
+	public final int size() {
+		return this.memberCount;
+	}
+
+	/**
+	 * Getter for a ship of the formation. Ships are ordered by column, then
+	 * by row, and keep their relative order while the formation shrinks.
+	 *
+	 * @param index
+	 *            Index of the ship, below {@link #size()}.
+	 * @return Ship at the given index.
+	 */
+	public final EnemyShip get(final int index) {
+		if (index < 0 || index >= this.memberCount)
+			throw new IndexOutOfBoundsException("Index: " + index
+					+ ", size: " + this.memberCount);
+		return this.members[index];
+	}
+
+	/**
+	 * Runs an action on every ship that is not destroyed, in the same order
+	 * as {@link #get(int)}.
+	 *
+	 * @param action
+	 *            Action to run on each ship.
+	 */
+	public final void forEachAlive(final Consumer<? super EnemyShip> action) {
+		for (int i = 0; i < this.memberCount; i++)
+			if (!this.members[i].isDestroyed())
+				action.accept(this.members[i]);
 	}
 
 	/**
@@ -538,8 +748,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 	public final int destroyAll() {
 		int destroyed = 0;
-		for (List<EnemyShip> column : this.enemyShips) {
-			for (EnemyShip enemyShip : column) {
+		for (int i = 0; i < this.enemyShips.size(); i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
+			for (int j = 0; j < column.size(); j++) {
+				EnemyShip enemyShip = column.get(j);
 				if (!enemyShip.isDestroyed()) {
 					enemyShip.destroy();
 					destroyed++;
@@ -596,10 +808,13 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
 	public final void clear() {
-		for (List<EnemyShip> column : this.enemyShips) {
-			column.clear();
-		}
+		for (int i = 0; i < this.enemyShips.size(); i++)
+			this.enemyShips.get(i).clear();
 		this.enemyShips.clear();
+		this.lattice = null;
+		for (int i = 0; i < this.memberCount; i++)
+			this.members[i] = null;
+		this.memberCount = 0;
 		this.shipCount = 0;
 	}
 
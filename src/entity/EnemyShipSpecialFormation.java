@@ -20,6 +20,10 @@ import engine.GameSettings;
  */
 public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
 
+    /**
+     * Number of ship slots, red and blue.
+     */
+    public static final int MAX_SHIPS = 2;
     /**
      * Lateral speed of the formation.
      */
@@ -49,6 +53,8 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
 
     private EnemyShip enemyShipSpecialRed;
     private EnemyShip enemyShipSpecialBlue;
+    /** Red ship removed after exploding, reused when it appears again. */
+    private EnemyShip spareSpecialRed;
     /**
      * Minimum time between shots.
      */
@@ -170,7 +176,12 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
 
         // recreate special enemy by CoolDown
         if (this.enemyShipSpecialCooldown.checkFinished()) {
-            this.enemyShipSpecialRed = new EnemyShip(Color.RED, EnemyShip.Direction.RIGHT, 2);
+            if (this.enemyShipSpecialRed == null)
+                this.enemyShipSpecialRed = this.spareSpecialRed;
+            if (this.enemyShipSpecialRed == null)
+                this.enemyShipSpecialRed = new EnemyShip(Color.RED, EnemyShip.Direction.RIGHT, 2);
+            else
+                this.enemyShipSpecialRed.respawn(EnemyShip.Direction.RIGHT, 2);
             this.enemyShipSpecialCooldown.reset();
             this.logger.info("A special ship appears");
         }
@@ -210,6 +221,7 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
             /** explosion logic **/
             } else if (this.enemyShipSpecialExplosionCooldown.checkFinished())
                 if (color == Color.RED) {
+                    this.spareSpecialRed = this.enemyShipSpecialRed;
                     this.enemyShipSpecialRed = null;
                 } else if (color == Color.BLUE) {
                     this.enemyShipSpecialBlue = null;
@@ -255,9 +267,56 @@ public class EnemyShipSpecialFormation implements Iterable<EnemyShip> {
          */
         @Override
         public final Iterator<EnemyShip> iterator() {
-            return java.util.stream.Stream.of(enemyShipSpecialRed, enemyShipSpecialBlue)
-                    .filter(java.util.Objects::nonNull)        // null Exception
-                    .iterator();
+            return new Iterator<EnemyShip>() {
+                /** Next slot to look at. */
+                private int next = skipEmpty(0);
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < MAX_SHIPS;
+                }
+
+                @Override
+                public EnemyShip next() {
+                    if (this.next >= MAX_SHIPS)
+                        throw new java.util.NoSuchElementException();
+                    EnemyShip ship = getShip(this.next);
+                    this.next = skipEmpty(this.next + 1);
+                    return ship;
+                }
+            };
+        }
+
+        /**
+         * Getter for the ship in a slot of the formation.
+         *
+         * @param index
+         *            Slot index, 0 for the red ship and 1 for the blue ship.
+         * @return Ship in the slot, or null if it is empty.
+         */
+        public final EnemyShip getShip(final int index) {
+            switch (index) {
+                case 0:
+                    return this.enemyShipSpecialRed;
+                case 1:
+                    return this.enemyShipSpecialBlue;
+                default:
+                    throw new IndexOutOfBoundsException("Index: " + index);
+            }
+        }
+
+        /**
+         * Finds the first slot holding a ship, starting at a given slot.
+         *
+         * @param index
+         *            First slot to look at.
+         * @return Slot of a ship, or MAX_SHIPS if there is none left.
+         */
+        private int skipEmpty(final int index) {
+            int slot = index;
+            while (slot < MAX_SHIPS && getShip(slot) == null)
+                slot++;
+            return slot;
         }
 
 }
\ No newline at end of file
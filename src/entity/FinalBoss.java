@@ -4,15 +4,18 @@ import audio.SoundManager;
 import engine.DrawManager;
 import engine.Cooldown;
 import engine.Core;
+import engine.RandomService;
 import screen.GameScreen;
 
 import java.awt.*;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
 import java.util.logging.Logger;
 
 public class FinalBoss extends Entity implements BossEntity{
 
+    /** horizontal changes of the first shooting pattern */
+    private static final int[] SHOOT1_SPREAD = {0,1,-1,2,-2};
+
     private int healPoint;
     private int maxHp;
     private final int pointValue;
@@ -81,7 +84,6 @@ public class FinalBoss extends Entity implements BossEntity{
     @Override
     public void takeDamage(int damage){
         this.healPoint -= damage;
-        SoundManager.stop("sfx/pikachu.wav");
         SoundManager.play("sfx/pikachu.wav");
         if(this.healPoint <= 0){
             this.destroy();
@@ -143,44 +145,31 @@ public class FinalBoss extends Entity implements BossEntity{
 
 
     /** first shooting pattern of final boss */
-    public Set<BossBullet> shoot1(){
+    public void shoot1(final Collection<BossBullet> bullets){
         if(this.shootCooldown1.checkFinished()){
             this.shootCooldown1.reset();
-            Set<BossBullet> bullets = new HashSet<>();
-            int arr[] = {0,1,-1,2,-2};
-            for (int i : arr){
-                BossBullet bullet = new BossBullet(this.getPositionX() + this.getWidth() / 2 - 3,this.getPositionY() + this.getHeight(), i,4,6,10,Color.yellow);
-                bullets.add(bullet);
+            for (int i : SHOOT1_SPREAD){
+                bullets.add(BossBulletPool.getBullet(this.getPositionX() + this.getWidth() / 2 - 3,this.getPositionY() + this.getHeight(), i,4,Color.yellow));
             }
-            return bullets;
         }
-        return java.util.Collections.emptySet();
     }
     /** second shooting pattern of final boss */
-    public Set<BossBullet> shoot2() {
+    public void shoot2(final Collection<BossBullet> bullets) {
         if (this.shootCooldown2.checkFinished()) {
             this.shootCooldown2.reset();
-            Set<BossBullet> bullets = new HashSet<>();
-            int randomX = (int) (Math.random() * screenWidth);
-            BossBullet bullet = new BossBullet(randomX, 1, 0, 2,6,10,Color.yellow);
-            bullets.add(bullet);
-            return bullets;
+            int randomX = RandomService.nextInt(RandomService.Stream.BOSS, screenWidth);
+            bullets.add(BossBulletPool.getBullet(randomX, 1, 0, 2,Color.yellow));
         }
-        return java.util.Collections.emptySet();
     }
     /** third shooting pattern of final boss */
-    public Set<BossBullet> shoot3() {
-        Set<BossBullet> bullets = new HashSet<>();
+    public void shoot3(final Collection<BossBullet> bullets) {
         if (this.shootCooldown3.checkFinished()) {
             this.shootCooldown3.reset();
 //            if (!(this.getPositionX() == 0 || this.getPositionX() == 400)){
-                BossBullet bullet1 = new BossBullet(this.getPositionX() + this.getWidth() / 2 - 3 + 70, this.positionY, 0, 5,6,10,Color.blue);
-                BossBullet bullet2 = new BossBullet(this.getPositionX() + this.getWidth() / 2 - 3 - 70, this.positionY, 0, 5,6,10,Color.blue);
-                bullets.add(bullet1);
-                bullets.add(bullet2);
+                bullets.add(BossBulletPool.getBullet(this.getPositionX() + this.getWidth() / 2 - 3 + 70, this.positionY, 0, 5,Color.blue));
+                bullets.add(BossBulletPool.getBullet(this.getPositionX() + this.getWidth() / 2 - 3 - 70, this.positionY, 0, 5,Color.blue));
 //            }
         }
-        return bullets;
     }
 
 
@@ -1,7 +1,8 @@
 package entity;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+
+import engine.ObjectPool;
 import entity.DropItem.ItemType;
 
 /**
@@ -12,8 +13,10 @@ import entity.DropItem.ItemType;
  */
 public final class ItemPool {
 
-    /** Set of already created items. */
-    private static Set<DropItem> pool = new HashSet<DropItem>();
+    /** Already created items. */
+    private static final ThreadLocal<ObjectPool<DropItem>> pool =
+            ThreadLocal.withInitial(() -> new ObjectPool<DropItem>(
+                    () -> new DropItem(0, 0, 0, ItemType.Heal)));
 
     /**
      * Constructor, not called.
@@ -39,18 +42,11 @@ public final class ItemPool {
      */
     public static DropItem getItem(final int positionX,
                                    final int positionY, final int speed, final ItemType itemType) {
-        DropItem dropItem;
-        if (!pool.isEmpty()) {
-            dropItem = pool.iterator().next();
-            pool.remove(dropItem);
-            dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
-            dropItem.setPositionY(positionY);
-            dropItem.setSpeed(speed);
-            dropItem.setItemType(itemType);
-        } else {
-            dropItem = new DropItem(positionX, positionY, speed, itemType);
-            dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
-        }
+        DropItem dropItem = pool.get().acquire();
+        dropItem.setPositionX(positionX - dropItem.getWidth() / 2);
+        dropItem.setPositionY(positionY);
+        dropItem.setSpeed(speed);
+        dropItem.setItemType(itemType);
         return dropItem;
     }
 
@@ -60,7 +56,16 @@ public final class ItemPool {
      * @param dropItem
      *            items to recycle.
      */
-    public static void recycle(final Set<DropItem> dropItem) {
-        pool.addAll(dropItem);
+    public static void recycle(final List<DropItem> dropItem) {
+        pool.get().releaseAll(dropItem);
+    }
+
+    /**
+     * Getter for the pool of the current thread, to pre-warm, trim or read statistics.
+     *
+     * @return Item pool.
+     */
+    public static ObjectPool<DropItem> getPool() {
+        return pool.get();
     }
 }
@@ -2,7 +2,6 @@ package entity;
 import audio.SoundManager;
 
 import java.awt.Color;
-import java.util.Set;
 
 import engine.Cooldown;
 import engine.Core;
@@ -95,10 +94,10 @@ public class Ship extends Entity {
 	 * Shoots a bullet upwards.
 	 * 
 	 * @param bullets
-	 *            List of bullets on screen, to add the new bullet.
+	 *            Store of the bullets on screen, to add the new bullet.
 	 * @return Checks if the bullet was shot correctly.
 	 */
-	public final boolean shoot(final Set<Bullet> bullets) {
+	public final boolean shoot(final BulletStore bullets) {
 		if (this.shootingCooldown.checkFinished()) {
 			this.shootingCooldown.reset();
 
@@ -111,25 +110,19 @@ public class Ship extends Entity {
 
 			if (bulletCount == 1) {
 				// Normal shot (when Spread Shot is not purchased)
-				Bullet b = BulletPool.getBullet(centerX, centerY, BULLET_SPEED);
-				SoundManager.stop("sfx/laser.wav");
                 SoundManager.play("sfx/laser.wav");
-                b.setOwnerId(this.playerId);  // === [ADD] Ownership flag: 1 = P1, 2 = P2, null for legacy logic ===
-
-                bullets.add(b);
+                // Ownership flag: 1 = P1, 2 = P2
+                bullets.add(centerX, centerY, BULLET_SPEED, this.playerId);
 			} else {
 				// Fire Spread Shot
 				int startOffset = -(bulletCount / 2) * spacing;
 
 				for (int i = 0; i < bulletCount; i++) {
 					int offsetX = startOffset + (i * spacing);
-                    Bullet b = BulletPool.getBullet(centerX + offsetX, centerY, BULLET_SPEED);
-                    b.setOwnerId(this.playerId);   // Ownership flag
-
-                    bullets.add(b);
+                    bullets.add(centerX + offsetX, centerY, BULLET_SPEED,
+                            this.playerId);   // Ownership flag
 
                     // might consider putting a different sound
-					SoundManager.stop("sfx/laser.wav");
                     SoundManager.play("sfx/laser.wav");
                 }
 			}
@@ -158,7 +151,6 @@ public class Ship extends Entity {
 	 */
 	public final void destroy() {
         if (!this.isInvincible) {
-			SoundManager.stop("sfx/impact.wav");
             SoundManager.play("sfx/impact.wav");
             this.destructionCooldown.reset();
         }
@@ -248,6 +248,10 @@ public class ShopItem {
         return true;
     }
 
+    public static int getShipSpeedLevel() {
+        return SHIPSPEEDLEVEL;
+    }
+
     public static int getSHIPSpeedCOUNT() {
         return SHIP_SPEED[SHIPSPEEDLEVEL];
     }
@@ -49,7 +49,6 @@ public class AchievementScreen extends Screen {
     @Override
     protected void update() {
         super.update();
-        draw();
         if (inputManager.isKeyDown(KeyEvent.VK_ESCAPE)) {
             this.isRunning = false;
         }
@@ -58,7 +57,8 @@ public class AchievementScreen extends Screen {
     /**
      * Draws the achievements on the screen.
      */
-    private void draw() {
+    @Override
+    protected final void draw() {
         drawManager.initDrawing(this);
         List<Achievement> achievements = AchievementManager.getInstance().getAchievements();
         drawManager.drawAchievements(this, achievements);
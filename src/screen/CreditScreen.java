@@ -83,14 +83,14 @@ public class CreditScreen extends Screen {
     @Override
     protected final void update() {
         super.update();
-        draw();
         // Pressing the spacebar will exit the screen.
         if (inputManager.isKeyDown(KeyEvent.VK_SPACE) && this.inputDelay.checkFinished()) {
             this.isRunning = false;
         }
     }
 
-    private void draw() {
+    @Override
+    protected final void draw() {
         drawManager.initDrawing(this);
 
         drawManager.drawCreditsMenu(this);
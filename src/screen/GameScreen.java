@@ -7,13 +7,25 @@ import java.awt.event.KeyEvent;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Logger;
+import java.util.Locale;
 
+import audio.SoundManager;
+import engine.AllocationGuard;
+import engine.CollisionGrid;
+import engine.FrameProfiler;
 import engine.Cooldown;
 import engine.Core;
+import engine.GameClock;
 import engine.GameState;
 import engine.GameTimer;
+import engine.PerformanceOverlay;
 import engine.AchievementManager;
 import engine.ItemHUDManager;
+import engine.RandomService;
+import engine.telemetry.CollisionPassEvent;
+import engine.telemetry.FrameEvent;
+import engine.telemetry.RenderEvent;
+import engine.telemetry.Telemetry;
 import entity.*;
 import java.awt.event.KeyEvent;
 import java.util.HashSet;
@@ -49,6 +61,20 @@ public class GameScreen extends Screen {
 	private static final int SEPARATION_LINE_HEIGHT = 45;
 	/** Height of the items separation line (above items). */
 	private static final int ITEMS_SEPARATION_LINE_HEIGHT = 400;
+	/** Items created ahead of time at level start. */
+	private static final int ITEM_POOL_PREWARM = 8;
+	/** Boss bullets created ahead of time at level start. */
+	private static final int BOSS_BULLET_POOL_PREWARM = 32;
+	/** Side of the collision grid cells. */
+	private static final int COLLISION_CELL_SIZE = 32;
+	/** Collision grid tag of the special enemy ships. */
+	private static final int TAG_SPECIAL_ENEMY = 0;
+	/** Collision grid tag of the omega boss. */
+	private static final int TAG_OMEGA_BOSS = 1;
+	/** Collision grid tag of the final boss. */
+	private static final int TAG_FINAL_BOSS = 2;
+	/** Collision grid tag of the dropped items. */
+	private static final int TAG_ITEM = 3;
     /** Returns the Y-coordinate of the bottom boundary for enemies (above items HUD) */
     public static int getItemsSeparationLineHeight() {
         return ITEMS_SEPARATION_LINE_HEIGHT;
@@ -80,10 +106,28 @@ public class GameScreen extends Screen {
 	private Cooldown screenFinishedCooldown;
 	/** OmegaBoss */
 	private MidBoss omegaBoss;
-	/** Set of all bullets fired by on-screen ships. */
-	private Set<Bullet> bullets;
-	/** Set of all dropItems dropped by on screen ships. */
-	private Set<DropItem> dropItems;
+	/** Store of all bullets fired by on-screen ships. */
+	private BulletStore bullets;
+	/** All dropItems dropped by on screen ships. */
+	private List<DropItem> dropItems;
+	/** Reusable buffer of items leaving the screen this tick. */
+	private List<DropItem> itemScratch;
+	/** Reusable buffer of boss bullets leaving the screen this tick. */
+	private List<BossBullet> bossBulletScratch;
+	/** Reusable buffer of item drops rolled for a destroyed enemy. */
+	private List<engine.level.ItemDrop> itemDropScratch;
+	/** Items dropped this level, by item type ordinal. */
+	private int[] itemDropCounts;
+	/** Logger of the item drops and pickups. */
+	private Logger itemLogger;
+	/** Checks the allocations of every update, when enabled. */
+	private AllocationGuard allocationGuard;
+	/** Times the stages of every update and frame. */
+	private FrameProfiler profiler;
+	/** Performance overlay, toggled with F3. */
+	private PerformanceOverlay performanceOverlay;
+	/** Broadphase used to find nearby pairs before checking collisions. */
+	private CollisionGrid collisionGrid;
 	/** Current score. */
 	private int score;
     // === [ADD] Independent scores for two players ===
@@ -109,9 +153,8 @@ public class GameScreen extends Screen {
 	/** Current coin. */
 	private int coin;
     // Unified scoring entry: maintains both P1/P2 and legacy this.score (total score)
-    private void addPointsFor(Bullet bullet, int pts) {
-        Integer owner = (bullet != null ? bullet.getOwnerId() : null);
-        if (owner != null && owner == 2) {
+    private void addPointsFor(int owner, int pts) {
+        if (owner == BulletStore.OWNER_P2) {
             this.scoreP2 += pts;   // P2
         } else {
             this.scoreP1 += pts;   // Default to P1 (for null compatibility)
@@ -122,7 +165,7 @@ public class GameScreen extends Screen {
     }
 
     /** bossBullets carry bullets which Boss fires */
-	private Set<BossBullet> bossBullets;
+	private List<BossBullet> bossBullets;
 	/** Is the bullet on the screen erased */
   private boolean is_cleared = false;
   /** Timer to track elapsed time. */
@@ -186,7 +229,8 @@ public class GameScreen extends Screen {
 	public final void initialize() {
 		super.initialize();
 		/** Initialize the bullet Boss fired */
-		this.bossBullets = new HashSet<>();
+		this.bossBullets = new ArrayList<BossBullet>(BOSS_BULLET_POOL_PREWARM);
+		this.bossBulletScratch = new ArrayList<BossBullet>(BOSS_BULLET_POOL_PREWARM);
         enemyShipFormation = new EnemyShipFormation(this.currentLevel);
 		enemyShipFormation.attach(this);
         this.enemyShipFormation.applyEnemyColorByLevel(this.currentLevel);
@@ -203,11 +247,24 @@ public class GameScreen extends Screen {
 		this.bossExplosionCooldown = Core
 				.getCooldown(BOSS_EXPLOSION);
 		this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-		this.bullets = new HashSet<Bullet>();
-        this.dropItems = new HashSet<DropItem>();
+		this.bullets = new BulletStore();
+        this.dropItems = new ArrayList<DropItem>(ITEM_POOL_PREWARM);
+		this.itemScratch = new ArrayList<DropItem>(ITEM_POOL_PREWARM);
+		this.itemDropScratch = new ArrayList<engine.level.ItemDrop>(ITEM_POOL_PREWARM);
+		this.healthPopupCooldown = Core.getCooldown(500);
+		this.itemDropCounts = new int[DropItem.ItemType.values().length];
+		this.itemLogger = Core.getLogger("items");
+		this.allocationGuard = AllocationGuard.fromSystemProperties("Game tick");
+		this.profiler = new FrameProfiler();
+		this.performanceOverlay = new PerformanceOverlay();
+		this.collisionGrid = new CollisionGrid(this.width, this.height,
+				COLLISION_CELL_SIZE);
+		DropItem.resetTimeFreeze();
+		ItemPool.getPool().prewarm(ITEM_POOL_PREWARM);
+		BossBulletPool.getPool().prewarm(BOSS_BULLET_POOL_PREWARM);
 
 		// Special input delay / countdown.
-		this.gameStartTime = System.currentTimeMillis();
+		this.gameStartTime = GameClock.currentTimeMillis();
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
 
@@ -230,6 +287,38 @@ public class GameScreen extends Screen {
 		this.score += LIFE_SCORE * (this.livesP1 - 1);
 		this.score += LIFE_SCORE * (this.livesP2 - 1);
 		this.logger.info("Screen cleared with a score of " + this.score);
+		this.logger.info("Collision broadphase: "
+				+ this.collisionGrid.getQueryCount() + " queries, "
+				+ this.collisionGrid.getCandidatePairs() + " candidate pairs, "
+				+ this.collisionGrid.getBruteForcePairs()
+				+ " brute-force pairs.");
+		if (this.allocationGuard.isEnabled())
+			this.logger.info("Tick allocations: worst "
+					+ this.allocationGuard.getWorstBytes() + " bytes, "
+					+ this.allocationGuard.getOverruns() + " of "
+					+ this.allocationGuard.getBlocks() + " ticks over budget.");
+		// Items and boss bullets still on screen go back before the trim.
+		ItemPool.recycle(this.dropItems);
+		this.dropItems.clear();
+		BossBulletPool.recycle(this.bossBullets);
+		this.bossBullets.clear();
+		this.logger.info("Item pool: " + ItemPool.getPool()
+				+ ", trimmed " + ItemPool.getPool().trim(ITEM_POOL_PREWARM) + ".");
+		this.logger.info("Boss bullet pool: " + BossBulletPool.getPool()
+				+ ", trimmed "
+				+ BossBulletPool.getPool().trim(BOSS_BULLET_POOL_PREWARM) + ".");
+		try {
+			java.nio.file.Path profile = this.profiler.dumpLevel(this.level,
+					"Level " + this.level + " (" + this.currentLevel.getLevelName()
+					+ "), " + getTickCount() + " ticks, "
+					+ this.profiler.getHistogram(FrameProfiler.Phase.DRAW).getCount()
+					+ " frames.");
+			if (profile != null)
+				this.logger.info("Frame profile written to " + profile + ".");
+		} catch (java.io.IOException e) {
+			this.logger.warning("Could not write the frame profile: "
+					+ e.getMessage());
+		}
 
 		return this.returnCode;
 	}
@@ -238,7 +327,13 @@ public class GameScreen extends Screen {
 	 * Updates the elements on screen and checks for events.
 	 */
 	protected final void update() {
+		this.allocationGuard.begin();
+		final FrameEvent frameEvent = Telemetry.beginFrame();
+		final long updateStart = this.profiler.start(frameEvent != null);
+		long lap = updateStart;
 		super.update();
+		this.performanceOverlay.handleToggle(
+				inputManager.isKeyDown(KeyEvent.VK_F3));
 
 		if (this.inputDelay.checkFinished() && !this.levelFinished) {
 
@@ -299,6 +394,9 @@ public class GameScreen extends Screen {
 					}
 				}
 			}
+			lap = this.profiler.lap(FrameProfiler.Phase.INPUT, lap);
+			final FrameProfiler.Phase stagePhase = this.currentPhase == StagePhase.wave
+					? FrameProfiler.Phase.FORMATION : FrameProfiler.Phase.BOSS;
 			switch (this.currentPhase) {
 				case wave:
 					if (!DropItem.isTimeFreezeActive()) {
@@ -323,6 +421,7 @@ public class GameScreen extends Screen {
 							if ("omegaAndFinal".equals(this.currentlevel.getBossId())) {
 								this.omegaBoss = null;
                                 this.finalBoss = new FinalBoss(this.width / 2 - 50, 50, this.width, this.height);
+                                this.allocationGuard.excuse();
                                 this.logger.info("Final Boss has spawned!");
 							} else {
 								this.levelFinished = true;
@@ -338,12 +437,14 @@ public class GameScreen extends Screen {
 					}
 					break;
 			}
+			lap = this.profiler.lap(stagePhase, lap);
 			this.ship.update();
 			if (this.shipP2 != null) {
 				this.shipP2.update();
 			}
 			// special enemy update
 			this.enemyShipSpecialFormation.update();
+			lap = this.profiler.lap(FrameProfiler.Phase.SHIPS, lap);
 		}
 
 		if (this.gameTimer.isRunning()) {
@@ -351,11 +452,29 @@ public class GameScreen extends Screen {
 				AchievementManager.getInstance().onTimeElapsedSeconds((int)(this.elapsedTime / 1000));
         }
         cleanItems();
+        lap = this.profiler.lap(FrameProfiler.Phase.CLEAN_ITEMS, lap);
+        buildEnemyCollisionGrid();
+        lap = this.profiler.lap(FrameProfiler.Phase.COLLISION_GRID, lap);
+        int tested = this.bullets.size();
+        CollisionPassEvent pass = Telemetry.beginCollisionPass(this.collisionGrid);
         manageBulletShipCollisions();
+        Telemetry.commitCollisionPass(pass, this.collisionGrid, "bullets",
+                this.level, tested);
+        lap = this.profiler.lap(FrameProfiler.Phase.BULLET_COLLISIONS, lap);
+        tested = this.shipP2 == null ? 1 : 2;
+        pass = Telemetry.beginCollisionPass(this.collisionGrid);
         manageShipEnemyCollisions();
+        Telemetry.commitCollisionPass(pass, this.collisionGrid, "ships",
+                this.level, tested);
+        lap = this.profiler.lap(FrameProfiler.Phase.SHIP_COLLISIONS, lap);
+        tested = this.dropItems.size();
+        pass = Telemetry.beginCollisionPass(this.collisionGrid);
         manageItemCollisions();
+        Telemetry.commitCollisionPass(pass, this.collisionGrid, "items",
+                this.level, tested);
+        lap = this.profiler.lap(FrameProfiler.Phase.ITEM_COLLISIONS, lap);
 		cleanBullets();
-		draw();
+		this.profiler.lap(FrameProfiler.Phase.CLEAN_BULLETS, lap);
 
 		if (((this.livesP1 == 0) && (this.shipP2 == null || this.livesP2 == 0)) && !this.levelFinished) {
 			this.levelFinished = true;
@@ -376,24 +495,37 @@ public class GameScreen extends Screen {
 			if (this.livesP1 > 0 || (this.shipP2 != null && this.livesP2 > 0)) { // Check for win condition
 				if (this.currentlevel.getCompletionBonus() != null) {
 					this.coin += this.currentlevel.getCompletionBonus().getCurrency();
-					this.logger.info("Awarded " + this.currentlevel.getCompletionBonus().getCurrency() + " coins for level completion.");
+					if (this.logger.isLoggable(java.util.logging.Level.INFO))
+						this.logger.info("Awarded " + this.currentlevel.getCompletionBonus().getCurrency() + " coins for level completion.");
 				}
 
 				String achievement = this.currentlevel.getAchievementTrigger();
 				if (achievement != null && !achievement.isEmpty()) {
 					AchievementManager.getInstance().unlockAchievement(achievement);
-					this.logger.info("Unlocked achievement: " + achievement);
+					if (this.logger.isLoggable(java.util.logging.Level.INFO))
+						this.logger.info("Unlocked achievement: " + achievement);
 				}
 			}
 			this.isRunning = false;
 		}
+		this.profiler.lap(FrameProfiler.Phase.UPDATE, updateStart);
+		Telemetry.commitFrame(frameEvent, this.profiler, this.level,
+				getTickCount(), this.bullets.size(), this.dropItems.size(),
+				this.enemyShipFormation.size(), this.bossBullets.size());
+		// The countdown before play is not measured, so the guard warm-up
+		// covers the first updates that really play.
+		if (this.inputDelay.checkFinished())
+			this.allocationGuard.end();
 	}
 
 
 	/**
 	 * Draws the elements associated with the screen.
 	 */
-	private void draw() {
+	@Override
+	protected final void draw() {
+		final RenderEvent renderEvent = Telemetry.beginRender();
+		long lap = this.profiler.start(renderEvent != null);
 		drawManager.initDrawing(this);
 
 		if (this.livesP1 > 0) {
@@ -423,9 +555,7 @@ public class GameScreen extends Screen {
 			this.omegaBoss.draw(drawManager);
 		}
 
-		for (Bullet bullet : this.bullets)
-			drawManager.drawEntity(bullet, bullet.getPositionX(),
-					bullet.getPositionY());
+		drawManager.drawBullets(this.bullets);
 
 		for (DropItem dropItem : this.dropItems)
 			drawManager.drawEntity(dropItem, dropItem.getPositionX(), dropItem.getPositionY());
@@ -455,10 +585,17 @@ public class GameScreen extends Screen {
 			this.healthPopupText = null;
 		}
 
+		if (this.performanceOverlay.isVisible()) {
+			if (this.performanceOverlay.needsRefresh())
+				refreshPerformanceOverlay();
+			drawManager.drawPerformanceOverlay(this,
+					this.performanceOverlay.getLines());
+		}
+
 		// Countdown to game start.
 		if (!this.inputDelay.checkFinished()) {
 			int countdown = (int) ((INPUT_DELAY
-					- (System.currentTimeMillis()
+					- (GameClock.currentTimeMillis()
 					- this.gameStartTime)) / 1000);
 			drawManager.drawCountDown(this, this.level, countdown,
 					this.bonusLife);
@@ -468,7 +605,35 @@ public class GameScreen extends Screen {
 					/ 12);
 		}
 
+		lap = this.profiler.lap(FrameProfiler.Phase.DRAW, lap);
 		drawManager.completeDrawing(this);
+		this.profiler.lap(FrameProfiler.Phase.COMPLETE_DRAWING, lap);
+		Telemetry.commitRender(renderEvent, this.profiler, this.level);
+	}
+
+	/**
+	 * Rebuilds the text of the performance overlay with the current entity
+	 * counts, pool occupancy and audio activity.
+	 */
+	private void refreshPerformanceOverlay() {
+		String entities = "Bullets " + this.bullets.size()
+				+ "  Items " + this.dropItems.size()
+				+ "  Enemies " + (this.enemyShipFormation == null ? 0
+						: this.enemyShipFormation.size())
+				+ "  Boss bullets " + this.bossBullets.size();
+		String pools = "Item pool " + ItemPool.getPool().getInUse() + "/"
+				+ ItemPool.getPool().getFreeCount()
+				+ "  Boss bullet pool " + BossBulletPool.getPool().getInUse()
+				+ "/" + BossBulletPool.getPool().getFreeCount()
+				+ " used/free";
+		String audio = String.format(Locale.ROOT,
+				"Voices %d, %d stolen  Audio queue %d, p99 %.2f ms, %d coalesced",
+				SoundManager.getVoicesInUse(), SoundManager.getVoicesStolen(),
+				SoundManager.getQueueDepth(),
+				SoundManager.getCommandLatency(99) / 1000000.0,
+				SoundManager.getCommandsCoalesced());
+		this.performanceOverlay.refresh(this, this.profiler, entities, pools,
+				audio);
 	}
 
 
@@ -476,15 +641,8 @@ public class GameScreen extends Screen {
 	 * Cleans bullets that go off screen.
 	 */
 	private void cleanBullets() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets) {
-			bullet.update();
-			if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-					|| bullet.getPositionY() > this.height)
-				recyclable.add(bullet);
-		}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
+		this.bullets.updateAll();
+		this.bullets.cull(SEPARATION_LINE_HEIGHT, this.height);
 	}
 
     /**
@@ -492,141 +650,160 @@ public class GameScreen extends Screen {
      */
 
     private void cleanItems() {
-        Set<DropItem> recyclable = new HashSet<DropItem>();
-        for (DropItem dropItem : this.dropItems) {
+        List<DropItem> recyclable = this.itemScratch;
+        for (int i = 0; i < this.dropItems.size(); i++) {
+            DropItem dropItem = this.dropItems.get(i);
             dropItem.update();
             if (dropItem.getPositionY() < SEPARATION_LINE_HEIGHT
                     || dropItem.getPositionY() > this.height)
                 recyclable.add(dropItem);
         }
-        this.dropItems.removeAll(recyclable);
-        ItemPool.recycle(recyclable);
+        if (!recyclable.isEmpty()) {
+            this.dropItems.removeAll(recyclable);
+            ItemPool.recycle(recyclable);
+            recyclable.clear();
+        }
     }
 
 	/**
 	 * Manages collisions between bullets and ships.
 	 */
 	private void manageBulletShipCollisions() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets)
-			if (bullet.getSpeed() > 0) {
-				if (this.livesP1 > 0 && checkCollision(bullet, this.ship) && !this.levelFinished) {
-					recyclable.add(bullet);
+		// Backwards, as removing a bullet moves the last one into its slot.
+		for (int b = this.bullets.size() - 1; b >= 0; b--) {
+			int bulletX = this.bullets.getPositionX(b);
+			int bulletY = this.bullets.getPositionY(b);
+			int owner = this.bullets.getOwner(b);
+			boolean recycle = false;
+			if (this.bullets.getSpeed(b) > 0) {
+				if (this.livesP1 > 0 && checkBulletCollision(bulletX, bulletY, this.ship) && !this.levelFinished) {
+					recycle = true;
 					if (!this.ship.isInvincible()) {
 						if (!this.ship.isDestroyed()) {
 							this.ship.destroy();
 							this.livesP1--;
 							showHealthPopup("-1 Health");
-							this.logger.info("Hit on player ship, " + this.livesP1
-									+ " lives remaining.");
+							if (this.logger.isLoggable(java.util.logging.Level.INFO))
+								this.logger.info("Hit on player ship, " + this.livesP1
+										+ " lives remaining.");
 						}
 					}
 				} else if (this.shipP2 != null && this.livesP2 > 0 && !this.shipP2.isDestroyed()
-						&& checkCollision(bullet, this.shipP2) && !this.levelFinished) {
-					recyclable.add(bullet);
+						&& checkBulletCollision(bulletX, bulletY, this.shipP2) && !this.levelFinished) {
+					recycle = true;
 					if (!this.shipP2.isInvincible()) {
 						if (!this.shipP2.isDestroyed()) {
 							this.shipP2.destroy();
 							this.livesP2--;
 							showHealthPopup("-1 Health");
-							this.logger.info("Hit on player ship, " + this.livesP2
-									+ " lives remaining.");
+							if (this.logger.isLoggable(java.util.logging.Level.INFO))
+								this.logger.info("Hit on player ship, " + this.livesP2
+										+ " lives remaining.");
 						}
 					}
 				}
 			} else {
-				for (EnemyShip enemyShip : this.enemyShipFormation)
-					if (!enemyShip.isDestroyed()
-							&& checkCollision(bullet, enemyShip)) {
-                        int pts = enemyShip.getPointValue();
-                        addPointsFor(bullet, pts);
-                        this.coin += (pts / 10);
-                        this.shipsDestroyed++;
-
-                        String enemyType = enemyShip.getEnemyType();
-						this.enemyShipFormation.destroy(enemyShip);
-						AchievementManager.getInstance().onEnemyDefeated();
-						if (enemyType != null && this.currentLevel.getItemDrops() != null) {
-							List<engine.level.ItemDrop> potentialDrops = new ArrayList<>();
-							for (engine.level.ItemDrop itemDrop : this.currentLevel.getItemDrops()) {
-								if (enemyType.equals(itemDrop.getEnemyType())) {
-									potentialDrops.add(itemDrop);
-								}
-							}
-
-							List<engine.level.ItemDrop> successfulDrops = new ArrayList<>();
-							for (engine.level.ItemDrop itemDrop : potentialDrops) {
-								if (Math.random() < itemDrop.getDropChance()) {
-									successfulDrops.add(itemDrop);
-								}
+				EnemyShip enemyShip;
+				while ((enemyShip = this.enemyShipFormation.hitTest(bulletX, bulletY,
+						BulletStore.WIDTH, BulletStore.HEIGHT)) != null) {
+                    int pts = enemyShip.getPointValue();
+                    addPointsFor(owner, pts);
+                    this.coin += (pts / 10);
+                    this.shipsDestroyed++;
+
+                    String enemyType = enemyShip.getEnemyType();
+					this.enemyShipFormation.destroy(enemyShip);
+					AchievementManager.getInstance().onEnemyDefeated();
+					if (enemyType != null && this.currentLevel.getItemDrops() != null) {
+						List<engine.level.ItemDrop> itemDrops = this.currentLevel.getItemDrops();
+						List<engine.level.ItemDrop> successfulDrops = this.itemDropScratch;
+						successfulDrops.clear();
+						for (int i = 0; i < itemDrops.size(); i++) {
+							engine.level.ItemDrop itemDrop = itemDrops.get(i);
+							if (enemyType.equals(itemDrop.getEnemyType())
+									&& RandomService.nextDouble(RandomService.Stream.DROPS) < itemDrop.getDropChance()) {
+								successfulDrops.add(itemDrop);
 							}
+						}
 
-							if (!successfulDrops.isEmpty()) {
-								engine.level.ItemDrop selectedDrop = successfulDrops.get((int) (Math.random() * successfulDrops.size()));
-								DropItem.ItemType droppedType = DropItem.fromString(selectedDrop.getItemId());
-								if (droppedType != null) {
-									final int ITEM_DROP_SPEED = 2;
-
-									DropItem newDropItem = ItemPool.getItem(
-											enemyShip.getPositionX() + enemyShip.getWidth() / 2,
-											enemyShip.getPositionY() + enemyShip.getHeight() / 2,
-											ITEM_DROP_SPEED,
-											droppedType
-									);
-									this.dropItems.add(newDropItem);
-									this.logger.info("An item (" + droppedType + ") dropped");
-								}
+						if (!successfulDrops.isEmpty()) {
+							engine.level.ItemDrop selectedDrop = successfulDrops.get(
+									RandomService.nextInt(RandomService.Stream.DROPS, successfulDrops.size()));
+							DropItem.ItemType droppedType = DropItem.fromString(selectedDrop.getItemId());
+							if (droppedType != null) {
+								final int ITEM_DROP_SPEED = 2;
+
+								DropItem newDropItem = ItemPool.getItem(
+										enemyShip.getPositionX() + enemyShip.getWidth() / 2,
+										enemyShip.getPositionY() + enemyShip.getHeight() / 2,
+										ITEM_DROP_SPEED,
+										droppedType
+								);
+								this.dropItems.add(newDropItem);
+								this.itemDropCounts[droppedType.ordinal()]++;
+								if (this.itemLogger.isLoggable(java.util.logging.Level.FINE))
+									this.itemLogger.fine("An item (" + droppedType + ") dropped");
 							}
 						}
-						if (!bullet.penetration()) {
-							recyclable.add(bullet);
-							break;
-						}
 					}
+					if (!this.bullets.penetrate(b)) {
+						recycle = true;
+						break;
+					}
+				}
 
 				// special enemy bullet event
-				for (EnemyShip enemyShipSpecial : this.enemyShipSpecialFormation)
-					if (enemyShipSpecial != null && !enemyShipSpecial.isDestroyed()
-							&& checkCollision(bullet, enemyShipSpecial)) {
+				int candidates = this.collisionGrid.query(bulletX, bulletY,
+						BulletStore.WIDTH, BulletStore.HEIGHT);
+				for (int i = 0; i < candidates; i++) {
+					if (this.collisionGrid.getCandidateTag(i) != TAG_SPECIAL_ENEMY)
+						continue;
+					EnemyShip enemyShipSpecial = (EnemyShip) this.collisionGrid.getCandidate(i);
+					if (!enemyShipSpecial.isDestroyed()
+							&& checkBulletCollision(bulletX, bulletY, enemyShipSpecial)) {
                         int pts = enemyShipSpecial.getPointValue();
-                        addPointsFor(bullet, pts);
+                        addPointsFor(owner, pts);
                         this.coin += (pts / 10);
                         this.shipsDestroyed++;
 						this.enemyShipSpecialFormation.destroy(enemyShipSpecial);
-						recyclable.add(bullet);
+						recycle = true;
 					}
+				}
 				if (this.omegaBoss != null
 						&& !this.omegaBoss.isDestroyed()
-						&& checkCollision(bullet, this.omegaBoss)) {
+						&& hasCandidate(candidates, TAG_OMEGA_BOSS)
+						&& checkBulletCollision(bulletX, bulletY, this.omegaBoss)) {
 					this.omegaBoss.takeDamage(2);
 					if(this.omegaBoss.getHealPoint() <= 0) {
 						this.shipsDestroyed++;
                         int pts = this.omegaBoss.getPointValue();
-                        addPointsFor(bullet, pts);
+                        addPointsFor(owner, pts);
                         this.coin += (pts / 10);
                         this.omegaBoss.destroy();
 						AchievementManager.getInstance().unlockAchievement("Boss Slayer");
 						this.bossExplosionCooldown.reset();
 					}
-					recyclable.add(bullet);
+					recycle = true;
 				}
 
 				/** when final boss collide with bullet */
-				if(this.finalBoss != null && !this.finalBoss.isDestroyed() && checkCollision(bullet,this.finalBoss)){
+				if(this.finalBoss != null && !this.finalBoss.isDestroyed()
+						&& hasCandidate(candidates, TAG_FINAL_BOSS) && checkBulletCollision(bulletX, bulletY, this.finalBoss)){
 					this.finalBoss.takeDamage(1);
 					if(this.finalBoss.getHealPoint() <= 0){
                         int pts = this.finalBoss.getPointValue();
-                        addPointsFor(bullet, pts);
+                        addPointsFor(owner, pts);
                         this.coin += (pts / 10);
 						this.finalBoss.destroy();
                         AchievementManager.getInstance().unlockAchievement("Boss Slayer");
 					}
-					recyclable.add(bullet);
+					recycle = true;
 				}
-            }
-        this.bullets.removeAll(recyclable);
-        BulletPool.recycle(recyclable);
-    }
+			}
+			if (recycle)
+				this.bullets.remove(b);
+		}
+	}
 
     /**
      * Manages collisions between player ship and enemy ships.
@@ -637,51 +814,60 @@ public class GameScreen extends Screen {
         if (!this.levelFinished && this.livesP1 > 0 && !this.ship.isDestroyed()
                 && !this.ship.isInvincible()) {
             // Check collision with normal enemy ships
-            for (EnemyShip enemyShip : this.enemyShipFormation) {
-                if (!enemyShip.isDestroyed() && checkCollision(this.ship, enemyShip)) {
-                    this.enemyShipFormation.destroy(enemyShip);
-                    this.ship.destroy();
-                    this.livesP1--;
-                    showHealthPopup("-1 Life (Collision!)");
+            EnemyShip enemyShip = this.enemyShipFormation.hitTest(this.ship);
+            if (enemyShip != null) {
+                this.enemyShipFormation.destroy(enemyShip);
+                this.ship.destroy();
+                this.livesP1--;
+                showHealthPopup("-1 Life (Collision!)");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
                     this.logger.info("Ship collided with enemy! " + this.livesP1
                             + " lives remaining.");
-                    return;
-                }
+                return;
             }
 
             // Check collision with special enemy formation (red/blue ships)
-            for (EnemyShip enemyShipSpecial : this.enemyShipSpecialFormation) {
-                if (enemyShipSpecial != null && !enemyShipSpecial.isDestroyed()
+            int candidates = this.collisionGrid.query(this.ship);
+            for (int i = 0; i < candidates; i++) {
+                if (this.collisionGrid.getCandidateTag(i) != TAG_SPECIAL_ENEMY)
+                    continue;
+                EnemyShip enemyShipSpecial = (EnemyShip) this.collisionGrid.getCandidate(i);
+                if (!enemyShipSpecial.isDestroyed()
                         && checkCollision(this.ship, enemyShipSpecial)) {
                     enemyShipSpecial.destroy();
                     this.ship.destroy();
                     this.livesP1--;
                     showHealthPopup("-1 Life (Collision!)");
-                    this.logger.info("Ship collided with special enemy formation! "
-                            + this.livesP1 + " lives remaining.");
+                    if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                        this.logger.info("Ship collided with special enemy formation! "
+                                + this.livesP1 + " lives remaining.");
                     return;
                 }
             }
 
             // Check collision with omega boss (mid boss - yellow/pink ship)
             if (this.omegaBoss != null && !this.omegaBoss.isDestroyed()
+                    && hasCandidate(candidates, TAG_OMEGA_BOSS)
                     && checkCollision(this.ship, this.omegaBoss)) {
                 this.ship.destroy();
                 this.livesP1--;
                 showHealthPopup("-1 Life (Boss Collision!)");
-                this.logger.info("Ship collided with omega boss! " + this.livesP1
-                        + " lives remaining.");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                    this.logger.info("Ship collided with omega boss! " + this.livesP1
+                            + " lives remaining.");
                 return;
             }
 
             // Check collision with final boss
             if (this.finalBoss != null && !this.finalBoss.isDestroyed()
+                    && hasCandidate(candidates, TAG_FINAL_BOSS)
                     && checkCollision(this.ship, this.finalBoss)) {
                 this.ship.destroy();
                 this.livesP1--;
                 showHealthPopup("-1 Life (Boss Collision!)");
-                this.logger.info("Ship collided with final boss! " + this.livesP1
-                        + " lives remaining.");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                    this.logger.info("Ship collided with final boss! " + this.livesP1
+                            + " lives remaining.");
                 return;
             }
         }
@@ -690,51 +876,60 @@ public class GameScreen extends Screen {
         if (!this.levelFinished && this.shipP2 != null && this.livesP2 > 0
                 && !this.shipP2.isDestroyed() && !this.shipP2.isInvincible()) {
             // Check collision with normal enemy ships
-            for (EnemyShip enemyShip : this.enemyShipFormation) {
-                if (!enemyShip.isDestroyed() && checkCollision(this.shipP2, enemyShip)) {
-	                this.enemyShipFormation.destroy(enemyShip);
-                    this.shipP2.destroy();
-                    this.livesP2--;
-                    showHealthPopup("-1 Life (Collision!)");
+            EnemyShip enemyShip = this.enemyShipFormation.hitTest(this.shipP2);
+            if (enemyShip != null) {
+                this.enemyShipFormation.destroy(enemyShip);
+                this.shipP2.destroy();
+                this.livesP2--;
+                showHealthPopup("-1 Life (Collision!)");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
                     this.logger.info("Ship P2 collided with enemy! " + this.livesP2
                             + " lives remaining.");
-                    return;
-                }
+                return;
             }
 
             // Check collision with special enemy formation
-            for (EnemyShip enemyShipSpecial : this.enemyShipSpecialFormation) {
-                if (enemyShipSpecial != null && !enemyShipSpecial.isDestroyed()
+            int candidates = this.collisionGrid.query(this.shipP2);
+            for (int i = 0; i < candidates; i++) {
+                if (this.collisionGrid.getCandidateTag(i) != TAG_SPECIAL_ENEMY)
+                    continue;
+                EnemyShip enemyShipSpecial = (EnemyShip) this.collisionGrid.getCandidate(i);
+                if (!enemyShipSpecial.isDestroyed()
                         && checkCollision(this.shipP2, enemyShipSpecial)) {
                     enemyShipSpecial.destroy();
                     this.shipP2.destroy();
                     this.livesP2--;
                     showHealthPopup("-1 Life (Collision!)");
-                    this.logger.info("Ship P2 collided with special enemy formation! "
-                            + this.livesP2 + " lives remaining.");
+                    if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                        this.logger.info("Ship P2 collided with special enemy formation! "
+                                + this.livesP2 + " lives remaining.");
                     return;
                 }
             }
 
             // Check collision with omega boss
             if (this.omegaBoss != null && !this.omegaBoss.isDestroyed()
+                    && hasCandidate(candidates, TAG_OMEGA_BOSS)
                     && checkCollision(this.shipP2, this.omegaBoss)) {
                 this.shipP2.destroy();
                 this.livesP2--;
                 showHealthPopup("-1 Life (Boss Collision!)");
-                this.logger.info("Ship P2 collided with omega boss! " + this.livesP2
-                        + " lives remaining.");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                    this.logger.info("Ship P2 collided with omega boss! " + this.livesP2
+                            + " lives remaining.");
                 return;
             }
 
             // Check collision with final boss
             if (this.finalBoss != null && !this.finalBoss.isDestroyed()
+                    && hasCandidate(candidates, TAG_FINAL_BOSS)
                     && checkCollision(this.shipP2, this.finalBoss)) {
                 this.shipP2.destroy();
                 this.livesP2--;
                 showHealthPopup("-1 Life (Boss Collision!)");
-                this.logger.info("Ship P2 collided with final boss! " + this.livesP2
-                        + " lives remaining.");
+                if (this.logger.isLoggable(java.util.logging.Level.INFO))
+                    this.logger.info("Ship P2 collided with final boss! " + this.livesP2
+                            + " lives remaining.");
                 return;
             }
         }
@@ -745,105 +940,183 @@ public class GameScreen extends Screen {
      * Applies item effects when player collects them.
      */
     private void manageItemCollisions() {
-        Set<DropItem> acquiredDropItems = new HashSet<DropItem>();
+        List<DropItem> acquiredDropItems = this.itemScratch;
 
 		if (!this.levelFinished && ((this.livesP1 > 0 && !this.ship.isDestroyed())
 				|| (this.shipP2 != null && this.livesP2 > 0 && !this.shipP2.isDestroyed()))) {
-			for (DropItem dropItem : this.dropItems) {
-
-				if (this.livesP1 > 0 && !this.ship.isDestroyed() && checkCollision(this.ship, dropItem)) {
-					this.logger.info("Player acquired dropItem: " + dropItem.getItemType());
-
-					// Add item to HUD display
-					ItemHUDManager.getInstance().addDroppedItem(dropItem.getItemType());
-
-					switch (dropItem.getItemType()) {
-						case Heal:
-							gainLife();
-							break;
-						case Shield:
-							ship.activateInvincibility(5000); // 5 seconds of invincibility
-							break;
-						case Stop:
-							DropItem.applyTimeFreezeItem(3000);
-							break;
-						case Push:
-							DropItem.PushbackItem(this.enemyShipFormation,20);
-							break;
-						case Explode:
-							int destroyedEnemy = this.enemyShipFormation.destroyAll();
-                            int pts = destroyedEnemy * 5;
-                            addPointsFor(null, pts);
-                            break;
-						case Slow:
-							enemyShipFormation.activateSlowdown();
-							this.logger.info("Enemy formation slowed down!");
-							break;
-						default:
-							// For other dropItem types. Free to add!
-							break;
+			this.collisionGrid.clear();
+			for (int i = 0; i < this.dropItems.size(); i++)
+				this.collisionGrid.insert(this.dropItems.get(i), TAG_ITEM);
+			this.collisionGrid.build();
+
+			if (this.livesP1 > 0 && !this.ship.isDestroyed()) {
+				int candidates = this.collisionGrid.query(this.ship);
+				for (int i = 0; i < candidates; i++) {
+					DropItem dropItem = (DropItem) this.collisionGrid.getCandidate(i);
+					if (checkCollision(this.ship, dropItem)) {
+						if (this.itemLogger.isLoggable(java.util.logging.Level.INFO))
+							this.itemLogger.info("Player acquired dropItem: " + dropItem.getItemType());
+
+						// Add item to HUD display
+						ItemHUDManager.getInstance().addDroppedItem(dropItem.getItemType());
+
+						switch (dropItem.getItemType()) {
+							case Heal:
+								gainLife();
+								break;
+							case Shield:
+								ship.activateInvincibility(5000); // 5 seconds of invincibility
+								break;
+							case Stop:
+								DropItem.applyTimeFreezeItem(3000);
+								break;
+							case Push:
+								DropItem.PushbackItem(this.enemyShipFormation,20);
+								break;
+							case Explode:
+								int destroyedEnemy = this.enemyShipFormation.destroyAll();
+								int pts = destroyedEnemy * 5;
+								addPointsFor(BulletStore.OWNER_P1, pts);
+								break;
+							case Slow:
+								enemyShipFormation.activateSlowdown();
+								this.logger.info("Enemy formation slowed down!");
+								break;
+							default:
+								// For other dropItem types. Free to add!
+								break;
+						}
+						acquiredDropItems.add(dropItem);
 					}
-					acquiredDropItems.add(dropItem);
-				} else if (this.shipP2 != null && this.livesP2 > 0 && !this.shipP2.isDestroyed()
-						&& checkCollision(this.shipP2, dropItem)) {
-					this.logger.info("Player acquired dropItem: " + dropItem.getItemType());
-
-					// Add item to HUD display
-					ItemHUDManager.getInstance().addDroppedItem(dropItem.getItemType());
-
-					switch (dropItem.getItemType()) {
-						case Heal:
-							gainLifeP2();
-							break;
-						case Shield:
-							shipP2.activateInvincibility(5000); // 5 seconds of invincibility
-							break;
-						case Stop:
-							DropItem.applyTimeFreezeItem(3000);
-							break;
-						case Push:
-							DropItem.PushbackItem(this.enemyShipFormation,20);
-							break;
-						case Explode:
-							int destroyedEnemy = this.enemyShipFormation.destroyAll();
-                            int pts = destroyedEnemy * 5;
-                            addPointsFor(null, pts);
-                            break;
-						case Slow:
-							enemyShipFormation.activateSlowdown();
-							this.logger.info("Enemy formation slowed down!");
-							break;
-						default:
-							// For other dropItem types. Free to add!
-							break;
+				}
+			}
+			if (this.shipP2 != null && this.livesP2 > 0 && !this.shipP2.isDestroyed()) {
+				int candidates = this.collisionGrid.query(this.shipP2);
+				for (int i = 0; i < candidates; i++) {
+					DropItem dropItem = (DropItem) this.collisionGrid.getCandidate(i);
+					if (!acquiredDropItems.contains(dropItem)
+							&& checkCollision(this.shipP2, dropItem)) {
+						if (this.itemLogger.isLoggable(java.util.logging.Level.INFO))
+							this.itemLogger.info("Player acquired dropItem: " + dropItem.getItemType());
+
+						// Add item to HUD display
+						ItemHUDManager.getInstance().addDroppedItem(dropItem.getItemType());
+
+						switch (dropItem.getItemType()) {
+							case Heal:
+								gainLifeP2();
+								break;
+							case Shield:
+								shipP2.activateInvincibility(5000); // 5 seconds of invincibility
+								break;
+							case Stop:
+								DropItem.applyTimeFreezeItem(3000);
+								break;
+							case Push:
+								DropItem.PushbackItem(this.enemyShipFormation,20);
+								break;
+							case Explode:
+								int destroyedEnemy = this.enemyShipFormation.destroyAll();
+								int pts = destroyedEnemy * 5;
+								addPointsFor(BulletStore.OWNER_P1, pts);
+								break;
+							case Slow:
+								enemyShipFormation.activateSlowdown();
+								this.logger.info("Enemy formation slowed down!");
+								break;
+							default:
+								// For other dropItem types. Free to add!
+								break;
+						}
+						acquiredDropItems.add(dropItem);
 					}
-					acquiredDropItems.add(dropItem);
 				}
 			}
-			this.dropItems.removeAll(acquiredDropItems);
-			ItemPool.recycle(acquiredDropItems);
+			if (!acquiredDropItems.isEmpty()) {
+				this.dropItems.removeAll(acquiredDropItems);
+				ItemPool.recycle(acquiredDropItems);
+				acquiredDropItems.clear();
+			}
 		}
 	}
 
 
 	/**
-	 * Checks if two entities are colliding.
-	 * 
-	 * @param a
-	 *            First entity, the bullet.
+	 * Fills the collision grid with the enemies that can be hit this tick.
+	 * The formation answers its own hit tests, so it is left out.
+	 */
+	private void buildEnemyCollisionGrid() {
+		this.collisionGrid.clear();
+		for (int i = 0; i < EnemyShipSpecialFormation.MAX_SHIPS; i++) {
+			EnemyShip enemyShipSpecial = this.enemyShipSpecialFormation.getShip(i);
+			if (enemyShipSpecial != null && !enemyShipSpecial.isDestroyed())
+				this.collisionGrid.insert(enemyShipSpecial, TAG_SPECIAL_ENEMY);
+		}
+		if (this.omegaBoss != null && !this.omegaBoss.isDestroyed())
+			this.collisionGrid.insert(this.omegaBoss, TAG_OMEGA_BOSS);
+		if (this.finalBoss != null && !this.finalBoss.isDestroyed())
+			this.collisionGrid.insert(this.finalBoss, TAG_FINAL_BOSS);
+		this.collisionGrid.build();
+	}
+
+	/**
+	 * Checks if the last collision grid query returned an entity with a tag.
+	 *
+	 * @param candidates
+	 *            Number of candidates returned by the query.
+	 * @param tag
+	 *            Tag to look for.
+	 * @return True if a candidate has the tag.
+	 */
+	private boolean hasCandidate(final int candidates, final int tag) {
+		for (int i = 0; i < candidates; i++)
+			if (this.collisionGrid.getCandidateTag(i) == tag)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Checks if a bullet of the bullet store is colliding with an entity.
+	 *
+	 * @param bulletX
+	 *            Position in the x-axis of the bullet.
+	 * @param bulletY
+	 *            Position in the y-axis of the bullet.
 	 * @param b
-	 *            Second entity, the ship.
+	 *            Entity to test, the ship.
 	 * @return Result of the collision test.
 	 */
-	private boolean checkCollision(final Entity a, final Entity b) {
-		// Calculate center point of the entities in both axis.
-		int centerAX = a.getPositionX() + a.getWidth() / 2;
-		int centerAY = a.getPositionY() + a.getHeight() / 2;
+	private boolean checkBulletCollision(final int bulletX, final int bulletY,
+			final Entity b) {
+		return checkCollision(bulletX, bulletY, BulletStore.WIDTH,
+				BulletStore.HEIGHT, b);
+	}
+
+	/**
+	 * Checks if a box is colliding with an entity.
+	 *
+	 * @param positionX
+	 *            Position in the x-axis of the box.
+	 * @param positionY
+	 *            Position in the y-axis of the box.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @param b
+	 *            Entity to test.
+	 * @return Result of the collision test.
+	 */
+	private boolean checkCollision(final int positionX, final int positionY,
+			final int width, final int height, final Entity b) {
+		// Calculate center point of the box and the entity in both axis.
+		int centerAX = positionX + width / 2;
+		int centerAY = positionY + height / 2;
 		int centerBX = b.getPositionX() + b.getWidth() / 2;
 		int centerBY = b.getPositionY() + b.getHeight() / 2;
 		// Calculate maximum distance without collision.
-		int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
-		int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
+		int maxDistanceX = width / 2 + b.getWidth() / 2;
+		int maxDistanceY = height / 2 + b.getHeight() / 2;
 		// Calculates distance.
 		int distanceX = Math.abs(centerAX - centerBX);
 		int distanceY = Math.abs(centerAY - centerBY);
@@ -851,6 +1124,20 @@ public class GameScreen extends Screen {
 		return distanceX < maxDistanceX && distanceY < maxDistanceY;
 	}
 
+	/**
+	 * Checks if two entities are colliding.
+	 * 
+	 * @param a
+	 *            First entity, the bullet.
+	 * @param b
+	 *            Second entity, the ship.
+	 * @return Result of the collision test.
+	 */
+	private boolean checkCollision(final Entity a, final Entity b) {
+		return checkCollision(a.getPositionX(), a.getPositionY(),
+				a.getWidth(), a.getHeight(), b);
+	}
+
     /**
      * Shows an achievement popup message on the HUD.
      *
@@ -872,7 +1159,6 @@ public class GameScreen extends Screen {
 
     public void showHealthPopup(String message) {
         this.healthPopupText = message;
-        this.healthPopupCooldown = Core.getCooldown(500);
         this.healthPopupCooldown.reset();
     }
 
@@ -888,6 +1174,36 @@ public class GameScreen extends Screen {
 	        return new GameState(this.level, this.score, this.livesP1,this.livesP2,
 	                this.bulletsShot, this.shipsDestroyed,this.coin);
 	    }
+	/**
+	 * Getter for the number of items dropped this level.
+	 *
+	 * @return Dropped items.
+	 */
+	public final int getItemsDropped() {
+		int total = 0;
+		for (int count : this.itemDropCounts)
+			total += count;
+		return total;
+	}
+
+	/**
+	 * Getter for the number of items dropped this level, by type.
+	 *
+	 * @return Dropped items, indexed by item type ordinal.
+	 */
+	public final int[] getItemDropCounts() {
+		return this.itemDropCounts.clone();
+	}
+
+	/**
+	 * Getter for the guard measuring the allocations of each update.
+	 *
+	 * @return Tick allocation guard.
+	 */
+	public final AllocationGuard getAllocationGuard() {
+		return this.allocationGuard;
+	}
+
 	/**
 	 * Adds one life to the player.
 	 */
@@ -915,12 +1231,14 @@ public class GameScreen extends Screen {
 		switch (bossName) {
 			case "finalBoss":
 				this.finalBoss = new FinalBoss(this.width / 2 - 50, 50, this.width, this.height);
+				this.allocationGuard.excuse();
 				this.logger.info("Final Boss has spawned!");
 				break;
 			case "omegaBoss":
 			case "omegaAndFinal":
 				this.omegaBoss = new OmegaBoss(Color.ORANGE, ITEMS_SEPARATION_LINE_HEIGHT);
 				omegaBoss.attach(this);
+				this.allocationGuard.excuse();
 				this.logger.info("Omega Boss has spawned!");
 				break;
 			default:
@@ -935,23 +1253,25 @@ public class GameScreen extends Screen {
 			this.finalBoss.update();
 			/** called the boss shoot logic */
 			if (this.finalBoss.getHealPoint() > this.finalBoss.getMaxHp() / 4) {
-				bossBullets.addAll(this.finalBoss.shoot1());
-				bossBullets.addAll(this.finalBoss.shoot2());
+				this.finalBoss.shoot1(bossBullets);
+				this.finalBoss.shoot2(bossBullets);
 			} else {
 				/** Is the bullet on the screen erased */
 				if (!is_cleared) {
+					BossBulletPool.recycle(bossBullets);
 					bossBullets.clear();
 					is_cleared = true;
 					logger.info("boss is angry");
 				} else {
-					bossBullets.addAll(this.finalBoss.shoot3());
+					this.finalBoss.shoot3(bossBullets);
 				}
 			}
 
 			/** bullets to erase */
-			Set<BossBullet> bulletsToRemove = new HashSet<>();
+			List<BossBullet> bulletsToRemove = this.bossBulletScratch;
 
-			for (BossBullet b : bossBullets) {
+			for (int i = 0; i < bossBullets.size(); i++) {
+				BossBullet b = bossBullets.get(i);
 				b.update();
 				/** If the bullet goes off the screen */
 				if (b.isOffScreen(width, height)) {
@@ -963,7 +1283,8 @@ public class GameScreen extends Screen {
 					if (!this.ship.isDestroyed()) {
 						this.ship.destroy();
 						this.livesP1--;
-						this.logger.info("Hit on player ship, " + this.livesP1 + " lives remaining.");
+						if (this.logger.isLoggable(java.util.logging.Level.INFO))
+							this.logger.info("Hit on player ship, " + this.livesP1 + " lives remaining.");
 					}
 					bulletsToRemove.add(b);
 				}
@@ -971,13 +1292,18 @@ public class GameScreen extends Screen {
 					if (!this.shipP2.isDestroyed()) {
 						this.shipP2.destroy();
 						this.livesP2--;
-						this.logger.info("Hit on player ship, " + this.livesP2 + " lives remaining.");
+						if (this.logger.isLoggable(java.util.logging.Level.INFO))
+							this.logger.info("Hit on player ship, " + this.livesP2 + " lives remaining.");
 					}
 					bulletsToRemove.add(b);
 				}
 			}
 			/** all bullets are removed */
-			bossBullets.removeAll(bulletsToRemove);
+			if (!bulletsToRemove.isEmpty()) {
+				bossBullets.removeAll(bulletsToRemove);
+				BossBulletPool.recycle(bulletsToRemove);
+				bulletsToRemove.clear();
+			}
 
 		}
 		if (this.finalBoss != null && this.finalBoss.isDestroyed()) {
@@ -7,7 +7,8 @@ import java.util.logging.Logger;
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
-import engine.InputManager;
+import engine.GameClock;
+import engine.InputSource;
 
 /**
  * Implements a generic screen.
@@ -19,11 +20,15 @@ public class Screen {
 	
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Nanoseconds in a second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/** Maximum updates run back to back before a frame is drawn. */
+	private static final int MAX_TICKS_PER_FRAME = 5;
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
-	/** Input Manager instance. */
-	protected InputManager inputManager;
+	/** Input source, the keyboard unless replaced for a headless run. */
+	protected InputSource inputManager;
 	/** Application logger. */
 	protected Logger logger;
 
@@ -33,6 +38,8 @@ public class Screen {
 	protected int height;
 	/** Frames per second shown on the screen. */
 	protected int fps;
+	/** Simulation updates per second, independent from the frame rate. */
+	protected int tickRate;
 	/** Screen insets. */
 	protected Insets insets;
 	/** Time until the screen accepts user input. */
@@ -43,6 +50,19 @@ public class Screen {
 	/** What kind of screen goes next. */
 	protected int returnCode;
 
+	/** Total updates run by the screen. */
+	private long tickCount;
+	/** Total frames drawn by the screen. */
+	private long frameCount;
+	/** Updates skipped because the loop fell too far behind. */
+	private long droppedTicks;
+	/** Updates run during the last full second. */
+	private int measuredTickRate;
+	/** Frames drawn during the last full second. */
+	private int measuredFrameRate;
+	/** Maximum updates of a headless run, zero when drawing normally. */
+	private long headlessTickLimit;
+
 	/**
 	 * Constructor, establishes the properties of the screen.
 	 * 
@@ -57,6 +77,7 @@ public class Screen {
 		this.width = width;
 		this.height = height;
 		this.fps = fps;
+		this.tickRate = Core.getTickRate();
 
 		this.drawManager = Core.getDrawManager();
 		this.inputManager = Core.getInputManager();
@@ -75,21 +96,81 @@ public class Screen {
 
 	/**
 	 * Activates the screen.
+	 *
+	 * Runs a fixed timestep loop: {@link #update()} is called exactly
+	 * {@link #tickRate} times per second of elapsed time, while
+	 * {@link #draw()} is called after new updates, at most {@link #fps}
+	 * times per second. If the loop falls behind, at most
+	 * MAX_TICKS_PER_FRAME updates are run before drawing again and the rest
+	 * of the backlog is dropped, so a slow frame can't snowball. A stepped
+	 * game clock is moved forward by one tick before every update, so game
+	 * time follows the updates that actually ran.
 	 * 
 	 * @return Next screen code.
 	 */
 	public int run() {
 		this.isRunning = true;
+		if (this.headlessTickLimit > 0)
+			return runTicks(this.headlessTickLimit);
+
+		final long tickNanos = NANOS_PER_SECOND / this.tickRate;
+		final long frameNanos = this.fps > 0 ? NANOS_PER_SECOND / this.fps : 0;
+		final long maxBacklog = tickNanos * MAX_TICKS_PER_FRAME;
+
+		final GameClock clock = GameClock.current();
+		long previous = System.nanoTime();
+		// Start with a full tick so the first update runs right away.
+		long accumulator = tickNanos;
+		long nextFrame = previous;
+		long counterStart = previous;
+		long ticksAtCounterStart = 0;
+		long framesAtCounterStart = 0;
+		boolean pendingFrame = false;
 
 		while (this.isRunning) {
-			long time = System.currentTimeMillis();
+			long now = System.nanoTime();
+			accumulator += now - previous;
+			previous = now;
 
-			update();
+			if (accumulator > maxBacklog) {
+				this.droppedTicks += (accumulator - maxBacklog) / tickNanos;
+				accumulator = maxBacklog;
+			}
+
+			while (accumulator >= tickNanos && this.isRunning) {
+				if (clock.isStepped())
+					clock.advance(tickNanos);
+				this.inputManager.onTick();
+				update();
+				accumulator -= tickNanos;
+				this.tickCount++;
+				pendingFrame = true;
+			}
+			if (!this.isRunning)
+				break;
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
-			if (time > 0) {
+			if (pendingFrame && now - nextFrame >= 0) {
+				draw();
+				this.frameCount++;
+				pendingFrame = false;
+				nextFrame = now + frameNanos;
+			}
+
+			if (now - counterStart >= NANOS_PER_SECOND) {
+				this.measuredTickRate = (int) (this.tickCount - ticksAtCounterStart);
+				this.measuredFrameRate = (int) (this.frameCount - framesAtCounterStart);
+				ticksAtCounterStart = this.tickCount;
+				framesAtCounterStart = this.frameCount;
+				counterStart = now;
+			}
+
+			long wait = tickNanos - accumulator;
+			if (pendingFrame)
+				wait = Math.min(wait, nextFrame - now);
+			wait -= System.nanoTime() - now;
+			if (wait > 0) {
 				try {
-					TimeUnit.MILLISECONDS.sleep(time);
+					TimeUnit.NANOSECONDS.sleep(wait);
 				} catch (InterruptedException e) {
 					return 0;
 				}
@@ -100,11 +181,136 @@ public class Screen {
 	}
 
 	/**
-	 * Updates the elements on screen and checks for events.
+	 * Initializes and runs the screen without drawing or sleeping. Every
+	 * update moves the current game clock forward by one tick, so the screen
+	 * plays exactly as it would in real time, only as fast as the machine
+	 * allows.
+	 *
+	 * The current thread must use a stepped {@link GameClock} since before
+	 * the screen was created, as its cooldowns start on construction.
+	 *
+	 * @param maxTicks
+	 *            Maximum number of updates, the run stops earlier if the
+	 *            screen finishes.
+	 * @return Next screen code.
+	 */
+	public final int runHeadless(final long maxTicks) {
+		if (!GameClock.current().isStepped())
+			throw new IllegalStateException(
+					"Headless runs need a stepped game clock.");
+		if (maxTicks <= 0)
+			throw new IllegalArgumentException("Tick limit must be positive.");
+		this.headlessTickLimit = maxTicks;
+		try {
+			initialize();
+			return run();
+		} finally {
+			this.headlessTickLimit = 0;
+		}
+	}
+
+	/**
+	 * Runs updates back to back, advancing the stepped clock by one tick
+	 * before each one.
+	 *
+	 * @param maxTicks
+	 *            Maximum number of updates.
+	 * @return Next screen code.
+	 */
+	private int runTicks(final long maxTicks) {
+		final long tickNanos = NANOS_PER_SECOND / this.tickRate;
+		final GameClock clock = GameClock.current();
+
+		for (long tick = 0; tick < maxTicks && this.isRunning; tick++) {
+			clock.advance(tickNanos);
+			this.inputManager.onTick();
+			update();
+			this.tickCount++;
+		}
+		this.measuredTickRate = this.tickRate;
+		return 0;
+	}
+
+	/**
+	 * Replaces the source of the key states, to drive the screen without a
+	 * keyboard.
+	 *
+	 * @param inputSource
+	 *            New input source.
+	 */
+	public final void setInputSource(final InputSource inputSource) {
+		this.inputManager = inputSource;
+	}
+
+	/**
+	 * Checks if the screen is still running.
+	 *
+	 * @return True until the screen finishes.
+	 */
+	public final boolean isRunning() {
+		return this.isRunning;
+	}
+
+	/**
+	 * Updates the elements on screen and checks for events. Called at the
+	 * fixed tick rate.
 	 */
 	protected void update() {
 	}
 
+	/**
+	 * Draws the elements associated with the screen. Called after new
+	 * updates, at most at the screen frame rate.
+	 */
+	protected void draw() {
+	}
+
+	/**
+	 * Getter for the number of updates run in the last full second.
+	 *
+	 * @return Measured ticks per second.
+	 */
+	public final int getMeasuredTickRate() {
+		return this.measuredTickRate;
+	}
+
+	/**
+	 * Getter for the number of frames drawn in the last full second.
+	 *
+	 * @return Measured frames per second.
+	 */
+	public final int getMeasuredFrameRate() {
+		return this.measuredFrameRate;
+	}
+
+	/**
+	 * Getter for the total number of updates run by the screen.
+	 *
+	 * @return Update count.
+	 */
+	public final long getTickCount() {
+		return this.tickCount;
+	}
+
+	/**
+	 * Getter for the total number of frames drawn by the screen.
+	 *
+	 * @return Frame count.
+	 */
+	public final long getFrameCount() {
+		return this.frameCount;
+	}
+
+	/**
+	 * Getter for the number of updates dropped to catch up after slow
+	 * frames.
+	 *
+	 * @return Dropped update count.
+	 */
+	public final long getDroppedTicks() {
+		return this.droppedTicks;
+	}
+
 	/**
 	 * Getter for screen width.
 	 * 
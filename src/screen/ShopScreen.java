@@ -132,7 +132,6 @@ public class ShopScreen extends Screen {
     protected final void update() {
         super.update();
 
-        draw();
 
         if (this.selectionCooldown.checkFinished()
                 && this.inputDelay.checkFinished()) {
@@ -346,7 +345,8 @@ public class ShopScreen extends Screen {
     /**
      * Draws the elements associated with the screen.
      */
-    private void draw() {
+    @Override
+    protected final void draw() {
         drawManager.initDrawing(this);
 
         drawManager.drawShopScreen(this, gameState.getCoin(), selectedItem,
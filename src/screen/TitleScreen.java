@@ -4,12 +4,14 @@ import java.awt.event.KeyEvent;
 import java.awt.Color;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
 import engine.DrawManager.SpriteType;
+import engine.GameClock;
+import engine.RandomService;
 import entity.Entity;
 import entity.SoundButton;
 
@@ -40,7 +42,8 @@ public class TitleScreen extends Screen {
 			this.baseY = baseY;
 			this.speed = speed;
 			this.brightness = 0;
-			this.brightnessOffset = (float) (Math.random() * Math.PI * 2);
+			this.brightnessOffset = (float) (RandomService.nextDouble(
+					RandomService.Stream.EFFECTS) * Math.PI * 2);
 		}
 	}
 
@@ -117,8 +120,8 @@ public class TitleScreen extends Screen {
     /** Target rotation angle of the starfield. */
     private float targetAngle;
 
-	/** Random number generator. */
-    private Random random;
+	/** Random number generator of the cosmetic effects. */
+    private SplittableRandom random;
 
 	/**
 	 * Constructor, establishes the properties of the screen.
@@ -143,12 +146,12 @@ public class TitleScreen extends Screen {
 		this.enemySpawnCooldown.reset();
 		this.shootingStarCooldown.reset();
 
-		this.random = new Random();
+		this.random = RandomService.current().get(RandomService.Stream.EFFECTS);
 		this.stars = new ArrayList<Star>();
 		for (int i = 0; i < NUM_STARS; i++) {
-			float speed = (float) (Math.random() * 2.5 + 0.5);
-			this.stars.add(new Star((float) (Math.random() * width),
-					(float) (Math.random() * height), speed));
+			float speed = (float) (random.nextDouble() * 2.5 + 0.5);
+			this.stars.add(new Star((float) (random.nextDouble() * width),
+					(float) (random.nextDouble() * height), speed));
 		}
 
 		this.backgroundEnemies = new ArrayList<Entity>();
@@ -189,19 +192,19 @@ public class TitleScreen extends Screen {
 			star.baseY += star.speed;
 			if (star.baseY > this.getHeight()) {
 				star.baseY = 0;
-				star.baseX = (float) (Math.random() * this.getWidth());
+				star.baseX = (float) (random.nextDouble() * this.getWidth());
 			}
 			// Update brightness for twinkling effect
-			star.brightness = 0.5f + (float) (Math.sin(star.brightnessOffset + System.currentTimeMillis() / 500.0) + 1.0) / 4.0f;
+			star.brightness = 0.5f + (float) (Math.sin(star.brightnessOffset + GameClock.currentTimeMillis() / 500.0) + 1.0) / 4.0f;
 		}
 
 		// Spawn and move background enemies
 		if (this.enemySpawnCooldown.checkFinished()) {
 			this.enemySpawnCooldown.reset();
-			if (Math.random() < ENEMY_SPAWN_CHANCE) {
+			if (random.nextDouble() < ENEMY_SPAWN_CHANCE) {
 				SpriteType[] enemyTypes = { SpriteType.EnemyShipA1, SpriteType.EnemyShipB1, SpriteType.EnemyShipC1 };
 				SpriteType randomEnemyType = enemyTypes[random.nextInt(enemyTypes.length)];
-				int randomX = (int) (Math.random() * this.getWidth());
+				int randomX = (int) (random.nextDouble() * this.getWidth());
 				int speed = random.nextInt(2) + 1;
 				this.backgroundEnemies.add(new BackgroundEnemy(randomX, -20, speed, randomEnemyType));
 			}
@@ -219,9 +222,9 @@ public class TitleScreen extends Screen {
 		// Spawn and move shooting stars
         if (this.shootingStarCooldown.checkFinished()) {
             this.shootingStarCooldown.reset();
-            if (Math.random() < SHOOTING_STAR_SPAWN_CHANCE) {
-                float speedX = (float) (Math.random() * 10 + 5) * (Math.random() > 0.5 ? 1 : -1);
-                float speedY = (float) (Math.random() * 10 + 5) * (Math.random() > 0.5 ? 1 : -1);
+            if (random.nextDouble() < SHOOTING_STAR_SPAWN_CHANCE) {
+                float speedX = (float) (random.nextDouble() * 10 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
+                float speedY = (float) (random.nextDouble() * 10 + 5) * (random.nextDouble() > 0.5 ? 1 : -1);
                 this.shootingStars.add(new ShootingStar(random.nextInt(this.getWidth()), -10, speedX, speedY));
             }
         }
@@ -239,14 +242,13 @@ public class TitleScreen extends Screen {
 
 		// Handle sound button color
 		if (this.returnCode == 5) {
-            float pulse = (float) ((Math.sin(System.currentTimeMillis() / 200.0) + 1.0) / 2.0);
+            float pulse = (float) ((Math.sin(GameClock.currentTimeMillis() / 200.0) + 1.0) / 2.0);
             Color pulseColor = new Color(0, 0.5f + pulse * 0.5f, 0);
             this.soundButton.setColor(pulseColor);
         } else {
             this.soundButton.setColor(Color.WHITE);
         }
 
-		draw();
 		if (this.selectionCooldown.checkFinished()
 				&& this.inputDelay.checkFinished()) {
 			if (inputManager.isKeyDown(KeyEvent.VK_UP)
@@ -339,7 +341,8 @@ public class TitleScreen extends Screen {
 	/**
 	 * Draws the elements associated with the screen.
 	 */
-	private void draw() {
+	@Override
+	protected final void draw() {
 		drawManager.initDrawing(this);
 
 		// Draw stars with rotation
@@ -369,6 +372,10 @@ public class TitleScreen extends Screen {
 		}
 
 		drawManager.drawTitle(this);
+		final int preloaded = SoundManager.getPreloaded();
+		final int preloadTotal = SoundManager.getPreloadTotal();
+		if (preloaded < preloadTotal)
+			drawManager.drawSoundLoading(this, preloaded, preloadTotal);
 		drawManager.drawMenu(this, this.returnCode);
 		drawManager.drawEntity(this.soundButton, this.width * 4 / 5 - 16,
 				this.height * 4 / 5 - 16);